@@ -0,0 +1,23 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Annotation as stored in a class file. Element values are either a String
+ * (constants, enum constant names, class literals), an {@link AnnotationInfo}
+ * or an Object[] of those.
+ */
+class AnnotationInfo implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	final String typeName;
+
+	final Map<String, Object> values = new LinkedHashMap<String, Object>();
+
+	AnnotationInfo(String typeName) {
+		this.typeName = typeName;
+	}
+}
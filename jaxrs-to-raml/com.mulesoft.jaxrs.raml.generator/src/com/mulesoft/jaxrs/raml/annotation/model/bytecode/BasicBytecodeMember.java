@@ -0,0 +1,73 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import com.mulesoft.jaxrs.raml.annotation.model.IAnnotationModel;
+import com.mulesoft.jaxrs.raml.annotation.model.IBasicModel;
+
+public abstract class BasicBytecodeMember implements IBasicModel {
+
+	private static final String VALUE = "value";
+
+	protected final BytecodeIndex index;
+
+	public BasicBytecodeMember(BytecodeIndex index) {
+		this.index = index;
+	}
+
+	/**
+	 * @return the runtime visible annotations of this element
+	 */
+	abstract AnnotationInfo[] getAnnotationInfos();
+
+	/**
+	 * @return the key identifying this element in {@link #equals(Object)}
+	 */
+	abstract String getKey();
+
+	public String getDocumentation() {
+		return "type some documentation here";
+	}
+
+	public IAnnotationModel[] getAnnotations() {
+		AnnotationInfo[] annotations = getAnnotationInfos();
+		IAnnotationModel[] ml = new IAnnotationModel[annotations.length];
+		for (int a = 0; a < annotations.length; a++) {
+			ml[a] = new BytecodeAnnotation(index, annotations[a]);
+		}
+		return ml;
+	}
+
+	public String getAnnotationValue(String annotation) {
+		IAnnotationModel q = getAnnotation(annotation);
+		return q != null ? q.getValue(VALUE) : null;
+	}
+
+	public String[] getAnnotationValues(String annotation) {
+		IAnnotationModel q = getAnnotation(annotation);
+		return q != null ? q.getValues(VALUE) : null;
+	}
+
+	public boolean hasAnnotation(String name) {
+		return getAnnotation(name) != null;
+	}
+
+	public IAnnotationModel getAnnotation(String name) {
+		for (AnnotationInfo info : getAnnotationInfos()) {
+			if (Descriptors.simpleName(info.typeName).equals(name)) {
+				return new BytecodeAnnotation(index, info);
+			}
+		}
+		return null;
+	}
+
+	public int hashCode() {
+		return getClass().hashCode() * 31 + getKey().hashCode();
+	}
+
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return getKey().equals(((BasicBytecodeMember) obj).getKey());
+	}
+}
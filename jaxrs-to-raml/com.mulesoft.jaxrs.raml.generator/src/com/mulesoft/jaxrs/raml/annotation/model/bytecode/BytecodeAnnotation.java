@@ -0,0 +1,75 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import com.mulesoft.jaxrs.raml.annotation.model.IAnnotationModel;
+
+/**
+ * Annotation read from a class file. Elements the annotation doesn't set
+ * fall back to their default value if the annotation type is indexed.
+ */
+public class BytecodeAnnotation implements IAnnotationModel {
+
+	private final BytecodeIndex index;
+
+	private final AnnotationInfo annotation;
+
+	BytecodeAnnotation(BytecodeIndex index, AnnotationInfo annotation) {
+		this.index = index;
+		this.annotation = annotation;
+	}
+
+	public String getName() {
+		return Descriptors.simpleName(annotation.typeName);
+	}
+
+	public String getValue(String pairName) {
+		Object value = get(pairName);
+		return value instanceof String ? (String) value : null;
+	}
+
+	public String[] getValues(String value) {
+		Object values = get(value);
+		if (!(values instanceof Object[])) {
+			return null;
+		}
+		Object[] array = (Object[]) values;
+		String[] result = new String[array.length];
+		for (int a = 0; a < array.length; a++) {
+			if (!(array[a] instanceof String)) {
+				return null;
+			}
+			result[a] = (String) array[a];
+		}
+		return result;
+	}
+
+	public IAnnotationModel[] getSubAnnotations(String pairName) {
+		Object values = get(pairName);
+		if (!(values instanceof Object[])) {
+			return null;
+		}
+		Object[] array = (Object[]) values;
+		IAnnotationModel[] result = new IAnnotationModel[array.length];
+		for (int a = 0; a < array.length; a++) {
+			if (!(array[a] instanceof AnnotationInfo)) {
+				return null;
+			}
+			result[a] = new BytecodeAnnotation(index, (AnnotationInfo) array[a]);
+		}
+		return result;
+	}
+
+	private Object get(String pairName) {
+		if (annotation.values.containsKey(pairName)) {
+			return annotation.values.get(pairName);
+		}
+		ClassInfo type = index.getClassInfo(annotation.typeName);
+		if (type != null) {
+			for (MemberInfo m : type.methods) {
+				if (m.name.equals(pairName)) {
+					return m.defaultValue;
+				}
+			}
+		}
+		return null;
+	}
+}
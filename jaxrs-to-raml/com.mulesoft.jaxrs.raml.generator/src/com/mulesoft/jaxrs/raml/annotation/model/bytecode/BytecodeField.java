@@ -0,0 +1,52 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import com.mulesoft.jaxrs.raml.annotation.model.IFieldModel;
+import com.mulesoft.jaxrs.raml.annotation.model.ITypeModel;
+
+public class BytecodeField extends BasicBytecodeMember implements IFieldModel {
+
+	private final String owner;
+
+	private final MemberInfo field;
+
+	BytecodeField(BytecodeIndex index, String owner, MemberInfo field) {
+		super(index);
+		this.owner = owner;
+		this.field = field;
+	}
+
+	public String getName() {
+		return field.name;
+	}
+
+	public ITypeModel getType() {
+		return new BytecodeType(index, Descriptors.toBinaryName(field.descriptor));
+	}
+
+	public boolean isStatic() {
+		return (field.access & MemberInfo.ACC_STATIC) != 0;
+	}
+
+	public boolean isPublic() {
+		return (field.access & MemberInfo.ACC_PUBLIC) != 0;
+	}
+
+	public ITypeModel getJAXBType() {
+		return null;
+	}
+
+	/**
+	 * @return null, bytecode models never load classes
+	 */
+	public Class<?> getJavaType() {
+		return null;
+	}
+
+	AnnotationInfo[] getAnnotationInfos() {
+		return field.annotations;
+	}
+
+	String getKey() {
+		return owner + "." + field.name;
+	}
+}
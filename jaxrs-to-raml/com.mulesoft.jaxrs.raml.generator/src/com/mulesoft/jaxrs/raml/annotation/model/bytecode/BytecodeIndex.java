@@ -0,0 +1,184 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.mulesoft.jaxrs.raml.annotation.model.ITypeModel;
+
+/**
+ * Annotation index of the classes found in jars and directories, built from
+ * the class files so that no application class gets loaded or initialized.
+ * <p>
+ * An index can be precomputed at build time with {@link #write(File)} (or
+ * {@link #main(String[])}) and later restored with {@link #read(File)}.
+ */
+public class BytecodeIndex {
+
+	private static final String FORMAT = "raml-bytecode-index-1";
+
+	private static final String PATH = "javax.ws.rs.Path";
+
+	private final Map<String, ClassInfo> classes = new HashMap<String, ClassInfo>();
+
+	/**
+	 * @return an index of all classes in the given directories and jars
+	 */
+	public static BytecodeIndex scan(File... roots) throws IOException {
+		BytecodeIndex index = new BytecodeIndex();
+		for (File root : roots) {
+			index.addRoot(root);
+		}
+		return index;
+	}
+
+	/**
+	 * @return the index previously written to <code>indexFile</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public static BytecodeIndex read(File indexFile) throws IOException {
+		ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(
+				new FileInputStream(indexFile))));
+		try {
+			if (!FORMAT.equals(in.readUTF())) {
+				throw new IOException("Unsupported index file: " + indexFile);
+			}
+			BytecodeIndex index = new BytecodeIndex();
+			index.classes.putAll((Map<String, ClassInfo>) in.readObject());
+			return index;
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Corrupt index file: " + indexFile, e);
+		} finally {
+			in.close();
+		}
+	}
+
+	public void write(File indexFile) throws IOException {
+		ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(
+				new FileOutputStream(indexFile))));
+		try {
+			out.writeUTF(FORMAT);
+			out.writeObject(new TreeMap<String, ClassInfo>(classes));
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Adds all classes of a directory, or of a jar file.
+	 */
+	public void addRoot(File root) throws IOException {
+		if (root.isDirectory()) {
+			addDirectory(root);
+		} else if (root.isFile()) {
+			ZipFile zip = new ZipFile(root);
+			try {
+				Enumeration<? extends ZipEntry> entries = zip.entries();
+				while (entries.hasMoreElements()) {
+					ZipEntry entry = entries.nextElement();
+					if (isClassFile(entry.getName())) {
+						InputStream in = zip.getInputStream(entry);
+						try {
+							addClass(in);
+						} finally {
+							in.close();
+						}
+					}
+				}
+			} finally {
+				zip.close();
+			}
+		}
+	}
+
+	/**
+	 * Adds the class read from a class file stream.
+	 */
+	public void addClass(InputStream classFile) throws IOException {
+		ClassInfo info = new ClassFileReader(new BufferedInputStream(classFile)).read();
+		classes.put(info.name, info);
+	}
+
+	public boolean contains(String className) {
+		return classes.containsKey(className);
+	}
+
+	/**
+	 * @param className binary class name, e.g. <code>com.acme.Outer$Inner</code>
+	 * @return the model of the class; a model without annotations or members if the class isn't indexed
+	 */
+	public ITypeModel getType(String className) {
+		return new BytecodeType(this, className);
+	}
+
+	/**
+	 * @return the indexed classes annotated with <code>@Path</code>, sorted by name
+	 */
+	public List<ITypeModel> getResourceTypes() {
+		List<ITypeModel> result = new ArrayList<ITypeModel>();
+		for (ClassInfo info : new TreeMap<String, ClassInfo>(classes).values()) {
+			if (info.hasAnnotation(PATH)) {
+				result.add(getType(info.name));
+			}
+		}
+		return result;
+	}
+
+	ClassInfo getClassInfo(String className) {
+		return classes.get(className);
+	}
+
+	private void addDirectory(File directory) throws IOException {
+		File[] children = directory.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (File child : children) {
+			if (child.isDirectory()) {
+				addDirectory(child);
+			} else if (isClassFile(child.getName())) {
+				InputStream in = new FileInputStream(child);
+				try {
+					addClass(in);
+				} finally {
+					in.close();
+				}
+			}
+		}
+	}
+
+	private static boolean isClassFile(String name) {
+		return name.endsWith(".class") && !name.startsWith("META-INF/") && !name.endsWith("module-info.class");
+	}
+
+	/**
+	 * Writes an index file at build time: <code>&lt;index file&gt; &lt;directory or jar&gt;...</code>
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BytecodeIndex <index file> <directory or jar>...");
+			System.exit(1);
+		}
+		File[] roots = new File[args.length - 1];
+		for (int i = 1; i < args.length; i++) {
+			roots[i - 1] = new File(args[i]);
+		}
+		scan(roots).write(new File(args[0]));
+	}
+}
@@ -0,0 +1,95 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import java.util.List;
+
+import com.mulesoft.jaxrs.raml.annotation.model.IDocInfo;
+import com.mulesoft.jaxrs.raml.annotation.model.IMethodModel;
+import com.mulesoft.jaxrs.raml.annotation.model.IParameterModel;
+import com.mulesoft.jaxrs.raml.annotation.model.ITypeModel;
+
+public class BytecodeMethod extends BasicBytecodeMember implements IMethodModel {
+
+	private static final AnnotationInfo[] NO_ANNOTATIONS = new AnnotationInfo[0];
+
+	private final String owner;
+
+	private final MemberInfo method;
+
+	BytecodeMethod(BytecodeIndex index, String owner, MemberInfo method) {
+		super(index);
+		this.owner = owner;
+		this.method = method;
+	}
+
+	public IParameterModel[] getParameters() {
+		List<String> descriptors = Descriptors.parameterDescriptors(method.descriptor);
+		IParameterModel[] models = new IParameterModel[descriptors.size()];
+		for (int a = 0; a < models.length; a++) {
+			AnnotationInfo[] annotations = a < method.parameterAnnotations.length ? method.parameterAnnotations[a]
+					: NO_ANNOTATIONS;
+			models[a] = new BytecodeParameter(index, new BytecodeType(index,
+					Descriptors.toBinaryName(descriptors.get(a))), annotations, getKey() + "#" + a);
+		}
+		return models;
+	}
+
+	public IDocInfo getBasicDocInfo() {
+		return new IDocInfo() {
+
+			public String getReturnInfo() {
+				return "";
+			}
+
+			public String getDocumentation(String pName) {
+				return "";
+			}
+
+			public String getDocumentation() {
+				return "";
+			}
+		};
+	}
+
+	public ITypeModel getReturnedType() {
+		return new BytecodeType(index, Descriptors.toBinaryName(Descriptors.returnDescriptor(method.descriptor)));
+	}
+
+	public String getName() {
+		return method.name;
+	}
+
+	public ITypeModel getBodyType() {
+		return null;
+	}
+
+	public boolean isStatic() {
+		return (method.access & MemberInfo.ACC_STATIC) != 0;
+	}
+
+	public boolean isPublic() {
+		return (method.access & MemberInfo.ACC_PUBLIC) != 0;
+	}
+
+	public ITypeModel getType() {
+		return getReturnedType();
+	}
+
+	public ITypeModel getJAXBType() {
+		return null;
+	}
+
+	/**
+	 * @return null, bytecode models never load classes
+	 */
+	public Class<?> getJavaType() {
+		return null;
+	}
+
+	AnnotationInfo[] getAnnotationInfos() {
+		return method.annotations;
+	}
+
+	String getKey() {
+		return owner + "." + method.name + method.descriptor;
+	}
+}
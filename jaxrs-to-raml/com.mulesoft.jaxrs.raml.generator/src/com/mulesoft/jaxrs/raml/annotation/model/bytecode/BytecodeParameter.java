@@ -0,0 +1,43 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import com.mulesoft.jaxrs.raml.annotation.model.IParameterModel;
+
+public class BytecodeParameter extends BasicBytecodeMember implements IParameterModel {
+
+	private final BytecodeType type;
+
+	private final AnnotationInfo[] annotations;
+
+	private final String key;
+
+	BytecodeParameter(BytecodeIndex index, BytecodeType type, AnnotationInfo[] annotations, String key) {
+		super(index);
+		this.type = type;
+		this.annotations = annotations;
+		this.key = key;
+	}
+
+	public String getDocumentation() {
+		return "";
+	}
+
+	public String getName() {
+		return type.getName();
+	}
+
+	public String getType() {
+		return type.getName();
+	}
+
+	public boolean required() {
+		return type.isPrimitive();
+	}
+
+	AnnotationInfo[] getAnnotationInfos() {
+		return annotations;
+	}
+
+	String getKey() {
+		return key;
+	}
+}
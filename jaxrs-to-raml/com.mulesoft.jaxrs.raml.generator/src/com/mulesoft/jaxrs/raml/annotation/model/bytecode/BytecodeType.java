@@ -0,0 +1,81 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mulesoft.jaxrs.raml.annotation.model.IFieldModel;
+import com.mulesoft.jaxrs.raml.annotation.model.IMethodModel;
+import com.mulesoft.jaxrs.raml.annotation.model.ITypeModel;
+
+/**
+ * Type model backed by a {@link BytecodeIndex}. Types missing from the index
+ * (e.g. JDK classes) have neither annotations nor members.
+ */
+public class BytecodeType extends BasicBytecodeMember implements ITypeModel {
+
+	private static final AnnotationInfo[] NO_ANNOTATIONS = new AnnotationInfo[0];
+
+	private final String className;
+
+	BytecodeType(BytecodeIndex index, String className) {
+		super(index);
+		this.className = className;
+	}
+
+	public IMethodModel[] getMethods() {
+		ClassInfo info = index.getClassInfo(className);
+		List<IMethodModel> methods = new ArrayList<IMethodModel>();
+		if (info != null) {
+			for (MemberInfo m : info.methods) {
+				if (!m.isSynthetic() && !m.name.startsWith("<")) {
+					methods.add(new BytecodeMethod(index, className, m));
+				}
+			}
+		}
+		return methods.toArray(new IMethodModel[methods.size()]);
+	}
+
+	/**
+	 * @return the public fields of this type and its indexed super classes
+	 */
+	public IFieldModel[] getFields() {
+		List<IFieldModel> fields = new ArrayList<IFieldModel>();
+		for (ClassInfo info = index.getClassInfo(className); info != null; info = info.superName != null ? index
+				.getClassInfo(info.superName) : null) {
+			for (MemberInfo f : info.fields) {
+				if ((f.access & MemberInfo.ACC_PUBLIC) != 0 && !f.isSynthetic()) {
+					fields.add(new BytecodeField(index, info.name, f));
+				}
+			}
+		}
+		return fields.toArray(new IFieldModel[fields.size()]);
+	}
+
+	public String getName() {
+		return Descriptors.simpleName(className);
+	}
+
+	public String getFullyQualifiedName() {
+		return className.replace('$', '.');
+	}
+
+	/**
+	 * @return the binary name, e.g. <code>com.acme.Outer$Inner</code>
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	boolean isPrimitive() {
+		return Descriptors.isPrimitive(className);
+	}
+
+	AnnotationInfo[] getAnnotationInfos() {
+		ClassInfo info = index.getClassInfo(className);
+		return info != null ? info.annotations : NO_ANNOTATIONS;
+	}
+
+	String getKey() {
+		return className;
+	}
+}
@@ -0,0 +1,222 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the structure and runtime visible annotations of a class file
+ * without loading the class.
+ */
+class ClassFileReader {
+
+	private static final int MAGIC = 0xCAFEBABE;
+
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+	private static final String RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+	private static final String ANNOTATION_DEFAULT = "AnnotationDefault";
+
+	private final DataInputStream in;
+
+	private Object[] constants;
+
+	ClassFileReader(InputStream in) {
+		this.in = new DataInputStream(in);
+	}
+
+	ClassInfo read() throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a class file");
+		}
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+		readConstantPool();
+
+		in.readUnsignedShort();
+		String name = className(in.readUnsignedShort());
+		int superIndex = in.readUnsignedShort();
+		ClassInfo info = new ClassInfo(name, superIndex == 0 ? null : className(superIndex));
+		int interfaces = in.readUnsignedShort();
+		for (int i = 0; i < interfaces; i++) {
+			in.readUnsignedShort();
+		}
+
+		int fields = in.readUnsignedShort();
+		for (int i = 0; i < fields; i++) {
+			info.fields.add(readMember());
+		}
+		int methods = in.readUnsignedShort();
+		for (int i = 0; i < methods; i++) {
+			info.methods.add(readMember());
+		}
+
+		int attributes = in.readUnsignedShort();
+		for (int i = 0; i < attributes; i++) {
+			String attributeName = utf8(in.readUnsignedShort());
+			int length = in.readInt();
+			if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+				info.annotations = readAnnotations();
+			} else {
+				skip(length);
+			}
+		}
+		return info;
+	}
+
+	private MemberInfo readMember() throws IOException {
+		int access = in.readUnsignedShort();
+		MemberInfo member = new MemberInfo(utf8(in.readUnsignedShort()), utf8(in.readUnsignedShort()), access);
+		int attributes = in.readUnsignedShort();
+		for (int i = 0; i < attributes; i++) {
+			String attributeName = utf8(in.readUnsignedShort());
+			int length = in.readInt();
+			if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+				member.annotations = readAnnotations();
+			} else if (RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS.equals(attributeName)) {
+				int parameters = in.readUnsignedByte();
+				member.parameterAnnotations = new AnnotationInfo[parameters][];
+				for (int p = 0; p < parameters; p++) {
+					member.parameterAnnotations[p] = readAnnotations();
+				}
+			} else if (ANNOTATION_DEFAULT.equals(attributeName)) {
+				member.defaultValue = readElementValue();
+			} else {
+				skip(length);
+			}
+		}
+		return member;
+	}
+
+	private AnnotationInfo[] readAnnotations() throws IOException {
+		AnnotationInfo[] annotations = new AnnotationInfo[in.readUnsignedShort()];
+		for (int i = 0; i < annotations.length; i++) {
+			annotations[i] = readAnnotation();
+		}
+		return annotations;
+	}
+
+	private AnnotationInfo readAnnotation() throws IOException {
+		AnnotationInfo annotation = new AnnotationInfo(Descriptors.toBinaryName(utf8(in.readUnsignedShort())));
+		int pairs = in.readUnsignedShort();
+		for (int i = 0; i < pairs; i++) {
+			String name = utf8(in.readUnsignedShort());
+			annotation.values.put(name, readElementValue());
+		}
+		return annotation;
+	}
+
+	private Object readElementValue() throws IOException {
+		int tag = in.readUnsignedByte();
+		switch (tag) {
+		case 'B':
+		case 'I':
+		case 'S':
+		case 'J':
+		case 'F':
+		case 'D':
+		case 's':
+			return String.valueOf(constants[in.readUnsignedShort()]);
+		case 'C':
+			return String.valueOf((char) ((Integer) constants[in.readUnsignedShort()]).intValue());
+		case 'Z':
+			return String.valueOf(((Integer) constants[in.readUnsignedShort()]).intValue() != 0);
+		case 'e':
+			in.readUnsignedShort();
+			return utf8(in.readUnsignedShort());
+		case 'c':
+			String type = Descriptors.toSourceName(utf8(in.readUnsignedShort()));
+			return Descriptors.isPrimitive(type) ? type : "class " + type;
+		case '@':
+			return readAnnotation();
+		case '[':
+			Object[] values = new Object[in.readUnsignedShort()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = readElementValue();
+			}
+			return values;
+		default:
+			throw new IOException("Unknown annotation element tag: " + (char) tag);
+		}
+	}
+
+	private void readConstantPool() throws IOException {
+		int count = in.readUnsignedShort();
+		constants = new Object[count];
+		List<int[]> classes = new ArrayList<int[]>();
+		for (int i = 1; i < count; i++) {
+			int tag = in.readUnsignedByte();
+			switch (tag) {
+			case 1:
+				constants[i] = in.readUTF();
+				break;
+			case 3:
+				constants[i] = Integer.valueOf(in.readInt());
+				break;
+			case 4:
+				constants[i] = Float.valueOf(in.readFloat());
+				break;
+			case 5:
+				constants[i++] = Long.valueOf(in.readLong());
+				break;
+			case 6:
+				constants[i++] = Double.valueOf(in.readDouble());
+				break;
+			case 7:
+				classes.add(new int[] { i, in.readUnsignedShort() });
+				break;
+			case 8:
+			case 16:
+			case 19:
+			case 20:
+				in.readUnsignedShort();
+				break;
+			case 9:
+			case 10:
+			case 11:
+			case 12:
+			case 17:
+			case 18:
+				in.readInt();
+				break;
+			case 15:
+				in.readUnsignedByte();
+				in.readUnsignedShort();
+				break;
+			default:
+				throw new IOException("Unknown constant pool tag: " + tag);
+			}
+		}
+		for (int[] c : classes) {
+			constants[c[0]] = new ClassRef((String) constants[c[1]]);
+		}
+	}
+
+	private String utf8(int index) {
+		return (String) constants[index];
+	}
+
+	private String className(int index) {
+		return ((ClassRef) constants[index]).internalName.replace('/', '.');
+	}
+
+	private void skip(int length) throws IOException {
+		int remaining = length;
+		while (remaining > 0) {
+			int skipped = in.skipBytes(remaining);
+			if (skipped <= 0) {
+				throw new IOException("Truncated class file");
+			}
+			remaining -= skipped;
+		}
+	}
+
+	private static class ClassRef {
+		final String internalName;
+
+		ClassRef(String internalName) {
+			this.internalName = internalName;
+		}
+	}
+}
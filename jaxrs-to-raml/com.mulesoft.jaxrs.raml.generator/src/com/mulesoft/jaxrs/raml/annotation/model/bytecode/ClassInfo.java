@@ -0,0 +1,43 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class as stored in a class file, reduced to what the RAML generator reads.
+ */
+class ClassInfo implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * binary name, e.g. <code>com.acme.Outer$Inner</code>
+	 */
+	final String name;
+
+	/**
+	 * binary name of the super class, null for java.lang.Object
+	 */
+	final String superName;
+
+	AnnotationInfo[] annotations = new AnnotationInfo[0];
+
+	final List<MemberInfo> fields = new ArrayList<MemberInfo>();
+
+	final List<MemberInfo> methods = new ArrayList<MemberInfo>();
+
+	ClassInfo(String name, String superName) {
+		this.name = name;
+		this.superName = superName;
+	}
+
+	boolean hasAnnotation(String typeName) {
+		for (AnnotationInfo a : annotations) {
+			if (a.typeName.equals(typeName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,94 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversions of JVM type and method descriptors.
+ */
+final class Descriptors {
+
+	private static final String[] PRIMITIVES = { "boolean", "byte", "char", "short", "int", "long", "float",
+			"double", "void" };
+
+	private Descriptors() {
+	}
+
+	/**
+	 * @return the binary name for a field descriptor, e.g. <code>java.util.Map$Entry</code>,
+	 *         <code>int</code> or <code>java.lang.String[]</code>
+	 */
+	static String toBinaryName(String descriptor) {
+		switch (descriptor.charAt(0)) {
+		case 'Z':
+			return "boolean";
+		case 'B':
+			return "byte";
+		case 'C':
+			return "char";
+		case 'S':
+			return "short";
+		case 'I':
+			return "int";
+		case 'J':
+			return "long";
+		case 'F':
+			return "float";
+		case 'D':
+			return "double";
+		case 'V':
+			return "void";
+		case '[':
+			return toBinaryName(descriptor.substring(1)) + "[]";
+		case 'L':
+			return descriptor.substring(1, descriptor.indexOf(';')).replace('/', '.');
+		default:
+			throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
+		}
+	}
+
+	/**
+	 * @return the source level name for a field descriptor, e.g. <code>java.util.Map.Entry</code>
+	 */
+	static String toSourceName(String descriptor) {
+		return toBinaryName(descriptor).replace('$', '.');
+	}
+
+	static String simpleName(String binaryName) {
+		String name = binaryName.substring(binaryName.lastIndexOf('.') + 1);
+		return name.substring(name.lastIndexOf('$') + 1);
+	}
+
+	static boolean isPrimitive(String name) {
+		for (String p : PRIMITIVES) {
+			if (p.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the field descriptors of the parameters of a method descriptor
+	 */
+	static List<String> parameterDescriptors(String methodDescriptor) {
+		List<String> result = new ArrayList<String>();
+		int i = 1;
+		while (methodDescriptor.charAt(i) != ')') {
+			int start = i;
+			while (methodDescriptor.charAt(i) == '[') {
+				i++;
+			}
+			if (methodDescriptor.charAt(i) == 'L') {
+				i = methodDescriptor.indexOf(';', i);
+			}
+			i++;
+			result.add(methodDescriptor.substring(start, i));
+		}
+		return result;
+	}
+
+	static String returnDescriptor(String methodDescriptor) {
+		return methodDescriptor.substring(methodDescriptor.indexOf(')') + 1);
+	}
+}
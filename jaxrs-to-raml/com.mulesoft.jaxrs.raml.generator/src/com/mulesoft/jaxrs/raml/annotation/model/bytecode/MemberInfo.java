@@ -0,0 +1,46 @@
+package com.mulesoft.jaxrs.raml.annotation.model.bytecode;
+
+import java.io.Serializable;
+
+/**
+ * Field or method as stored in a class file.
+ */
+class MemberInfo implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	static final int ACC_PUBLIC = 0x0001;
+	static final int ACC_STATIC = 0x0008;
+	static final int ACC_BRIDGE = 0x0040;
+	static final int ACC_SYNTHETIC = 0x1000;
+
+	private static final AnnotationInfo[] NO_ANNOTATIONS = new AnnotationInfo[0];
+
+	final String name;
+
+	final String descriptor;
+
+	final int access;
+
+	AnnotationInfo[] annotations = NO_ANNOTATIONS;
+
+	/**
+	 * per parameter annotations of a method, may be shorter than its parameter list
+	 */
+	AnnotationInfo[][] parameterAnnotations = new AnnotationInfo[0][];
+
+	/**
+	 * default value of an annotation type element, null if none
+	 */
+	Object defaultValue;
+
+	MemberInfo(String name, String descriptor, int access) {
+		this.name = name;
+		this.descriptor = descriptor;
+		this.access = access;
+	}
+
+	boolean isSynthetic() {
+		return (access & (ACC_SYNTHETIC | ACC_BRIDGE)) != 0;
+	}
+}
@@ -1,11 +1,25 @@
 package com.mulesoft.jaxrs.raml.annotation.model.reflection;
 
+import com.mulesoft.jaxrs.raml.annotation.model.ITypeModel;
 import com.mulesoft.jaxrs.raml.annotation.model.ResourceVisitor;
+import com.mulesoft.jaxrs.raml.annotation.model.bytecode.BytecodeIndex;
 
 public class RuntimeRamlBuilder {
 
 	
-	protected ResourceVisitor visitor=new RuntimeResourceVisitor(null, null);
+	protected ResourceVisitor visitor;
+	
+	public RuntimeRamlBuilder(){
+		this(null);
+	}
+	
+	/**
+	 * @param classLoader loads the <code>@XmlRootElement</code> classes met in a {@link BytecodeIndex}
+	 * to generate their XSD schemas, may be null
+	 */
+	public RuntimeRamlBuilder(ClassLoader classLoader){
+		visitor=new RuntimeResourceVisitor(null, classLoader);
+	}
 	
 	public void addClass(Class<?>clazz){
 		visitor.visit(new ReflectionType(clazz));
@@ -17,6 +31,25 @@ public class RuntimeRamlBuilder {
 		}
 	}
 	
+	/**
+	 * Adds a class read from the index, without loading it. Only its <code>@XmlRootElement</code>
+	 * entities are loaded, and only if this builder has a class loader: otherwise they get no XSD schema.
+	 * @param className binary class name
+	 */
+	public void addClass(BytecodeIndex index, String className){
+		visitor.visit(index.getType(className));
+	}
+	
+	/**
+	 * Adds all classes of the index annotated with <code>@Path</code>, without loading them
+	 * @see #addClass(BytecodeIndex, String)
+	 */
+	public void addClasses(BytecodeIndex index){
+		for (ITypeModel t:index.getResourceTypes()){
+			visitor.visit(t);
+		}
+	}
+	
 	public String toRAML(){
 		return visitor.getRaml();
 	}
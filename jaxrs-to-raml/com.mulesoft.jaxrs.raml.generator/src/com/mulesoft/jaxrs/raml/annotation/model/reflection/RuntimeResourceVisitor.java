@@ -6,6 +6,7 @@ import java.io.File;
 import com.mulesoft.jaxrs.raml.annotation.model.IRamlConfig;
 import com.mulesoft.jaxrs.raml.annotation.model.ITypeModel;
 import com.mulesoft.jaxrs.raml.annotation.model.ResourceVisitor;
+import com.mulesoft.jaxrs.raml.annotation.model.bytecode.BytecodeType;
 
 public class RuntimeResourceVisitor extends ResourceVisitor {
 
@@ -27,7 +28,8 @@ public class RuntimeResourceVisitor extends ResourceVisitor {
 		}
 		else if (t.getFullyQualifiedName() != null && classLoader != null) {
 			try {
-				Class<?> element = classLoader.loadClass(t.getFullyQualifiedName());
+				String className = t instanceof BytecodeType ? ((BytecodeType) t).getClassName() : t.getFullyQualifiedName();
+				Class<?> element = classLoader.loadClass(className);
 				generateXSDForClass(element);
 			} catch (ClassNotFoundException e) {
 				e.printStackTrace();
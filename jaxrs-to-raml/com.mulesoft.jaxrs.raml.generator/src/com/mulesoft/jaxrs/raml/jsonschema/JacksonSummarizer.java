@@ -0,0 +1,83 @@
+package com.mulesoft.jaxrs.raml.jsonschema;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams a JSON document through a Jackson parser into a {@link SchemaSummary}. Only
+ * referenced by {@link SchemaGenerator} once it knows Jackson is available.
+ */
+class JacksonSummarizer {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	static {
+		// as lenient as the Jettison parser used before
+		JSON_FACTORY.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+		JSON_FACTORY.configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
+		JSON_FACTORY.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
+		JSON_FACTORY.configure(JsonParser.Feature.ALLOW_NON_NUMERIC_NUMBERS, true);
+	}
+
+	private JacksonSummarizer(){
+	}
+
+	/**
+	 * @return the summary of the document, or <code>null</code> if it isn't a JSON object or array
+	 */
+	static SchemaSummary summarize(Reader reader) throws IOException{
+
+		JsonParser parser = JSON_FACTORY.createParser(reader);
+		try {
+			JsonToken token = parser.nextToken();
+			if(token!=JsonToken.START_OBJECT && token!=JsonToken.START_ARRAY){
+				return null;
+			}
+			return readValue(parser, false);
+		}
+		finally {
+			parser.close();
+		}
+	}
+
+	private static SchemaSummary readValue(JsonParser parser, boolean arrayItem) throws IOException {
+
+		switch(parser.getCurrentToken()){
+		case START_OBJECT:
+			SchemaSummary object = new SchemaSummary("object");
+			while(parser.nextToken()==JsonToken.FIELD_NAME){
+				String propName = parser.getCurrentName();
+				parser.nextToken();
+				object.putProperty(propName, readValue(parser, false));
+			}
+			return object;
+		case START_ARRAY:
+			SchemaSummary array = new SchemaSummary("array");
+			if(arrayItem){
+				// nested arrays are only typed
+				parser.skipChildren();
+				return array;
+			}
+			while(parser.nextToken()!=JsonToken.END_ARRAY){
+				array.addItem(readValue(parser, true));
+			}
+			return array;
+		case VALUE_STRING:
+			return new SchemaSummary("string");
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return new SchemaSummary("number");
+		case VALUE_TRUE:
+		case VALUE_FALSE:
+			return new SchemaSummary("boolean");
+		case VALUE_NULL:
+			return SchemaSummary.nullValue();
+		default:
+			throw new IOException("Unexpected token " + parser.getCurrentToken() + " at " + parser.getCurrentLocation());
+		}
+	}
+}
@@ -1,130 +1,190 @@
 package com.mulesoft.jaxrs.raml.jsonschema;
 
-import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.commons.io.IOUtils;
 import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
+/**
+ * Infers JSON schemas from examples. Examples are streamed through a Jackson parser into
+ * {@link SchemaSummary summaries}, so only the schema is kept in memory, never the example.
+ * Without Jackson, examples are loaded with Jettison instead.
+ * Directories are processed in parallel.
+ */
 public class SchemaGenerator {
-	
-	
+
+	/**
+	 * The bundle imports Jackson optionally
+	 */
+	private static final boolean JACKSON_AVAILABLE = isJacksonAvailable();
+
 	public static void main(String[] args){
-		
-		String in="C:/workspaces/RAML-100apis/100apis/salesforce/examples";		
+
+		String in="C:/workspaces/RAML-100apis/100apis/salesforce/examples";
 		String out="C:/workspaces/RAML-100apis/100apis/salesforce/schemes";
-		
-		new SchemaGenerator().processDir(in, out);		
+
+		new SchemaGenerator().processDir(in, out);
 	}
-	
-	public void processDir(String src, String dst){
-		
-		File srcFolder = new File(src);
-		if(!srcFolder.exists() || !srcFolder.isDirectory() )
+
+	public void processDir(String src, final String dst){
+
+		File[] srcFiles = listExamples(src);
+		if(srcFiles==null)
 			return;
-		
-		File dstFolder = new File(dst);
+
+		final File dstFolder = new File(dst);
 		if(dstFolder.exists() && ! dstFolder.isDirectory())
 			return ;
-		
+
 		dstFolder.mkdirs();
-		
-		File[] srcFiles = srcFolder.listFiles( new FilenameFilter() {
-			
-			
-			public boolean accept(File file, String name) {
-				return name.endsWith(".json");
-			}
-		});
-		for(File srcFile : srcFiles ){
-			String name = srcFile.getName();
-			if(name.endsWith("-example.json")){
-				name = name.substring(0, name.length()-"-example.json".length())+"-schema.json";
-			}
-			File dstFile = new File(dstFolder, name);
-			String srcPath = srcFile.getAbsolutePath();
-			String dstPath = dstFile.getAbsolutePath();
-			generateSchema(srcPath, dstPath);
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(final File srcFile : srcFiles ){
+			tasks.add(new Callable<Void>() {
+
+				public Void call() {
+					String name = srcFile.getName();
+					if(name.endsWith("-example.json")){
+						name = name.substring(0, name.length()-"-example.json".length())+"-schema.json";
+					}
+					File dstFile = new File(dstFolder, name);
+					generateSchema(srcFile.getAbsolutePath(), dstFile.getAbsolutePath());
+					return null;
+				}
+			});
 		}
+		runAll(tasks);
 	}
-	
+
+	/**
+	 * Infers a single schema from all the examples of a directory, e.g. recorded payloads of
+	 * the same resource. The examples are summarized in parallel and the summaries merged.
+	 *
+	 * @return the schema content, or <code>null</code> if there are no valid examples
+	 */
+	public String generateMergedSchema(String src){
+
+		File[] srcFiles = listExamples(src);
+		if(srcFiles==null)
+			return null;
+
+		return generateMergedSchema(Arrays.asList(srcFiles));
+	}
+
+	public String generateMergedSchema(List<File> examples){
+
+		List<Callable<SchemaSummary>> tasks = new ArrayList<Callable<SchemaSummary>>();
+		for(final File example : examples){
+			tasks.add(new Callable<SchemaSummary>() {
+
+				public SchemaSummary call() {
+					return summarize(example);
+				}
+			});
+		}
+		SchemaSummary merged = null;
+		for(SchemaSummary summary : runAll(tasks)){
+			if(summary==null)
+				continue;
+			merged = merged==null ? summary : merged.merge(summary);
+		}
+		return merged==null ? null : generateSchema(merged);
+	}
+
 	public void generateSchema(String in, String out){
-		
+
 		File file = new File(in);
 		if(!file.exists())
 			return;
-		
+
 		try {
-			FileInputStream fis = new FileInputStream(file);
-			DataInputStream dis = new DataInputStream(fis);
-			int length = (int) file.length();
-			byte[] bArr = new byte[length];
-			dis.readFully( bArr );
-			String content = new String(bArr,"UTF-8");
-			dis.close();
-			
-			String sch = generateSchema(content);
+			SchemaSummary summary = summarize(file);
+			if(summary==null)
+				return;
+
+			String sch = generateSchema(summary);
 			if(sch==null)
 				return;
-			
+
 			sch = JsonFormatter.format(sch);
 			if(sch==null)
 				return;
-			
+
 			File oFile = new File(out);
 			if(oFile.exists())
 			{
 				oFile.delete();
 			}
 			oFile.createNewFile();
-			
+
 			FileOutputStream fos = new FileOutputStream(oFile);
 			fos.write( sch.getBytes("UTF-8"));
 			fos.close();
-			
+
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
-		
+
 	}
 	/**
-	 * 
+	 *
 	 * @param content
 	 * @return scehama content
 	 */
 	public String generateSchema(String content){
-		
+
+		if(!content.startsWith("{") && !content.startsWith("[")){
+			return null;
+		}
+		try {
+			SchemaSummary summary = summarize(new StringReader(content));
+			return summary==null ? null : generateSchema(summary);
+
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * @return the schema content for a summary of one or more examples
+	 */
+	public String generateSchema(SchemaSummary summary){
+
 		try {
 			JSONObject sch = new JSONObject();
 			sch.put("required", true);
 			sch.putOpt("$schema", "http://json-schema.org/draft-03/schema");
-			
-			if(content.startsWith("{")){
-				JSONObject obj = new JSONObject(content);
-				sch.put("type", "object");
-				pass(obj,sch);
-			}
-			else if(content.startsWith("[")){
-				JSONArray obj = new JSONArray(content);
-				sch.put("type", "array");
-				passArray(obj,sch);
-			}
-			else{
-				return null;
+			summary.writeType(sch);
+			if(summary.getTypes().contains("array")){
+				summary.writeItems(sch);
 			}
-			String result = JsonUtils.transformObjectToString(sch);			
+			summary.writeProperties(sch);
+
+			String result = JsonUtils.transformObjectToString(sch);
 			return result ;
-			
+
 		} catch (JSONException e) {
 			e.printStackTrace();
 		} catch (IOException e) {
@@ -133,130 +193,152 @@ public class SchemaGenerator {
 		return null;
 	}
 
-	private void pass(JSONObject obj, JSONObject sch) {
-		
-		for( Iterator<?> iter = obj.keys() ; iter.hasNext() ; ){
-			Object o = iter.next() ;
-			String propName = o.toString();
-			Object value;
+	/**
+	 * @return the summary of the example file, or <code>null</code> if it isn't a JSON object
+	 *         or array
+	 */
+	public SchemaSummary summarize(File example){
+
+		try {
+			Reader reader = new InputStreamReader(new FileInputStream(example), "UTF-8");
 			try {
-				value = obj.get(propName);
-				registerProperty(propName,value,sch);
-			} catch (JSONException e) {
-				e.printStackTrace();
+				return summarize(reader);
+			}
+			finally {
+				reader.close();
 			}
-			
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
-		
+		return null;
 	}
 
-	private void registerProperty(String propName, Object value, JSONObject sch)
-			throws JSONException {
-		
-		JSONObject properties = null;
-		try{
-			properties = sch.getJSONObject("properties");
-		}
-		catch(JSONException e){}
-			
-		if(properties==null){
-			properties = new JSONObject();
-			sch.put("properties", properties);
-		}
-			
-		JSONObject property = null;
-		try{
-			property = properties.getJSONObject(propName);
-		}
-		catch(JSONException e){}
-		
-		if(property==null){
-			property = new JSONObject();
-			properties.put(propName, property);
-		}
-			
-		String type = detectType(value);
-		if(type==null){
-			System.err.println("undetected type");
-			System.err.println(value.toString());
-			return;
-		}
-			
-		property.put("type",type);
-		property.put("required", false);
-			
-		if("array".equals(type)){
-			passArray((JSONArray) value, property);
+	/**
+	 * Reads a JSON document token by token with Jackson, or loads it with Jettison if Jackson
+	 * is not available.
+	 *
+	 * @return the summary of the document, or <code>null</code> if it isn't a JSON object or array
+	 */
+	public SchemaSummary summarize(Reader reader) throws IOException{
+
+		if(JACKSON_AVAILABLE){
+			return JacksonSummarizer.summarize(reader);
 		}
-		else if("object".equals(type)){
-			if(value instanceof JSONObject){
-				pass((JSONObject) value,property);
+		return summarizeTree(reader);
+	}
+
+	/**
+	 * Loads a JSON document into a Jettison tree and summarizes it.
+	 *
+	 * @return the summary of the document, or <code>null</code> if it isn't a JSON object or array
+	 */
+	SchemaSummary summarizeTree(Reader reader) throws IOException{
+
+		String content = IOUtils.toString(reader).trim();
+		try {
+			if(content.startsWith("{")){
+				return summarizeValue(new JSONObject(content), false);
 			}
-			else if( value.equals(JSONObject.NULL)){
-				
+			if(content.startsWith("[")){
+				return summarizeValue(new JSONArray(content), false);
 			}
+			return null;
+		} catch (JSONException e) {
+			throw new IOException(e.getMessage(), e);
 		}
 	}
 
-	private void passArray(JSONArray array, JSONObject property) throws JSONException {
+	private SchemaSummary summarizeValue(Object value, boolean arrayItem) throws JSONException {
 
-		JSONArray items = null;
-		try{
-			items = property.getJSONArray("items");
-		}
-		catch(JSONException e){}
-		
-		if(items==null)
-		{
-			items = new JSONArray();
-			property.put("items", items);
+		if(value instanceof JSONObject){
+			JSONObject obj = (JSONObject) value;
+			SchemaSummary object = new SchemaSummary("object");
+			for( Iterator<?> iter = obj.keys() ; iter.hasNext() ; ){
+				String propName = iter.next().toString();
+				object.putProperty(propName, summarizeValue(obj.get(propName), false));
+			}
+			return object;
 		}
-		
-		int l = array.length();
-		LinkedHashSet<JSONObjectWrapper> itemSet = new LinkedHashSet<JSONObjectWrapper>();
-		for(int i = 0 ; i < l ; i++ ){
-			Object value = array.get(i);
-			JSONObject item = new JSONObject();						
-			String type = detectType(value);
-			if(type==null){
-				System.err.println("undetected type for array member");
-				System.err.println(value.toString());
-				continue;
+		if(value instanceof JSONArray){
+			SchemaSummary array = new SchemaSummary("array");
+			if(arrayItem){
+				// nested arrays are only typed
+				return array;
 			}
-			item.put("type", type);
-			if( value instanceof JSONObject){
-				pass((JSONObject)value,item);
+			JSONArray items = (JSONArray) value;
+			for(int i = 0 ; i < items.length() ; i++){
+				array.addItem(summarizeValue(items.get(i), true));
 			}
-			JSONObjectWrapper wrapper = new JSONObjectWrapper(item);
-			itemSet.add(wrapper);
+			return array;
 		}
-		
-		for(JSONObjectWrapper wr: itemSet){
-			items.put( wr.getObject() );
-		}		
-	}
-
-	private String detectType(Object value)
-	{
 		if(value instanceof String){
-			return "string";
+			return new SchemaSummary("string");
 		}
 		if(value instanceof Number){
-			return "number";
+			return new SchemaSummary("number");
 		}
 		if(value instanceof Boolean){
-			return "boolean";
+			return new SchemaSummary("boolean");
 		}
-		if(value instanceof JSONObject){
-			return "object";
+		if(value == JSONObject.NULL){
+			return SchemaSummary.nullValue();
 		}
-		if(value instanceof JSONArray){
-			return "array";
+		throw new JSONException("Unexpected value " + value);
+	}
+
+	private static boolean isJacksonAvailable(){
+
+		try {
+			Class.forName("com.fasterxml.jackson.core.JsonParser", false, SchemaGenerator.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		} catch (LinkageError e) {
+			return false;
 		}
-		if(value == JSONObject.NULL){
-			return "object";
+	}
+
+	private File[] listExamples(String src){
+
+		File srcFolder = new File(src);
+		if(!srcFolder.exists() || !srcFolder.isDirectory() )
+			return null;
+
+		return srcFolder.listFiles( new FilenameFilter() {
+
+
+			public boolean accept(File file, String name) {
+				return name.endsWith(".json");
+			}
+		});
+	}
+
+	/**
+	 * Runs the tasks on a thread per core
+	 *
+	 * @return the results in the order of the tasks
+	 */
+	private <T> List<T> runAll(List<Callable<T>> tasks){
+
+		List<T> results = new ArrayList<T>();
+		if(tasks.isEmpty())
+			return results;
+
+		int threads = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for(Future<T> future : executor.invokeAll(tasks)){
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
 		}
-		return null;
+		finally {
+			executor.shutdownNow();
+		}
+		return results;
 	}
 
-}
\ No newline at end of file
+}
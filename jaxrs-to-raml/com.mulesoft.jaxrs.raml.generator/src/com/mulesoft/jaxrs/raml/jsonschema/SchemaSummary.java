@@ -0,0 +1,172 @@
+package com.mulesoft.jaxrs.raml.jsonschema;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+/**
+ * The shape of a JSON value as inferred by {@link SchemaGenerator}: its type, the properties
+ * of objects and the distinct shapes of array items. Its size only depends on the structure
+ * of the value, not on the number of array elements.
+ * <p>
+ * Summaries of several examples of the same payload can be merged: properties are united,
+ * item shapes not seen yet are appended and a value seen with different types gets a union
+ * type. <code>null</code> values take the type seen elsewhere.
+ */
+public class SchemaSummary {
+
+	private final List<String> types = new ArrayList<String>(1);
+
+	private final boolean nullValue;
+
+	private LinkedHashMap<String, SchemaSummary> properties;
+
+	private List<SchemaSummary> items;
+
+	public SchemaSummary(String type) {
+		this(type, false);
+	}
+
+	private SchemaSummary(String type, boolean nullValue) {
+		this.types.add(type);
+		this.nullValue = nullValue;
+	}
+
+	public static SchemaSummary nullValue(){
+		return new SchemaSummary("object", true);
+	}
+
+	public List<String> getTypes() {
+		return types;
+	}
+
+	public boolean isNullValue() {
+		return nullValue;
+	}
+
+	public Map<String, SchemaSummary> getProperties() {
+		if(properties==null){
+			properties = new LinkedHashMap<String, SchemaSummary>();
+		}
+		return properties;
+	}
+
+	public List<SchemaSummary> getItems() {
+		if(items==null){
+			items = new ArrayList<SchemaSummary>();
+		}
+		return items;
+	}
+
+	public void putProperty(String name, SchemaSummary property){
+		SchemaSummary existing = getProperties().get(name);
+		properties.put(name, existing == null ? property : existing.merge(property));
+	}
+
+	/**
+	 * Adds the item unless there already is one of the same shape, the first one wins
+	 */
+	public void addItem(SchemaSummary item){
+		for(SchemaSummary existing : getItems()){
+			if(existing.sameShape(item)){
+				return;
+			}
+		}
+		items.add(item);
+	}
+
+	/**
+	 * @return the union of both summaries, which is either this one or <code>other</code>;
+	 *         both may be modified
+	 */
+	public SchemaSummary merge(SchemaSummary other){
+		if(other.nullValue){
+			return this;
+		}
+		if(nullValue){
+			return other;
+		}
+		for(String type : other.types){
+			if(!types.contains(type)){
+				types.add(type);
+			}
+		}
+		if(other.properties!=null){
+			for(Map.Entry<String, SchemaSummary> entry : other.properties.entrySet()){
+				putProperty(entry.getKey(), entry.getValue());
+			}
+		}
+		if(other.items!=null){
+			for(SchemaSummary item : other.items){
+				addItem(item);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Same types and properties, regardless of the items
+	 */
+	boolean sameShape(SchemaSummary other){
+		if(!types.equals(other.types)){
+			return false;
+		}
+		Map<String, SchemaSummary> thisProperties = properties != null ? properties : new LinkedHashMap<String, SchemaSummary>();
+		Map<String, SchemaSummary> thatProperties = other.properties != null ? other.properties : new LinkedHashMap<String, SchemaSummary>();
+		if(!thisProperties.keySet().equals(thatProperties.keySet())){
+			return false;
+		}
+		for(Map.Entry<String, SchemaSummary> entry : thisProperties.entrySet()){
+			if(!entry.getValue().sameShape(thatProperties.get(entry.getKey()))){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	void writeType(JSONObject schema) throws JSONException {
+		if(types.size()==1){
+			schema.put("type", types.get(0));
+		}
+		else{
+			schema.put("type", new JSONArray(types));
+		}
+	}
+
+	void writeProperties(JSONObject schema) throws JSONException {
+		if(properties==null || properties.isEmpty()){
+			return;
+		}
+		JSONObject props = new JSONObject();
+		for(Map.Entry<String, SchemaSummary> entry : properties.entrySet()){
+			SchemaSummary value = entry.getValue();
+			JSONObject property = new JSONObject();
+			value.writeType(property);
+			property.put("required", false);
+			if(value.types.contains("array")){
+				value.writeItems(property);
+			}
+			value.writeProperties(property);
+			props.put(entry.getKey(), property);
+		}
+		schema.put("properties", props);
+	}
+
+	void writeItems(JSONObject schema) throws JSONException {
+		JSONArray array = new JSONArray();
+		if(items!=null){
+			for(SchemaSummary item : items){
+				JSONObject itemSchema = new JSONObject();
+				item.writeType(itemSchema);
+				item.writeProperties(itemSchema);
+				array.put(itemSchema);
+			}
+		}
+		schema.put("items", array);
+	}
+}
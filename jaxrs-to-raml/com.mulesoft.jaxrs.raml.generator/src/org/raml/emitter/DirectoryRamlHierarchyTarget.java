@@ -0,0 +1,45 @@
+package org.raml.emitter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Writes separated RAML into a directory, include paths being relative to it.
+ * Safe for concurrent use as every include goes to its own file.
+ */
+public class DirectoryRamlHierarchyTarget implements IRamlHierarchyTarget {
+
+	private final File directory;
+
+	private final String rootFileName;
+
+	public DirectoryRamlHierarchyTarget(File directory, String rootFileName) {
+		this.directory = directory;
+		this.rootFileName = rootFileName;
+	}
+
+	public void write(String path, String content) {
+		writeFile(new File(directory, path), content);
+	}
+
+	public void writeRoot(String content) {
+		writeFile(new File(directory, rootFileName), content);
+	}
+
+	private void writeFile(File file, String content) {
+		file.getParentFile().mkdirs();
+		try {
+			Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+			try {
+				writer.write(content != null ? content : "");
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to write " + file, e);
+		}
+	}
+}
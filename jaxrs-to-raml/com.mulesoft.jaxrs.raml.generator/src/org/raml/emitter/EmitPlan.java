@@ -0,0 +1,193 @@
+package org.raml.emitter;
+
+import static org.apache.commons.lang.StringUtils.isNotEmpty;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.raml.parser.annotation.Mapping;
+import org.raml.parser.annotation.Scalar;
+import org.raml.parser.annotation.Sequence;
+import org.raml.parser.utils.ReflectionUtils;
+
+/**
+ * The emittable fields of a model class in emission order, with their annotations,
+ * aliases and dumpers resolved once and shared by all emitters.
+ */
+final class EmitPlan {
+
+	enum Kind {
+		DUMPER, SCALAR, MAPPING, SEQUENCE
+	}
+
+	private static final ConcurrentMap<Class<?>, EmitPlan> PLANS = new ConcurrentHashMap<Class<?>, EmitPlan>();
+
+	private static final ConcurrentMap<Class<?>, Object> SINGLETONS = new ConcurrentHashMap<Class<?>, Object>();
+
+	private final List<FieldPlan> fields;
+
+	private final Map<Field, FieldPlan> byField;
+
+	private EmitPlan(Class<?> type) {
+		List<FieldPlan> emitted = new ArrayList<FieldPlan>();
+		Map<Field, FieldPlan> all = new HashMap<Field, FieldPlan>();
+		for (Field field : ReflectionUtils.getInheritedFields(type)) {
+			FieldPlan plan = new FieldPlan(field);
+			all.put(field, plan);
+			if (plan.kind != null) {
+				emitted.add(plan);
+			}
+		}
+		this.fields = Collections.unmodifiableList(emitted);
+		this.byField = all;
+	}
+
+	static EmitPlan of(Class<?> type) {
+		EmitPlan plan = PLANS.get(type);
+		if (plan == null) {
+			EmitPlan existing = PLANS.putIfAbsent(type, plan = new EmitPlan(type));
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		return plan;
+	}
+
+	/**
+	 * @return the plan of a field handed to the emitter by a dumper
+	 */
+	static FieldPlan of(Field field) {
+		FieldPlan plan = of(field.getDeclaringClass()).byField.get(field);
+		return plan != null ? plan : new FieldPlan(field);
+	}
+
+	List<FieldPlan> getFields() {
+		return fields;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T singleton(Class<? extends T> type) {
+		Object instance = SINGLETONS.get(type);
+		if (instance == null) {
+			try {
+				instance = type.newInstance();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+			Object existing = SINGLETONS.putIfAbsent(type, instance);
+			if (existing != null) {
+				instance = existing;
+			}
+		}
+		return (T) instance;
+	}
+
+	static final class FieldPlan {
+
+		final Field field;
+
+		/**
+		 * null if the field is not emitted
+		 */
+		final Kind kind;
+
+		final String alias;
+
+		final IRAMLFieldDumper dumper;
+
+		/**
+		 * accessor of the field holding the include path of a scalar, null if none
+		 */
+		final Field includeField;
+
+		final boolean implicit;
+
+		@SuppressWarnings("rawtypes")
+		final IFilter filter;
+
+		/**
+		 * value type of a mapping, item type of a sequence
+		 */
+		final Type elementType;
+
+		// field specific formatting, resolved from the field name
+		final boolean verbatim;
+		final boolean templateReference;
+		final boolean traitReferences;
+		final boolean documentation;
+		final boolean settings;
+		final boolean omitFalse;
+
+		FieldPlan(Field field) {
+			field.setAccessible(true);
+			this.field = field;
+			Scalar scalar = field.getAnnotation(Scalar.class);
+			Mapping mapping = field.getAnnotation(Mapping.class);
+			Sequence sequence = field.getAnnotation(Sequence.class);
+			Dumper dumper = field.getAnnotation(Dumper.class);
+			MapFilter filter = field.getAnnotation(MapFilter.class);
+
+			if (dumper != null) {
+				kind = Kind.DUMPER;
+			} else if (scalar != null) {
+				kind = Kind.SCALAR;
+			} else if (mapping != null) {
+				kind = Kind.MAPPING;
+			} else if (sequence != null) {
+				kind = Kind.SEQUENCE;
+			} else {
+				kind = null;
+			}
+
+			if (scalar != null && isNotEmpty(scalar.alias())) {
+				alias = scalar.alias();
+			} else if (mapping != null && isNotEmpty(mapping.alias())) {
+				alias = mapping.alias();
+			} else if (sequence != null && isNotEmpty(sequence.alias())) {
+				alias = sequence.alias();
+			} else {
+				alias = field.getName();
+			}
+
+			this.dumper = dumper != null ? EmitPlan.<IRAMLFieldDumper> singleton(dumper.value()) : null;
+			this.filter = filter != null ? EmitPlan.<IFilter<?>> singleton(filter.value()) : null;
+			this.implicit = mapping != null && mapping.implicit();
+			this.includeField = scalar != null && isNotEmpty(scalar.includeField()) ? includeField(field,
+					scalar.includeField()) : null;
+
+			Type type = field.getGenericType();
+			if (type instanceof ParameterizedType) {
+				Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+				elementType = arguments[arguments.length - 1];
+			} else {
+				elementType = null;
+			}
+
+			String name = field.getName();
+			verbatim = name.equals("schemas") || name.contains("relative");
+			templateReference = name.equals("type") || name.equals("is");
+			traitReferences = name.equals("is");
+			documentation = name.equals("documentation");
+			settings = name.equals("settings");
+			omitFalse = name.equals("required") || name.equals("repeat");
+		}
+
+		private static Field includeField(Field field, String name) {
+			try {
+				Field includeField = field.getDeclaringClass().getDeclaredField(name);
+				includeField.setAccessible(true);
+				return includeField;
+			} catch (NoSuchFieldException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package org.raml.emitter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps separated RAML in memory, e.g. to hand it to an editor or a test.
+ * Safe for concurrent use.
+ */
+public class InMemoryRamlHierarchyTarget implements IRamlHierarchyTarget {
+
+	private final Map<String, String> files = new TreeMap<String, String>();
+
+	private volatile String root;
+
+	public synchronized void write(String path, String content) {
+		files.put(path, content);
+	}
+
+	public void writeRoot(String content) {
+		root = content;
+	}
+
+	public String getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return a snapshot of the include files written so far, by path
+	 */
+	public synchronized Map<String, String> getFiles() {
+		return Collections.unmodifiableMap(new TreeMap<String, String>(files));
+	}
+}
@@ -15,7 +15,6 @@
  */
 package org.raml.emitter;
 
-import static org.apache.commons.lang.StringUtils.isNotEmpty;
 import static org.raml.parser.utils.ReflectionUtils.isEnum;
 import static org.raml.parser.utils.ReflectionUtils.isPojo;
 
@@ -28,6 +27,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang.StringUtils;
 import org.raml.model.DocumentationItem;
@@ -37,10 +39,6 @@ import org.raml.model.Raml;
 import org.raml.model.SecurityReference;
 import org.raml.model.parameter.AbstractParam;
 import org.raml.model.parameter.UriParameter;
-import org.raml.parser.annotation.Mapping;
-import org.raml.parser.annotation.Scalar;
-import org.raml.parser.annotation.Sequence;
-import org.raml.parser.utils.ReflectionUtils;
 
 public class RamlEmitterV2 {
 
@@ -51,21 +49,106 @@ public class RamlEmitterV2 {
 	private static final String YAML_SEQ_END = "]";
 	private static final String YAML_SEQ_SEP = ", ";
 	private static final String YAML_MAP_SEP = ": ";
-	private Field currentField;
+	private EmitPlan.FieldPlan currentField;
 	
 	protected boolean isSeparated;
 	protected IRamlHierarchyTarget writer;
 	private boolean escape;
+	private ExecutorService executor;
+	private final List<Future<?>> pendingIncludes = new ArrayList<Future<?>>();
 	
 	public RamlEmitterV2(){
 		isSeparated=true;
 	}
 	
+	/**
+	 * Renders and writes the include files of separated output on the given executor
+	 * while the root document is built; the target then has to accept concurrent writes.
+	 * By default (null) everything is done on the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
 	public void dump(IRamlHierarchyTarget writer,Raml r){
 		isSeparated=true;
 		this.writer=writer;
-		String dump = dump(r);
-		writer.writeRoot(dump);
+		try {
+			String dump = dump(r);
+			writer.writeRoot(dump);
+			awaitIncludes();
+		} finally {
+			for (Future<?> include : pendingIncludes) {
+				include.cancel(true);
+			}
+			pendingIncludes.clear();
+		}
+	}
+
+	/**
+	 * Writes an include file of separated output.
+	 */
+	protected void writeInclude(final String path, final String content) {
+		if (writer == null) {
+			return;
+		}
+		if (executor == null) {
+			writer.write(path, content);
+			return;
+		}
+		pendingIncludes.add(executor.submit(new Runnable() {
+			public void run() {
+				writer.write(path, content);
+			}
+		}));
+	}
+
+	/**
+	 * Writes an include file of separated output holding the dump of a model object.
+	 * With an executor the dump is rendered there by a worker emitter, as emitters are
+	 * not thread safe.
+	 */
+	protected void dumpInclude(final String path, final Object pojo) {
+		if (writer == null) {
+			return;
+		}
+		if (executor == null) {
+			StringBuilder content = new StringBuilder();
+			dumpPojo(content, 0, pojo);
+			writer.write(path, content.toString());
+			return;
+		}
+		final RamlEmitterV2 worker = createWorker();
+		worker.isSeparated = isSeparated;
+		worker.escape = escape;
+		worker.writer = writer;
+		pendingIncludes.add(executor.submit(new Runnable() {
+			public void run() {
+				StringBuilder content = new StringBuilder();
+				worker.dumpPojo(content, 0, pojo);
+				writer.write(path, content.toString());
+			}
+		}));
+	}
+
+	/**
+	 * @return a new emitter rendering include files on behalf of this one
+	 */
+	protected RamlEmitterV2 createWorker() {
+		return new RamlEmitterV2();
+	}
+
+	private void awaitIncludes() {
+		try {
+			for (Future<?> include : pendingIncludes) {
+				include.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
 	}
 
 	public String dump(Raml raml) {
@@ -76,35 +159,20 @@ public class RamlEmitterV2 {
 	}
 
 	public void dumpPojo(StringBuilder dump, int depth, Object pojo) {
-		
-		final List<Field> declaredFields = ReflectionUtils
-				.getInheritedFields(pojo.getClass());
-		pojo.getClass();
-		for (Field declaredField : declaredFields) {
-			declaredField.setAccessible(true);
-			Scalar scalar = declaredField.getAnnotation(Scalar.class);
-			Mapping mapping = declaredField.getAnnotation(Mapping.class);
-			Sequence sequence = declaredField.getAnnotation(Sequence.class);
-			Dumper dumper = declaredField.getAnnotation(Dumper.class);
-			if (dumper!=null){
-				try {
-					IRAMLFieldDumper newInstance = dumper.value().newInstance();
-					newInstance.dumpField(dump,depth,declaredField,pojo, this);
-					continue;
-				} catch (Exception e) {
-					throw new RuntimeException(e);
-				}
-			}
-			
-			if (scalar != null) {
-				String includeField = scalar.includeField();
-				dumpScalarField(dump, depth, declaredField, pojo,includeField);
-			} else if (mapping != null) {
-				boolean inlineLists = false;
-				dumpMappingField(dump, depth, declaredField,
-						mapping.implicit(), pojo, inlineLists);
-			} else if (sequence != null) {
-				dumpSequenceField(dump, depth, declaredField, pojo);
+		for (EmitPlan.FieldPlan field : EmitPlan.of(pojo.getClass()).getFields()) {
+			switch (field.kind) {
+			case DUMPER:
+				field.dumper.dumpField(dump, depth, field.field, pojo, this);
+				break;
+			case SCALAR:
+				dumpScalarField(dump, depth, field, pojo);
+				break;
+			case MAPPING:
+				dumpMappingField(dump, depth, field.field, field.implicit, pojo, false);
+				break;
+			case SEQUENCE:
+				dumpSequenceField(dump, depth, field, pojo);
+				break;
 			}
 		}
 	}
@@ -117,26 +185,28 @@ public class RamlEmitterV2 {
 		}
 	}
 
-	@SuppressWarnings("rawtypes")
 	public void dumpSequenceField(StringBuilder dump, int depth, Field field,
 			Object pojo) {
-		if (!List.class.isAssignableFrom(field.getType())) {
+		dumpSequenceField(dump, depth, EmitPlan.of(field), pojo);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void dumpSequenceField(StringBuilder dump, int depth, EmitPlan.FieldPlan field,
+			Object pojo) {
+		if (!List.class.isAssignableFrom(field.field.getType())) {
 			throw new RuntimeException("Only List can be sequence.");
 		}
 		currentField=field;
 		
-		List seq = (List) getFieldValue(field, pojo);
+		List seq = (List) getFieldValue(field.field, pojo);
 		if (seq == null || seq.size() == 0) {
 			return;
 		}
 
-		Type type = field.getGenericType();
-		if (type instanceof ParameterizedType) {
-			ParameterizedType pType = (ParameterizedType) type;
-			Type itemType = pType.getActualTypeArguments()[0];
-			dump.append(indent(depth)).append(alias(field))
+		if (field.elementType != null) {
+			dump.append(indent(depth)).append(field.alias)
 					.append(YAML_MAP_SEP);
-			dumpSequenceItems(dump, depth, seq, itemType, false);
+			dumpSequenceItems(dump, depth, seq, field.elementType, false);
 		}
 	}
 
@@ -152,7 +222,7 @@ public class RamlEmitterV2 {
 		}
 		if (isPojo((Class<?>) itemType)) {
 			dump.append("\n");
-			if (currentField.getName().equals("documentation")){
+			if (currentField.documentation){
 				for (Object item : seq) {
 					DocumentationItem it=(DocumentationItem) item;
 					dump.append(indent(depth + 1)).append(YAML_SEQ).append("title: ").append(it.getTitle()).append("\n");
@@ -162,9 +232,7 @@ public class RamlEmitterV2 {
 						origin="docs/"+it.getTitle().toLowerCase()+".md";
 					}						
 					dump.append(indent(depth + 2)).append("content: !include ").append(origin).append("\n");
-					if (writer!=null){
-						writer.write(origin, it.getContent());
-					}
+					writeInclude(origin, it.getContent());
 					}
 					else{
 						dump.append(indent(depth + 2)).append("content: ").append(sanitizeScalarValue(depth+2, it.getContent(), false)).append("\n");
@@ -179,7 +247,7 @@ public class RamlEmitterV2 {
 				dumpPojo(dump, depth + 2, item);
 			}
 		} else {
-			if (seq.size()>2&&!currentField.getName().equals("is")) {
+			if (seq.size()>2&&!currentField.traitReferences) {
 				dump.append("\n");
 				for (Object item : seq) {
 					dump.append(indent(depth + 1)).append(YAML_SEQ).append(sanitizeScalarValue(0, item, false)).append("\n");					
@@ -286,47 +354,45 @@ public class RamlEmitterV2 {
 		dump.append(YAML_SEQ_END).append("\n");
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	/**
+	 * Dumps a <code>@Mapping</code> field of a model object.
+	 * @param implicit whether the entries are dumped without the field name as key
+	 * @param inlineLists not supported, list values are dumped as in any other mapping
+	 */
 	protected void dumpMappingField(StringBuilder dump, int depth, Field field,
 			boolean implicit, Object pojo, boolean inlineLists) {
-		if (!Map.class.isAssignableFrom(field.getType())) {
+		dumpMappingField(dump, depth, EmitPlan.of(field), implicit, pojo);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void dumpMappingField(StringBuilder dump, int depth, EmitPlan.FieldPlan field,
+			boolean implicit, Object pojo) {
+		if (!Map.class.isAssignableFrom(field.field.getType())) {
 			throw new RuntimeException("invalid type");
 		}
 		
-		Map value = (Map) getFieldValue(field, pojo);
-		MapFilter annotation = field.getAnnotation(MapFilter.class);
-		if (annotation!=null){
-			try{
-			IFilter newInstance = annotation.value().newInstance();
+		Map value = (Map) getFieldValue(field.field, pojo);
+		if (field.filter!=null){
 			LinkedHashMap q=new LinkedHashMap();
 			for (Object a:value.keySet()){
 				Object object = value.get(a);
-				if (newInstance.accept(object)){
+				if (field.filter.accept(object)){
 					q.put(a, object);
 				}
 			}
 			value=q;
-			}catch (Exception e) {
-				throw new RuntimeException(e);
-			}
 		}
 		if (value == null || value.isEmpty()) {
 			return;
 		}
-		boolean isSettings = false;
-		if (field.getName().equals("settings")) {
-			isSettings = true;
-		}
 
 		if (!implicit) {
-			dump.append(indent(depth)).append(alias(field))
+			dump.append(indent(depth)).append(field.alias)
 					.append(YAML_MAP_SEP).append("\n");
 			depth++;
 		}
 
-		ParameterizedType pType = (ParameterizedType) field.getGenericType();
-		Type valueType = pType.getActualTypeArguments()[1];		
-		dumpMap(dump, depth, valueType, value, isSettings, false);
+		dumpMap(dump, depth, field.elementType, value, field.settings, false);
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -342,6 +408,7 @@ public class RamlEmitterV2 {
 			}
 		}
 		
+		boolean pojoValues = listType == null && valueType instanceof Class && isPojo((Class<?>) valueType);
 		int k=newLine?0:depth;
 		// body
 		for (Map.Entry entry : (Set<Map.Entry>) value.entrySet()) {
@@ -366,7 +433,7 @@ public class RamlEmitterV2 {
 					dumpSequenceItems(dump, depth, (List) entry.getValue(),
 							listType, false);
 				}
-			} else if (isPojo((Class<?>) valueType)) {
+			} else if (pojoValues) {
 				dump.append("\n");
 				dumpPojo(dump, depth + 1, entry.getValue());
 			} else // scalar
@@ -390,6 +457,7 @@ public class RamlEmitterV2 {
 			}
 		}
 		
+		boolean pojoValues = listType == null && valueType instanceof Class && isPojo((Class<?>) valueType);
 		int k=newLine?0:depth;
 		// body
 		for (Map.Entry entry : (Set<Map.Entry>) value.entrySet()) {
@@ -414,7 +482,7 @@ public class RamlEmitterV2 {
 					dumpSequenceItems(dump, depth+2, (List) entry.getValue(),
 							listType, false);
 				}
-			} else if (isPojo((Class<?>) valueType)) {
+			} else if (pojoValues) {
 				dump.append("\n");
 				dumpPojo(dump, depth + 2, entry.getValue());
 			} else // scalar
@@ -426,63 +494,35 @@ public class RamlEmitterV2 {
 
 	}
 
-	private void dumpScalarField(StringBuilder dump, int depth, Field field,
-			Object pojo, String includeField) {
+	private void dumpScalarField(StringBuilder dump, int depth, EmitPlan.FieldPlan field,
+			Object pojo) {
 		try {
 			currentField=field;
-			Object value = field.get(pojo);
-			if (field.getName().equals("content")){
-				System.out.println("a");
-			}
+			Object value = field.field.get(pojo);
 			if (value == ParamType.STRING) {
 				return;
 			}
-			if (field.getName().equals("required")) {
+			if (field.omitFalse) {
 				if (value != null && value.equals(false)) {
 					return;
 				}
 			}
-			if (field.getName().equals("repeat")) {
-				if (value != null && value.equals(false)) {
-					return;
-				}
-			}
-			if (field.getName().equals("schema")) {
-				value = adjustSchema(value);
-			}
-			if (field.getName().equals("content")) {
-				value = adjustDocumentationContent(value);
-			}
-			if (field.getName().equals("example")) {
-				value = adjustExample(value);
-			}
 			if (value == null) {
 				return;
 			}
-			dump.append(indent(depth)).append(alias(field))
+			dump.append(indent(depth)).append(field.alias)
 					.append(YAML_MAP_SEP);
 			if (isPojo(value.getClass())) {
 				dump.append("\n");
 				dumpPojo(dump, depth + 1, value);
 			} else {
 				String sanitizeScalarValue = sanitizeScalarValue(depth, value, true);
-				if (isSeparated&& includeField!=null&&includeField.length()>0){
-					try {
-						Field declaredField = field.getDeclaringClass().getDeclaredField(includeField);
-						declaredField.setAccessible(true);
-						Object object = declaredField.get(pojo);						
-						if (object!=null&&object instanceof String){							
-							dump.append("!include "+object.toString()).append("\n");
-							if (writer!=null){
-								writer.write(object.toString(), value.toString());
-							}
-							return;
-						}
-						
-					} catch (NoSuchFieldException e) {
-						throw new IllegalStateException();						
-					} catch (SecurityException e) {
-						throw new IllegalStateException();
+				if (isSeparated&& field.includeField!=null){
+					Object object = field.includeField.get(pojo);
+					if (object!=null&&object instanceof String){							
+						dump.append("!include "+object.toString()).append("\n");
+						writeInclude(object.toString(), value.toString());
+						return;
 					}
 				}
 				
@@ -493,44 +533,6 @@ public class RamlEmitterV2 {
 		}
 	}
 
-	private Object adjustSchema(Object value) {
-//		if (value != null) {
-//			value = "schema";
-//		}
-		return value;
-	}
-
-	private Object adjustDocumentationContent(Object value) {
-//		if (value != null) {
-//			value = "documentation";
-//		}
-		return value;
-	}
-
-	private Object adjustExample(Object value) {		
-//		if (value != null) {
-//			if (value.toString().length() > 30) {
-//				value = "example";
-//			}
-//		}
-		return value;
-	}
-
-	private String alias(Field field) {
-		Scalar scalar = field.getAnnotation(Scalar.class);
-		Mapping mapping = field.getAnnotation(Mapping.class);
-		Sequence sequence = field.getAnnotation(Sequence.class);
-
-		if (scalar != null && isNotEmpty(scalar.alias())) {
-			return scalar.alias();
-		} else if (mapping != null && isNotEmpty(mapping.alias())) {
-			return mapping.alias();
-		} else if (sequence != null && isNotEmpty(sequence.alias())) {
-			return sequence.alias();
-		}
-		return field.getName();
-	}
-
 	private String sanitizeScalarValue(int depth, Object value, boolean isValue) {		
 		Class<?> type = value.getClass();
 		String result = handleCustomScalar(value);
@@ -569,12 +571,7 @@ public class RamlEmitterV2 {
 		if (text.startsWith("!include")){
 			return "\"" +text+ "\""; 
 		}
-		if (currentField.getName().equals("schemas")){
-			
-			return text;
-		}
-		
-		if (currentField.getName().contains("relative")){
+		if (currentField.verbatim){
 			return text;
 		}
 		if (text.contains("\"")){
@@ -590,7 +587,7 @@ public class RamlEmitterV2 {
 		for (int a = 0; a < text.length(); a++) {
 			char c = text.charAt(a);
 			if (a==0&&c=='{'&&text.endsWith("}")){
-				if (currentField.getName().equals("type")||currentField.getName().equals("is")){
+				if (currentField.templateReference){
 					return text;
 				}
 			}
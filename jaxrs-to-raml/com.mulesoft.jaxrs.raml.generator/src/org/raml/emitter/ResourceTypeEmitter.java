@@ -34,11 +34,7 @@ public class ResourceTypeEmitter implements IRAMLFieldDumper {
 				dump.append(q);
 				dump.append(".raml");
 				dump.append("\n");
-				StringBuilder content = new StringBuilder();
-				emitter.dumpPojo(content, 0, resourceTypeMap.get(q));
-				if (emitter.writer != null) {
-					emitter.writer.write("resourceTypes/"+q+".raml",content.toString());
-				}
+				emitter.dumpInclude("resourceTypes/"+q+".raml", resourceTypeMap.get(q));
 			}
 		} else {
 			dump.append(emitter.indent(depth + 1));
@@ -35,7 +35,7 @@ public class SchemasEmitter implements IRAMLFieldDumper {
 					if (schemaContent==null){
 						schemaContent = rp.getSchemaContent(Character.toLowerCase(q.charAt(0))+q.substring(1));
 					}
-					emitter.writer.write(str,schemaContent);
+					emitter.writeInclude(str,schemaContent);
 				}
 			}			
 		}
@@ -33,11 +33,7 @@ public class SecuritySchemeEmitter implements IRAMLFieldDumper{
 				dump.append(name);
 				dump.append(".raml");
 				dump.append("\n");
-				StringBuilder content = new StringBuilder();
-				emitter.dumpPojo(content, 0, q.values().iterator().next());
-				if (emitter.writer != null) {
-					emitter.writer.write("securitySchemes/"+name+".raml",content.toString());
-				}
+				emitter.dumpInclude("securitySchemes/"+name+".raml", q.values().iterator().next());
 			}
 		} else {
 			dump.append(emitter.indent(depth));		
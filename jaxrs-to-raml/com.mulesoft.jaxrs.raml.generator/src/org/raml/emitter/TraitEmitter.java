@@ -32,11 +32,7 @@ public class TraitEmitter implements IRAMLFieldDumper{
 				dump.append(q);
 				dump.append(".raml");
 				dump.append("\n");
-				StringBuilder content = new StringBuilder();
-				emitter.dumpPojo(content, 0, resourceTypeMap.get(q));
-				if (emitter.writer != null) {
-					emitter.writer.write("traits/"+q+".raml",content.toString());
-				}
+				emitter.dumpInclude("traits/"+q+".raml", resourceTypeMap.get(q));
 			}
 		} else {
 		dump.append(emitter.indent(depth+1));		
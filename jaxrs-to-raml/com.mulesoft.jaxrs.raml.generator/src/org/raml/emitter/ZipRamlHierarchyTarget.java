@@ -0,0 +1,56 @@
+package org.raml.emitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes separated RAML as entries of a ZIP or JAR archive. Safe for concurrent use;
+ * a path written twice keeps its first content as archive entries can't be replaced.
+ * Closing the target finishes the archive and closes the underlying stream.
+ */
+public class ZipRamlHierarchyTarget implements IRamlHierarchyTarget, Closeable {
+
+	private final ZipOutputStream zip;
+
+	private final String rootFileName;
+
+	private final Set<String> entries = new HashSet<String>();
+
+	public ZipRamlHierarchyTarget(OutputStream out, String rootFileName) {
+		this.zip = out instanceof ZipOutputStream ? (ZipOutputStream) out : new ZipOutputStream(out);
+		this.rootFileName = rootFileName;
+	}
+
+	public synchronized void write(String path, String content) {
+		putEntry(path, content);
+	}
+
+	public synchronized void writeRoot(String content) {
+		putEntry(rootFileName, content);
+	}
+
+	public synchronized void close() throws IOException {
+		zip.close();
+	}
+
+	private void putEntry(String path, String content) {
+		String name = path.startsWith("/") ? path.substring(1) : path;
+		if (!entries.add(name)) {
+			return;
+		}
+		try {
+			zip.putNextEntry(new ZipEntry(name));
+			if (content != null) {
+				zip.write(content.getBytes("UTF-8"));
+			}
+			zip.closeEntry();
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to write " + name, e);
+		}
+	}
+}
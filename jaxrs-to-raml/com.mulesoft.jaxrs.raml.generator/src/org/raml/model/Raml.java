@@ -16,6 +16,7 @@
 package org.raml.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -63,6 +64,8 @@ public class Raml
     @org.raml.emitter.Dumper(SchemasEmitter.class)
 	protected List<Map<String, String>> schemas = new ArrayList<Map<String, String>>();
 
+    private transient SchemaIndex schemaIndex;
+
     @Sequence
     @org.raml.emitter.Dumper(ResourceTypeEmitter.class)
     private List<Map<String, Template>> resourceTypes;
@@ -194,15 +197,20 @@ public class Raml
         this.traits = traits;
     }
 
+    /**
+     * @return the global schema declarations, read-only; meant for emission,
+     *         use {@link #getConsolidatedSchemas()} to look schemas up
+     */
     public List<Map<String, String>> getSchemas()
     {
-        return schemas;
+        return Collections.unmodifiableList(schemas);
     }
     
 
     public void setSchemas(List<Map<String, String>> schemas)
     {
         this.schemas = schemas;
+        this.schemaIndex = null;
     }
 
     public List<Protocol> getProtocols()
@@ -235,14 +243,22 @@ public class Raml
         this.securedBy = securedBy;
     }
 
+    /**
+     * @return a read-only view of the global schema contents by name; a name declared
+     *         more than once maps to its last declaration
+     */
     public Map<String, String> getConsolidatedSchemas()
     {
-        Map<String, String> consolidated = new HashMap<String, String>();
-        for (Map<String, String> map : getSchemas())
+        return getSchemaIndex().asMap();
+    }
+
+    SchemaIndex getSchemaIndex()
+    {
+        if (schemaIndex == null || !schemaIndex.isCurrent(schemas))
         {
-            consolidated.putAll(map);
+            schemaIndex = new SchemaIndex(schemas);
         }
-        return consolidated;
+        return schemaIndex;
     }
 
     public Resource getResource(String path)
@@ -1,6 +1,5 @@
 package org.raml.model;
 
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -24,31 +23,7 @@ public class Raml2 extends Raml {
 	}
 
     public String getSchemaContent(String schemaName){
-    	for (Map<String,String>q:schemas){
-    		if (q.containsKey(schemaName)){
-    			return q.get(schemaName);
-    		}
-    	}
-    	return null;
-    }
-    private HashMap<String, String> createSchemaMap(final String schemaName, final String content) {
-        final HashMap<String, String> newSchemaLine = new HashMap<String, String>();
-		newSchemaLine.put(schemaName, content);
-        return newSchemaLine;
-    }
-	
-	private boolean schemaDeclared(final String schemaName) {
-	    return findMapWithSchemaDeclaration(schemaName) != null;
-	}
-
-	private Map<String, String> findMapWithSchemaDeclaration(String schemaName) {
-	    for (final Map<String, String> line : schemas){
-            if (line.keySet().contains(schemaName)){
-                return line;
-            }
-        }
-        
-        return null;
+    	return getSchemaIndex().get(schemaName);
     }
     
     /**
@@ -62,28 +37,21 @@ public class Raml2 extends Raml {
         final boolean json,
         final boolean addSchemaSuffix)
 	{
-	    final HashMap<String, String> newSchemaLine = createSchemaMap(schemaName, content);
 	    final String path = "schemas/" + schemaName + (addSchemaSuffix ? "-schema" : "") + "." + (json ? "json" : "xsd");
 	    schemaMap.put(schemaName, path);
-	    
-	    if (!schemaDeclared(schemaName)) {
-	        schemas.add(newSchemaLine);		
-	    }
+	    getSchemaIndex().add(schemaName, content);
 	}
 	
 	public void addOrReplaceSchemaContent(
         final String schemaName,
         final String content)
     {
-        final Map<String, String> foundMap = findMapWithSchemaDeclaration(schemaName);
+        final SchemaIndex index = getSchemaIndex();
         
-        if (foundMap != null) {
-            foundMap.put(schemaName, content);
-        } else {
-            final Map<String, String> map = createSchemaMap(schemaName, content);
-            schemas.add(map);
-            schemaMap.put(schemaName, "schemas/"+schemaName+".json");    	    
+        if (!index.contains(schemaName)) {
+            schemaMap.put(schemaName, "schemas/"+schemaName+".json");
         }
+        index.put(schemaName, content);
     }
 	
 	public Map<String, ResourceType> getResourceTypesModel() {
@@ -115,7 +83,6 @@ public class Raml2 extends Raml {
 	}
 	
 	public void addGlobalSchema(String name,String content,boolean json){
-		HashMap<String, String> e = new HashMap<String, String>();
 		String path=name;
 		if(json){
 			path+="-schema.json";
@@ -123,14 +90,8 @@ public class Raml2 extends Raml {
 		else{
 			path+="-schema.xsd";
 		}
-		e.put(name, content);
 		getSchemaMap().put(name, "/schemas/"+path);
-		for (Map<String,String>s:schemas){
-			if (s.keySet().contains(name)){
-				return;
-			}
-		}
-		schemas.add(e);		
+		getSchemaIndex().add(name, content);
 	}
 	
 
@@ -0,0 +1,151 @@
+package org.raml.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Insertion ordered hash index over the global schema declarations of a {@link Raml},
+ * which the model keeps as a list of single entry maps for parsing and emission.
+ * If a name is declared more than once, lookups and replacements use the first declaration
+ * while {@link #asMap()} shows the last one, like the consolidated map it replaces.
+ */
+class SchemaIndex {
+
+	private final List<Map<String, String>> declarations;
+
+	private final Map<String, Map<String, String>> byName = new LinkedHashMap<String, Map<String, String>>();
+
+	private final Map<String, Map<String, String>> lastByName = new HashMap<String, Map<String, String>>();
+
+	private final Map<String, String> contents = new ContentsView();
+
+	private int indexedDeclarations;
+
+	/**
+	 * set if a declaration was still empty when indexed, as the parser fills them after adding
+	 */
+	private boolean incomplete;
+
+	SchemaIndex(List<Map<String, String>> declarations) {
+		this.declarations = declarations;
+		for (Map<String, String> declaration : declarations) {
+			index(declaration);
+		}
+		indexedDeclarations = declarations.size();
+	}
+
+	/**
+	 * @return true unless declarations were added to or removed from the list behind the index
+	 */
+	boolean isCurrent(List<Map<String, String>> declarations) {
+		return !incomplete && this.declarations == declarations && indexedDeclarations == declarations.size();
+	}
+
+	String get(String name) {
+		Map<String, String> declaration = byName.get(name);
+		return declaration != null ? declaration.get(name) : null;
+	}
+
+	boolean contains(String name) {
+		return byName.containsKey(name);
+	}
+
+	/**
+	 * Declares a schema unless its name is already declared.
+	 * @return true if the schema was added
+	 */
+	boolean add(String name, String content) {
+		if (byName.containsKey(name)) {
+			return false;
+		}
+		Map<String, String> declaration = new HashMap<String, String>();
+		declaration.put(name, content);
+		declarations.add(declaration);
+		indexedDeclarations++;
+		byName.put(name, declaration);
+		lastByName.put(name, declaration);
+		return true;
+	}
+
+	/**
+	 * Declares a schema, or replaces the content of its existing declaration.
+	 */
+	void put(String name, String content) {
+		Map<String, String> declaration = byName.get(name);
+		if (declaration != null) {
+			declaration.put(name, content);
+		} else {
+			add(name, content);
+		}
+	}
+
+	/**
+	 * @return a read-only view mapping schema names to the contents of their last declaration,
+	 *         in the order the names were first declared
+	 */
+	Map<String, String> asMap() {
+		return contents;
+	}
+
+	private void index(Map<String, String> declaration) {
+		if (declaration.isEmpty()) {
+			incomplete = true;
+		}
+		for (String name : declaration.keySet()) {
+			if (!byName.containsKey(name)) {
+				byName.put(name, declaration);
+			}
+			lastByName.put(name, declaration);
+		}
+	}
+
+	private class ContentsView extends AbstractMap<String, String> {
+
+		public String get(Object key) {
+			Map<String, String> declaration = lastByName.get(key);
+			return declaration != null ? declaration.get(key) : null;
+		}
+
+		public boolean containsKey(Object key) {
+			return byName.containsKey(key);
+		}
+
+		public int size() {
+			return byName.size();
+		}
+
+		public Set<Entry<String, String>> entrySet() {
+			return new AbstractSet<Entry<String, String>>() {
+
+				public Iterator<Entry<String, String>> iterator() {
+					final Iterator<Entry<String, Map<String, String>>> it = byName.entrySet().iterator();
+					return new Iterator<Entry<String, String>>() {
+
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						public Entry<String, String> next() {
+							String name = it.next().getKey();
+							return new SimpleImmutableEntry<String, String>(name, lastByName.get(name).get(name));
+						}
+
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+					};
+				}
+
+				public int size() {
+					return byName.size();
+				}
+			};
+		}
+	}
+}
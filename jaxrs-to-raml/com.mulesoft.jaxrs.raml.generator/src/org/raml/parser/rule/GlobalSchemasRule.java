@@ -27,6 +27,7 @@ public class GlobalSchemasRule extends SequenceTupleRule
 {
 
     private Map<String, ScalarNode> schemas = new HashMap<String, ScalarNode>();
+    private SchemaCache schemaCache = new SchemaCache();
 
     public GlobalSchemasRule()
     {
@@ -65,4 +66,9 @@ public class GlobalSchemasRule extends SequenceTupleRule
         return schemas.get(key);
     }
 
+    public SchemaCache getSchemaCache()
+    {
+        return schemaCache;
+    }
+
 }
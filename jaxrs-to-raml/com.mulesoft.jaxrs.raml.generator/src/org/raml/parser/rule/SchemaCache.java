@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.rule;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONTokener;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Compiled schemas of one validation run, so that a schema referenced by many bodies
+ * is only compiled once. Failures are cached as well and reported for every reference.
+ * A schema whose content changed under the same key is compiled again.
+ */
+public class SchemaCache
+{
+
+    private static final ThreadLocal<SchemaFactory> XML_SCHEMA_FACTORY = new ThreadLocal<SchemaFactory>()
+    {
+        protected SchemaFactory initialValue()
+        {
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        }
+    };
+
+    private final Map<String, CompiledSchema> xmlSchemas = new HashMap<String, CompiledSchema>();
+    private final Map<String, CompiledSchema> jsonSchemas = new HashMap<String, CompiledSchema>();
+
+    /**
+     * @param key global schema name, or the schema content itself for inline schemas
+     */
+    public synchronized CompiledSchema getXmlSchema(String key, String content)
+    {
+        CompiledSchema compiled = xmlSchemas.get(key);
+        if (compiled == null || !compiled.content.equals(content))
+        {
+            compiled = compileXml(content);
+            xmlSchemas.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * @param key global schema name, or the schema content itself for inline schemas
+     */
+    public synchronized CompiledSchema getJsonSchema(String key, String content)
+    {
+        CompiledSchema compiled = jsonSchemas.get(key);
+        if (compiled == null || !compiled.content.equals(content))
+        {
+            compiled = compileJson(content);
+            jsonSchemas.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    protected CompiledSchema compileXml(String content)
+    {
+        try
+        {
+            Schema schema = XML_SCHEMA_FACTORY.get().newSchema(new StreamSource(new StringReader(content)));
+            return new CompiledSchema(content, schema, null, 0);
+        }
+        catch (SAXParseException e)
+        {
+            return new CompiledSchema(content, null, e.getMessage(), e.getLineNumber());
+        }
+        catch (SAXException e)
+        {
+            return new CompiledSchema(content, null, "", 0);
+        }
+    }
+
+    protected CompiledSchema compileJson(String content)
+    {
+        try
+        {
+            JSONTokener tokener = new JSONTokener(content);
+            Object schema = tokener.nextValue();
+            if (tokener.nextClean() != 0)
+            {
+                tokener.back();
+                throw tokener.syntaxError("Unexpected content after the schema");
+            }
+            return new CompiledSchema(content, schema, null, 0);
+        }
+        catch (JSONException e)
+        {
+            // jettison reports the character offset only
+            String message = e.getMessage();
+            int detail = message.indexOf(" at character ");
+            return new CompiledSchema(content, null, detail < 0 ? message : message.substring(0, detail),
+                                      lineOf(content, e.getColumn()));
+        }
+    }
+
+    private static int lineOf(String content, int offset)
+    {
+        int line = 1;
+        for (int i = 0; i < offset && i < content.length(); i++)
+        {
+            if (content.charAt(i) == '\n')
+            {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Outcome of compiling a schema: a {@link Schema} for XML, the parsed JSON
+     * structure for JSON, or an error message and line.
+     */
+    public static class CompiledSchema
+    {
+
+        private final String content;
+        private final Object schema;
+        private final String error;
+        private final int errorLine;
+
+        CompiledSchema(String content, Object schema, String error, int errorLine)
+        {
+            this.content = content;
+            this.schema = schema;
+            this.error = error;
+            this.errorLine = errorLine;
+        }
+
+        public Object getSchema()
+        {
+            return schema;
+        }
+
+        public boolean isValid()
+        {
+            return error == null;
+        }
+
+        public String getError()
+        {
+            return error;
+        }
+
+        /**
+         * @return line of the error within the schema, starting at 1, or 0 if unknown
+         */
+        public int getErrorLine()
+        {
+            return errorLine;
+        }
+    }
+}
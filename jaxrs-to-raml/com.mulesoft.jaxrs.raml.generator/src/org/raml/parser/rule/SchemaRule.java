@@ -21,19 +21,10 @@ import static org.raml.parser.tagresolver.IncludeResolver.INCLUDE_APPLIED_TAG;
 import static org.raml.parser.tagresolver.IncludeResolver.IncludeScalarNode;
 import static org.yaml.snakeyaml.nodes.Tag.STR;
 
-
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.List;
 
-import javax.xml.XMLConstants;
-import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.SchemaFactory;
-
-//import org.eel.kitchen.jsonschema.util.JsonLoader;
+import org.raml.parser.rule.SchemaCache.CompiledSchema;
 import org.raml.parser.visitor.IncludeInfo;
-import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -52,13 +43,17 @@ public class SchemaRule extends SimpleRule
         List<ValidationResult> validationResults = super.doValidateValue(node);
 
         IncludeInfo globaSchemaIncludeInfo = null;
-        ScalarNode schemaNode = getGlobalSchemaNode(value);
+        GlobalSchemasRule schemasRule = getGlobalSchemasRule();
+        ScalarNode schemaNode = schemasRule.getSchema(value);
+        String cacheKey;
         if (schemaNode == null)
         {
             schemaNode = node;
+            cacheKey = value;
         }
         else
         {
+            cacheKey = "!global " + value;
             value = schemaNode.getValue();
             if (schemaNode.getTag().startsWith(INCLUDE_APPLIED_TAG))
             {
@@ -71,36 +66,26 @@ public class SchemaRule extends SimpleRule
         }
 
         String mimeType = ((ScalarNode) getParentTupleRule().getKey()).getValue();
+        CompiledSchema compiled;
+        String msg;
         if (mimeType.contains("json"))
         {
-            try
-            {
-               // JsonLoader.fromString(value);
-            }
-            catch (Exception jpe)
-            {
-                //String msg = "invalid JSON schema" + getSourceErrorDetail(node) + jpe.getOriginalMessage();
-              //  JsonLocation loc = jpe.getLocation();
-                //validationResults.add(getErrorResult(msg, getLineOffset(schemaNode) + loc.getLineNr(), globaSchemaIncludeInfo));
-            }
+            compiled = schemasRule.getSchemaCache().getJsonSchema(cacheKey, value);
+            msg = "invalid JSON schema";
         }
         else if (mimeType.contains("xml"))
         {
-            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            try
-            {
-                factory.newSchema(new StreamSource(new StringReader(value)));
-            }
-            catch (SAXParseException e)
-            {
-                String msg = "invalid XML schema" + getSourceErrorDetail(node) + e.getMessage();
-                validationResults.add(getErrorResult(msg, getLineOffset(schemaNode) + e.getLineNumber(), globaSchemaIncludeInfo));
-            }
-            catch (SAXException e)
-            {
-                String msg = "invalid XML schema" + getSourceErrorDetail(node);
-                validationResults.add(getErrorResult(msg, getLineOffset(schemaNode), globaSchemaIncludeInfo));
-            }
+            compiled = schemasRule.getSchemaCache().getXmlSchema(cacheKey, value);
+            msg = "invalid XML schema";
+        }
+        else
+        {
+            return validationResults;
+        }
+        if (!compiled.isValid())
+        {
+            msg += getSourceErrorDetail(node) + compiled.getError();
+            validationResults.add(getErrorResult(msg, getLineOffset(schemaNode) + compiled.getErrorLine(), globaSchemaIncludeInfo));
         }
         return validationResults;
     }
@@ -135,10 +120,9 @@ public class SchemaRule extends SimpleRule
         return msg + ": ";
     }
 
-    private ScalarNode getGlobalSchemaNode(String key)
+    private GlobalSchemasRule getGlobalSchemasRule()
     {
-        GlobalSchemasRule schemasRule = (GlobalSchemasRule) getRootTupleRule().getRuleByFieldName("schemas");
-        return schemasRule.getSchema(key);
+        return (GlobalSchemasRule) getRootTupleRule().getRuleByFieldName("schemas");
     }
 
     private boolean isCustomTag(Tag tag)
@@ -104,6 +104,16 @@ public class ValidationResult
         this.includeContext.addAll(includeContext);
     }
 
+    /**
+     * @return a copy of this result moved down by the given number of lines
+     */
+    public ValidationResult shift(int lines)
+    {
+        ValidationResult shifted = new ValidationResult(level, message, line == UNKNOWN ? line : line + lines, startColumn, endColumn);
+        shifted.setIncludeContext(includeContext);
+        return shifted;
+    }
+
     public static boolean areValid(List<ValidationResult> validationResults)
     {
         for (ValidationResult result : validationResults)
@@ -18,7 +18,13 @@ package org.raml.parser.utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -26,8 +32,13 @@ import java.util.regex.Pattern;
 public class Inflector
 {
 
+    private static final int CACHE_SIZE = 1024;
+
     private static List<String[]> singulars, plurals, irregulars;
     private static List<String> uncountables;
+    private static final RuleTable singularRules, pluralRules;
+    private static final Map<String, String> singularCache = createCache();
+    private static final Map<String, String> pluralCache = createCache();
 
     static
     {
@@ -90,6 +101,9 @@ public class Inflector
         addIrregular("tooth", "teeth");
 
         uncountables = Arrays.asList("equipment", "information", "rice", "money", "species", "series", "fish", "sheep");
+
+        singularRules = new RuleTable(singulars);
+        pluralRules = new RuleTable(plurals);
     }
 
     private static void addPlural(String rule, String replacement)
@@ -108,19 +122,29 @@ public class Inflector
     }
 
 
-    /**
-     * Replaces a found pattern in a word and returns a transformed word.
-     *
-     * @return Replaces a found pattern in a word and returns a transformed word. Null is pattern does not match.
-     */
-    private static String gsub(String word, String rule, String replacement)
+    private static Map<String, String> createCache()
     {
-        Pattern pattern = Pattern.compile(rule, Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(word);
-        return matcher.find() ? matcher.replaceFirst(replacement) : null;
+        return Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+            {
+                return size() > CACHE_SIZE;
+            }
+        });
     }
 
     public static String pluralize(String word)
+    {
+        String plural = pluralCache.get(word);
+        if (plural == null)
+        {
+            plural = doPluralize(word);
+            pluralCache.put(word, plural);
+        }
+        return plural;
+    }
+
+    private static String doPluralize(String word)
     {
 
         if (uncountables.contains(word))
@@ -136,20 +160,23 @@ public class Inflector
             }
         }
 
-        for (String[] pair : plurals)
-        {
-            String plural = gsub(word, pair[0], pair[1]);
-            if (plural != null)
-            {
-                return plural;
-            }
-        }
-
-        return word;
+        String plural = pluralRules.apply(word);
+        return plural != null ? plural : word;
     }
 
 
     public static String singularize(String word)
+    {
+        String singular = singularCache.get(word);
+        if (singular == null)
+        {
+            singular = doSingularize(word);
+            singularCache.put(word, singular);
+        }
+        return singular;
+    }
+
+    private static String doSingularize(String word)
     {
 
         if (uncountables.contains(word))
@@ -165,16 +192,8 @@ public class Inflector
             }
         }
 
-        for (String[] pair : singulars)
-        {
-            String singular = gsub(word, pair[0], pair[1]);
-            if (singular != null)
-            {
-                return singular;
-            }
-        }
-
-        return word;
+        String singular = singularRules.apply(word);
+        return singular != null ? singular : word;
     }
 
     /**
@@ -307,4 +326,199 @@ public class Inflector
         }
         return other.trim();
     }
+
+    /**
+     * Inflection rules compiled once and indexed by the last character of the words
+     * they can match, so that a word is only tried against the rules that may apply.
+     */
+    private static class RuleTable
+    {
+
+        private final Pattern[] patterns;
+        private final String[] replacements;
+        private final int[] all;
+        private final int[] anyLastChar;
+        private final Map<Character, int[]> byLastChar = new HashMap<Character, int[]>();
+
+        RuleTable(List<String[]> rules)
+        {
+            patterns = new Pattern[rules.size()];
+            replacements = new String[rules.size()];
+            List<Set<Character>> lastChars = new ArrayList<Set<Character>>();
+            Set<Character> indexed = new HashSet<Character>();
+            for (int i = 0; i < rules.size(); i++)
+            {
+                patterns[i] = Pattern.compile(rules.get(i)[0], Pattern.CASE_INSENSITIVE);
+                replacements[i] = rules.get(i)[1];
+                Set<Character> chars = lastChars(rules.get(i)[0]);
+                lastChars.add(chars);
+                if (chars != null)
+                {
+                    indexed.addAll(chars);
+                }
+            }
+            all = select(lastChars, null, true);
+            anyLastChar = select(lastChars, null, false);
+            for (Character c : indexed)
+            {
+                byLastChar.put(c, select(lastChars, c, false));
+            }
+        }
+
+        /**
+         * @return the word transformed by the first matching rule, null if none matches
+         */
+        String apply(String word)
+        {
+            for (int i : candidates(word))
+            {
+                Matcher matcher = patterns[i].matcher(word);
+                if (matcher.find())
+                {
+                    return matcher.replaceFirst(replacements[i]);
+                }
+            }
+            return null;
+        }
+
+        private int[] candidates(String word)
+        {
+            if (word.length() == 0)
+            {
+                return anyLastChar;
+            }
+            char last = word.charAt(word.length() - 1);
+            if (last == '\n' || last == '\r' || last == '\u0085' || last == '\u2028' || last == '\u2029')
+            {
+                // '$' also matches before a final line terminator
+                return all;
+            }
+            int[] rules = byLastChar.get(Character.toLowerCase(last));
+            return rules != null ? rules : anyLastChar;
+        }
+
+        private static int[] select(List<Set<Character>> lastChars, Character c, boolean all)
+        {
+            List<Integer> selected = new ArrayList<Integer>();
+            for (int i = 0; i < lastChars.size(); i++)
+            {
+                if (all || lastChars.get(i) == null || lastChars.get(i).contains(c))
+                {
+                    selected.add(i);
+                }
+            }
+            int[] indexes = new int[selected.size()];
+            for (int i = 0; i < indexes.length; i++)
+            {
+                indexes[i] = selected.get(i);
+            }
+            return indexes;
+        }
+
+        /**
+         * @return the lower case letters a match of the rule ends with, or null if they can't
+         *         be told from the end of the rule, which is then tried on every word
+         */
+        private static Set<Character> lastChars(String rule)
+        {
+            if (!rule.endsWith("$"))
+            {
+                return null;
+            }
+            List<String> alternatives = alternatives(rule.substring(0, rule.length() - 1));
+            if (alternatives.size() != 1)
+            {
+                return null;
+            }
+            String body = alternatives.get(0);
+            if (body.endsWith(")") && !body.endsWith("\\)"))
+            {
+                int open = openingParenthesis(body);
+                String group = body.substring(open + 1, body.length() - 1);
+                if (group.startsWith("?:"))
+                {
+                    group = group.substring(2);
+                }
+                else if (group.startsWith("?"))
+                {
+                    return null;
+                }
+                Set<Character> chars = new HashSet<Character>();
+                for (String alternative : alternatives(group))
+                {
+                    Set<Character> alternativeChars = lastChars(alternative + "$");
+                    if (alternativeChars == null)
+                    {
+                        return null;
+                    }
+                    chars.addAll(alternativeChars);
+                }
+                return chars;
+            }
+            int length = body.length();
+            if (length == 0 || !Character.isLetter(body.charAt(length - 1))
+                || (length > 1 && body.charAt(length - 2) == '\\'))
+            {
+                return null;
+            }
+            return Collections.singleton(Character.toLowerCase(body.charAt(length - 1)));
+        }
+
+        private static int openingParenthesis(String body)
+        {
+            int depth = 0;
+            for (int i = body.length() - 1; i >= 0; i--)
+            {
+                char c = body.charAt(i);
+                if (c == ')')
+                {
+                    depth++;
+                }
+                else if (c == '(' && --depth == 0)
+                {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Unbalanced rule " + body);
+        }
+
+        private static List<String> alternatives(String regex)
+        {
+            List<String> alternatives = new ArrayList<String>();
+            int depth = 0;
+            boolean inClass = false;
+            int start = 0;
+            for (int i = 0; i < regex.length(); i++)
+            {
+                char c = regex.charAt(i);
+                if (c == '\\')
+                {
+                    i++;
+                }
+                else if (inClass)
+                {
+                    inClass = c != ']';
+                }
+                else if (c == '[')
+                {
+                    inClass = true;
+                }
+                else if (c == '(')
+                {
+                    depth++;
+                }
+                else if (c == ')')
+                {
+                    depth--;
+                }
+                else if (c == '|' && depth == 0)
+                {
+                    alternatives.add(regex.substring(start, i));
+                    start = i + 1;
+                }
+            }
+            alternatives.add(regex.substring(start));
+            return alternatives;
+        }
+    }
 }
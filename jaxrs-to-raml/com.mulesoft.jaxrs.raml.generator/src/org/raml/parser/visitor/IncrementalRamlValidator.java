@@ -0,0 +1,636 @@
+/*
+ * Copyright (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import static org.raml.parser.rule.ValidationResult.UNKNOWN;
+import static org.raml.parser.rule.ValidationResult.createErrorResult;
+import static org.raml.parser.tagresolver.IncludeResolver.INCLUDE_TAG;
+import static org.yaml.snakeyaml.nodes.NodeId.mapping;
+import static org.yaml.snakeyaml.nodes.NodeId.scalar;
+import static org.yaml.snakeyaml.nodes.NodeId.sequence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.rule.ValidationResult;
+import org.raml.parser.tagresolver.TagResolver;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+/**
+ * Validates successive versions of a RAML document, re-validating only the top level resources
+ * whose text, includes or referenced resource types and traits changed since the previous version.
+ * Each resource is validated together with the non resource part of the document, and the results
+ * of that part alone are reported once, followed by the results of each resource in document order.
+ * Documents sharing nodes between top level entries through YAML aliases are always validated fully.
+ */
+public class IncrementalRamlValidator
+{
+
+    private static final Pattern INCLUDE_PATTERN = Pattern.compile("!include\\s+(\\S+)");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final String RESOURCE_TYPES = "resourceTypes";
+    private static final String TRAITS = "traits";
+
+    private ResourceLoader resourceLoader;
+    private TagResolver[] tagResolvers;
+
+    private String headerFingerprint;
+    private Map<String, String> templateFingerprints = new HashMap<String, String>();
+    private List<ValidationResult> headerResults = new ArrayList<ValidationResult>();
+    private Map<String, Subtree> subtrees = new HashMap<String, Subtree>();
+
+    public IncrementalRamlValidator(ResourceLoader resourceLoader, TagResolver... tagResolvers)
+    {
+        this.resourceLoader = resourceLoader;
+        this.tagResolvers = tagResolvers;
+    }
+
+    /**
+     * @return the same results as a full validation of the document, but grouped: the results of the
+     *         non resource part first, then those of each top level resource in document order, instead
+     *         of in the order a full run reports them
+     */
+    public synchronized List<ValidationResult> validate(String content)
+    {
+        MappingNode root;
+        try
+        {
+            Node node = new Yaml().compose(new StringReader(content));
+            if (node == null || node.getNodeId() != mapping)
+            {
+                reset();
+                return singleResult(createErrorResult("Invalid RAML"));
+            }
+            root = (MappingNode) node;
+        }
+        catch (MarkedYAMLException mye)
+        {
+            return singleResult(createErrorResult(mye.getProblem(), mye.getProblemMark(), mye.getProblemMark()));
+        }
+        catch (YAMLException ex)
+        {
+            return singleResult(createErrorResult(ex.getMessage()));
+        }
+
+        List<NodeTuple> header = new ArrayList<NodeTuple>();
+        Map<String, NodeTuple> resources = new LinkedHashMap<String, NodeTuple>();
+        for (NodeTuple tuple : root.getValue())
+        {
+            String uri = getResourceUri(tuple);
+            if (uri == null)
+            {
+                header.add(tuple);
+            }
+            else if (resources.put(uri, tuple) != null)
+            {
+                // duplicates are only reported when validating the resources together
+                return validateFully(root);
+            }
+        }
+        if (root.isMerged() || hasSharedNodes(root))
+        {
+            return validateFully(root);
+        }
+
+        Map<String, String> newTemplateFingerprints = new HashMap<String, String>();
+        Map<String, Set<String>> templateReferences = new HashMap<String, Set<String>>();
+        String newHeaderFingerprint = fingerprintHeader(content, header, newTemplateFingerprints, templateReferences);
+        Set<String> changedTemplates = new HashSet<String>();
+        if (!newHeaderFingerprint.equals(headerFingerprint))
+        {
+            subtrees.clear();
+        }
+        else
+        {
+            changedTemplates = getChangedTemplates(newTemplateFingerprints, templateReferences);
+        }
+        if (!newHeaderFingerprint.equals(headerFingerprint) || !changedTemplates.isEmpty())
+        {
+            headerResults = validateDocument(root, null);
+        }
+        headerFingerprint = newHeaderFingerprint;
+        templateFingerprints = newTemplateFingerprints;
+
+        List<ValidationResult> results = new ArrayList<ValidationResult>(headerResults);
+        Map<String, Subtree> validated = new HashMap<String, Subtree>();
+        for (Map.Entry<String, NodeTuple> entry : resources.entrySet())
+        {
+            NodeTuple tuple = entry.getValue();
+            Set<String> references = new HashSet<String>();
+            String fingerprint = fingerprint(content, tuple.getKeyNode(), tuple.getValueNode(), references);
+            int startLine = tuple.getKeyNode().getStartMark().getLine();
+            int endLine = tuple.getValueNode().getEndMark().getLine();
+
+            Subtree subtree = subtrees.get(entry.getKey());
+            if (subtree == null || !subtree.fingerprint.equals(fingerprint)
+                || !Collections.disjoint(references, changedTemplates))
+            {
+                List<ValidationResult> subtreeResults = subtract(validateDocument(root, tuple), headerResults);
+                subtree = new Subtree(fingerprint, startLine, endLine, subtreeResults);
+            }
+            else
+            {
+                subtree = subtree.moveTo(startLine, endLine);
+            }
+            validated.put(entry.getKey(), subtree);
+            results.addAll(subtree.results);
+        }
+        subtrees = validated;
+        return results;
+    }
+
+    private void reset()
+    {
+        headerFingerprint = null;
+        templateFingerprints = new HashMap<String, String>();
+        headerResults = new ArrayList<ValidationResult>();
+        subtrees = new HashMap<String, Subtree>();
+    }
+
+    private List<ValidationResult> singleResult(ValidationResult result)
+    {
+        List<ValidationResult> results = new ArrayList<ValidationResult>();
+        results.add(result);
+        return results;
+    }
+
+    private List<ValidationResult> validateFully(MappingNode root)
+    {
+        reset();
+        return runValidation(root);
+    }
+
+    /**
+     * Validates a copy of the non resource part of the document, plus the given resource.
+     */
+    private List<ValidationResult> validateDocument(MappingNode root, NodeTuple resource)
+    {
+        Map<Node, Node> copies = new IdentityHashMap<Node, Node>();
+        List<NodeTuple> tuples = new ArrayList<NodeTuple>();
+        for (NodeTuple tuple : root.getValue())
+        {
+            if (tuple == resource)
+            {
+                tuples.add(tuple);
+            }
+            else if (getResourceUri(tuple) == null)
+            {
+                tuples.add(new NodeTuple(copy(tuple.getKeyNode(), copies), copy(tuple.getValueNode(), copies)));
+            }
+        }
+        return runValidation(new MappingNode(root.getTag(), true, tuples, root.getStartMark(), root.getEndMark(), root.getFlowStyle()));
+    }
+
+    /**
+     * Validates the full document, or its non resource part with at most one resource.
+     */
+    protected List<ValidationResult> runValidation(MappingNode document)
+    {
+        RamlDocumentValidator validator = new RamlDocumentValidator();
+        RamlValidationService service = new RamlValidationService(resourceLoader, validator, tagResolvers);
+        List<ValidationResult> results = new ArrayList<ValidationResult>(service.validate(document));
+        results.addAll(validator.getMessages());
+        return results;
+    }
+
+    /**
+     * @return the results not also found in <code>headerResults</code>
+     */
+    private List<ValidationResult> subtract(List<ValidationResult> results, List<ValidationResult> headerResults)
+    {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (ValidationResult result : headerResults)
+        {
+            String key = getResultKey(result);
+            Integer count = counts.get(key);
+            counts.put(key, count == null ? 1 : count + 1);
+        }
+        List<ValidationResult> remaining = new ArrayList<ValidationResult>();
+        for (ValidationResult result : results)
+        {
+            String key = getResultKey(result);
+            Integer count = counts.get(key);
+            if (count != null && count > 0)
+            {
+                counts.put(key, count - 1);
+            }
+            else
+            {
+                remaining.add(result);
+            }
+        }
+        return remaining;
+    }
+
+    private String getResultKey(ValidationResult result)
+    {
+        return result.getLevel() + ":" + result.getLine() + ":" + result.getStartColumn() + ":"
+               + result.getEndColumn() + ":" + result.getIncludeName() + ":" + result.getMessage();
+    }
+
+    private String getResourceUri(NodeTuple tuple)
+    {
+        if (tuple.getKeyNode().getNodeId() != scalar)
+        {
+            return null;
+        }
+        String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+        return key.startsWith("/") ? key : null;
+    }
+
+    private String fingerprintHeader(String content, List<NodeTuple> header, Map<String, String> templateFingerprints,
+                                     Map<String, Set<String>> templateReferences)
+    {
+        StringBuilder fingerprint = new StringBuilder();
+        for (NodeTuple tuple : header)
+        {
+            String key = tuple.getKeyNode().getNodeId() == scalar ? ((ScalarNode) tuple.getKeyNode()).getValue() : null;
+            if ((RESOURCE_TYPES.equals(key) || TRAITS.equals(key)) && isTemplateSequence(tuple.getValueNode()))
+            {
+                for (Node item : ((SequenceNode) tuple.getValueNode()).getValue())
+                {
+                    for (NodeTuple template : ((MappingNode) item).getValue())
+                    {
+                        String name = key + "/" + ((ScalarNode) template.getKeyNode()).getValue();
+                        Set<String> references = new HashSet<String>();
+                        String templateFingerprint = fingerprint(content, template.getKeyNode(), template.getValueNode(), references);
+                        templateFingerprints.put(name, template.getKeyNode().getStartMark().getLine() + "@" + templateFingerprint);
+                        templateReferences.put(name, references);
+                    }
+                }
+                fingerprint.append(key).append('@').append(tuple.getKeyNode().getStartMark().getLine()).append('\n');
+            }
+            else
+            {
+                fingerprint.append(tuple.getKeyNode().getStartMark().getLine()).append('@');
+                fingerprint.append(fingerprint(content, tuple.getKeyNode(), tuple.getValueNode(), new HashSet<String>())).append('\n');
+            }
+        }
+        return digest(fingerprint.toString());
+    }
+
+    private boolean isTemplateSequence(Node node)
+    {
+        if (node.getNodeId() != sequence)
+        {
+            return false;
+        }
+        for (Node item : ((SequenceNode) node).getValue())
+        {
+            if (item.getNodeId() != mapping)
+            {
+                return false;
+            }
+            for (NodeTuple template : ((MappingNode) item).getValue())
+            {
+                if (template.getKeyNode().getNodeId() != scalar)
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return names of the templates added, removed or changed since the previous version, plus
+     *         those of the templates using them
+     */
+    private Set<String> getChangedTemplates(Map<String, String> newTemplateFingerprints, Map<String, Set<String>> templateReferences)
+    {
+        Set<String> changed = new HashSet<String>();
+        Set<String> names = new HashSet<String>(templateFingerprints.keySet());
+        names.addAll(newTemplateFingerprints.keySet());
+        for (String name : names)
+        {
+            String fingerprint = newTemplateFingerprints.get(name);
+            if (fingerprint == null || !fingerprint.equals(templateFingerprints.get(name)))
+            {
+                changed.add(name);
+            }
+        }
+        boolean expanded = !changed.isEmpty();
+        while (expanded)
+        {
+            expanded = false;
+            for (Map.Entry<String, Set<String>> entry : templateReferences.entrySet())
+            {
+                if (!changed.contains(entry.getKey()) && !Collections.disjoint(entry.getValue(), changed))
+                {
+                    changed.add(entry.getKey());
+                    expanded = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return a digest of the source text of a key and value, and of the content of the files they
+     *         include. Resource types and traits used are added to <code>references</code>.
+     */
+    private String fingerprint(String content, Node key, Node value, Set<String> references)
+    {
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(getSourceText(content, key.getStartMark(), value.getEndMark()));
+        collectDependencies(value, fingerprint, references, Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>()));
+        return digest(fingerprint.toString());
+    }
+
+    private String getSourceText(String content, Mark start, Mark end)
+    {
+        int from = Math.max(0, Math.min(start.getIndex(), content.length()));
+        int to = Math.max(from, Math.min(end.getIndex(), content.length()));
+        return content.substring(from, to);
+    }
+
+    private void collectDependencies(Node node, StringBuilder fingerprint, Set<String> references, Set<Node> visited)
+    {
+        if (!visited.add(node))
+        {
+            return;
+        }
+        if (node.getNodeId() == scalar)
+        {
+            if (INCLUDE_TAG.equals(node.getTag()))
+            {
+                appendInclude(((ScalarNode) node).getValue(), fingerprint, new HashSet<String>());
+            }
+        }
+        else if (node.getNodeId() == sequence)
+        {
+            for (Node item : ((SequenceNode) node).getValue())
+            {
+                collectDependencies(item, fingerprint, references, visited);
+            }
+        }
+        else if (node.getNodeId() == mapping)
+        {
+            for (NodeTuple tuple : ((MappingNode) node).getValue())
+            {
+                if (tuple.getKeyNode().getNodeId() == scalar)
+                {
+                    String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+                    if (TemplateResolver.RESOURCE_TYPE_USE_KEY.equals(key))
+                    {
+                        addReference(RESOURCE_TYPES, tuple.getValueNode(), references);
+                    }
+                    else if (TemplateResolver.TRAIT_USE_KEY.equals(key) && tuple.getValueNode().getNodeId() == sequence)
+                    {
+                        for (Node trait : ((SequenceNode) tuple.getValueNode()).getValue())
+                        {
+                            addReference(TRAITS, trait, references);
+                        }
+                    }
+                }
+                collectDependencies(tuple.getKeyNode(), fingerprint, references, visited);
+                collectDependencies(tuple.getValueNode(), fingerprint, references, visited);
+            }
+        }
+    }
+
+    private void addReference(String templateType, Node reference, Set<String> references)
+    {
+        if (reference.getNodeId() == mapping && !((MappingNode) reference).getValue().isEmpty())
+        {
+            reference = ((MappingNode) reference).getValue().get(0).getKeyNode();
+        }
+        if (reference.getNodeId() == scalar)
+        {
+            references.add(templateType + "/" + ((ScalarNode) reference).getValue());
+        }
+    }
+
+    private void appendInclude(String resourceName, StringBuilder fingerprint, Set<String> visited)
+    {
+        if (!visited.add(resourceName))
+        {
+            return;
+        }
+        String included = fetch(resourceName);
+        fingerprint.append("\n!include ").append(resourceName).append('\n');
+        fingerprint.append(included == null ? "" : digest(included));
+        if (included != null && (resourceName.endsWith(".raml") || resourceName.endsWith(".yaml") || resourceName.endsWith(".yml")))
+        {
+            Matcher matcher = INCLUDE_PATTERN.matcher(included);
+            while (matcher.find())
+            {
+                appendInclude(matcher.group(1), fingerprint, visited);
+            }
+        }
+    }
+
+    private String fetch(String resourceName)
+    {
+        InputStream inputStream = resourceLoader.fetchResource(resourceName);
+        if (inputStream == null)
+        {
+            return null;
+        }
+        try
+        {
+            return IOUtils.toString(inputStream, "UTF-8");
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+        finally
+        {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    private boolean hasSharedNodes(MappingNode root)
+    {
+        Map<Node, NodeTuple> owners = new IdentityHashMap<Node, NodeTuple>();
+        for (NodeTuple tuple : root.getValue())
+        {
+            if (!markOwner(tuple.getKeyNode(), tuple, owners) || !markOwner(tuple.getValueNode(), tuple, owners))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false if a node is also reachable from another top level entry
+     */
+    private boolean markOwner(Node node, NodeTuple owner, Map<Node, NodeTuple> owners)
+    {
+        NodeTuple previous = owners.put(node, owner);
+        if (previous != null)
+        {
+            return previous == owner;
+        }
+        if (node.getNodeId() == mapping)
+        {
+            for (NodeTuple tuple : ((MappingNode) node).getValue())
+            {
+                if (!markOwner(tuple.getKeyNode(), owner, owners) || !markOwner(tuple.getValueNode(), owner, owners))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (node.getNodeId() == sequence)
+        {
+            for (Node item : ((SequenceNode) node).getValue())
+            {
+                if (!markOwner(item, owner, owners))
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deep copy of a node, as validation resolves templates and includes in place.
+     */
+    private Node copy(Node node, Map<Node, Node> copies)
+    {
+        Node copy = copies.get(node);
+        if (copy != null)
+        {
+            return copy;
+        }
+        if (node.getNodeId() == mapping)
+        {
+            MappingNode original = (MappingNode) node;
+            List<NodeTuple> tuples = new ArrayList<NodeTuple>();
+            MappingNode mappingCopy = new MappingNode(original.getTag(), original.isResolved(), tuples,
+                                                      original.getStartMark(), original.getEndMark(), original.getFlowStyle());
+            mappingCopy.setMerged(original.isMerged());
+            copies.put(node, mappingCopy);
+            for (NodeTuple tuple : original.getValue())
+            {
+                tuples.add(new NodeTuple(copy(tuple.getKeyNode(), copies), copy(tuple.getValueNode(), copies)));
+            }
+            return mappingCopy;
+        }
+        if (node.getNodeId() == sequence)
+        {
+            SequenceNode original = (SequenceNode) node;
+            List<Node> items = new ArrayList<Node>();
+            SequenceNode sequenceCopy = new SequenceNode(original.getTag(), original.isResolved(), items,
+                                                         original.getStartMark(), original.getEndMark(), original.getFlowStyle());
+            copies.put(node, sequenceCopy);
+            for (Node item : original.getValue())
+            {
+                items.add(copy(item, copies));
+            }
+            return sequenceCopy;
+        }
+        if (node.getNodeId() == scalar)
+        {
+            ScalarNode original = (ScalarNode) node;
+            copy = new ScalarNode(original.getTag(), original.isResolved(), original.getValue(),
+                                  original.getStartMark(), original.getEndMark(), original.getStyle());
+            copies.put(node, copy);
+            return copy;
+        }
+        return node;
+    }
+
+    private static String digest(String text)
+    {
+        try
+        {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(UTF_8));
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++)
+            {
+                hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xf];
+            }
+            return new String(hex);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Validation results of a top level resource, as of the version it was last validated in.
+     */
+    private static class Subtree
+    {
+
+        private final String fingerprint;
+        private final int startLine;
+        private final int endLine;
+        private final List<ValidationResult> results;
+
+        Subtree(String fingerprint, int startLine, int endLine, List<ValidationResult> results)
+        {
+            this.fingerprint = fingerprint;
+            this.startLine = startLine;
+            this.endLine = endLine;
+            this.results = results;
+        }
+
+        /**
+         * @return this subtree moved to a new position, with the lines of results within it adjusted
+         */
+        Subtree moveTo(int newStartLine, int newEndLine)
+        {
+            int delta = newStartLine - startLine;
+            if (delta == 0)
+            {
+                return this;
+            }
+            List<ValidationResult> moved = new ArrayList<ValidationResult>();
+            for (ValidationResult result : results)
+            {
+                boolean inSubtree = result.getIncludeContext().isEmpty() && result.getLine() != UNKNOWN
+                                    && result.getLine() >= startLine && result.getLine() <= endLine;
+                moved.add(inSubtree ? result.shift(delta) : result);
+            }
+            return new Subtree(fingerprint, newStartLine, newEndLine, moved);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import static org.raml.parser.visitor.TupleType.VALUE;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.commons.beanutils.ConversionException;
@@ -114,23 +115,27 @@ public class NodeVisitor
         List<NodeTuple> updatedTuples = new ArrayList<NodeTuple>();
         for (NodeTuple nodeTuple : tuples)
         {
-            Node keyNode = nodeTuple.getKeyNode();
-            Node originalValueNode = nodeTuple.getValueNode();
+            updatedTuples.add(visitTuple(nodeTuple));
+        }
+        mappingNode.setValue(updatedTuples);
+    }
 
-            Tag tag = originalValueNode.getTag();
-            Node resolvedNode = resolveTag(tag, originalValueNode);
-            if (originalValueNode != resolvedNode)
-            {
-                nodeTuple = new NodeTuple(keyNode, resolvedNode);
-            }
-            updatedTuples.add(nodeTuple);
-            nodeHandler.onTupleStart(nodeTuple);
-            visit(keyNode, KEY);
-            visitResolvedNode(originalValueNode, resolvedNode);
-            nodeHandler.onTupleEnd(nodeTuple);
+    private NodeTuple visitTuple(NodeTuple nodeTuple)
+    {
+        Node keyNode = nodeTuple.getKeyNode();
+        Node originalValueNode = nodeTuple.getValueNode();
 
+        Tag tag = originalValueNode.getTag();
+        Node resolvedNode = resolveTag(tag, originalValueNode);
+        if (originalValueNode != resolvedNode)
+        {
+            nodeTuple = new NodeTuple(keyNode, resolvedNode);
         }
-        mappingNode.setValue(updatedTuples);
+        nodeHandler.onTupleStart(nodeTuple);
+        visit(keyNode, KEY);
+        visitResolvedNode(originalValueNode, resolvedNode);
+        nodeHandler.onTupleEnd(nodeTuple);
+        return nodeTuple;
     }
 
     private Node resolveTag(Tag tag, Node valueNode)
@@ -216,6 +221,31 @@ public class NodeVisitor
         nodeHandler.onDocumentEnd(node);
     }
 
+    /**
+     * Visits a document whose root tuples are supplied one by one, so that they can be
+     * released once visited. Tuples of <code>node</code> are updated like in
+     * {@link #visitDocument(MappingNode)}, the others are not kept.
+     */
+    public void visitDocument(MappingNode node, Iterator<NodeTuple> tuples)
+    {
+        nodeHandler.onDocumentStart(node);
+        while (tuples.hasNext())
+        {
+            NodeTuple nodeTuple = tuples.next();
+            NodeTuple updatedTuple = visitTuple(nodeTuple);
+            List<NodeTuple> rootTuples = node.getValue();
+            for (int i = 0; i < rootTuples.size(); i++)
+            {
+                if (rootTuples.get(i) == nodeTuple)
+                {
+                    rootTuples.set(i, updatedTuple);
+                    break;
+                }
+            }
+        }
+        nodeHandler.onDocumentEnd(node);
+    }
+
     private void visit(Node node, TupleType tupleType)
     {
         if (node.getNodeId() == NodeId.mapping)
@@ -83,6 +83,7 @@ public final class PreservingTemplatesBuilder extends RamlDocumentBuilder {
 
 		
 		protected void preBuildProcess() {
+			// the root node may lack the top level resources, which neither resolver looks at
 			getTemplateResolver().init(getRootNode());
 			getMediaTypeResolver().beforeDocumentStart(getRootNode());
 		}
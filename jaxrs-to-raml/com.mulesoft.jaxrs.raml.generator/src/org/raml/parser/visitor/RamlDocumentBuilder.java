@@ -141,6 +141,7 @@ public class RamlDocumentBuilder extends YamlDocumentBuilder<Raml>
     
     protected void preBuildProcess()
     {
+        // the root node may lack the top level resources, which neither resolver looks at
         getTemplateResolver().init(getRootNode());
         getMediaTypeResolver().beforeDocumentStart(getRootNode());
     }
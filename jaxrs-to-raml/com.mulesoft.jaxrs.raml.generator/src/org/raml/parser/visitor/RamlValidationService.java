@@ -16,6 +16,7 @@
 package org.raml.parser.visitor;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.raml.parser.loader.DefaultResourceLoader;
@@ -31,6 +32,7 @@ public class RamlValidationService extends YamlValidationService
 {
 
     private RamlDocumentValidator validator;
+    private ExecutorService executor;
 
     public RamlValidationService(ResourceLoader resourceLoader, RamlDocumentValidator ramlDocumentValidator, TagResolver... tagResolvers)
     {
@@ -48,11 +50,24 @@ public class RamlValidationService extends YamlValidationService
         return (TagResolver[]) ArrayUtils.addAll(defaultResolvers, tagResolvers);
     }
 
+    /**
+     * Sets an executor to merge the templates of the top level resources on concurrently.
+     * The validation results are the same as without one.
+     */
+    public void setExecutor(ExecutorService executor)
+    {
+        this.executor = executor;
+    }
+
     
     protected List<ValidationResult> preValidation(MappingNode root)
     {
         List<ValidationResult> validationResults = validator.getTemplateResolver().init(root);
         validationResults.addAll(validator.getMediaTypeResolver().beforeDocumentStart(root));
+        if (executor != null)
+        {
+            validator.getTemplateResolver().preResolve(root, executor);
+        }
         return validationResults;
     }
 
@@ -71,4 +86,12 @@ public class RamlValidationService extends YamlValidationService
         return new RamlValidationService(loader, new RamlDocumentValidator(nodeRuleFactory), tagResolvers);
     }
 
+    /**
+     * @return a validator for successive versions of a document, re-validating only what changed
+     */
+    public static IncrementalRamlValidator createIncremental(ResourceLoader loader, TagResolver... tagResolvers)
+    {
+        return new IncrementalRamlValidator(loader, tagResolvers);
+    }
+
 }
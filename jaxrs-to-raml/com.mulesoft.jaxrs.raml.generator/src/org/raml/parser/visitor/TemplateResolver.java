@@ -22,15 +22,23 @@ import static org.yaml.snakeyaml.nodes.NodeId.mapping;
 import static org.yaml.snakeyaml.nodes.NodeId.scalar;
 import static org.yaml.snakeyaml.nodes.NodeId.sequence;
 
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -57,12 +65,15 @@ public class TemplateResolver
     public static final String RESOURCE_TYPE_USE_KEY = "type";
     //protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+    // stateless, shared by the concurrent merges
     private IncludeResolver includeResolver = new IncludeResolver();
     private Map<String, MappingNode> resourceTypesMap = new HashMap<String, MappingNode>();
     private Map<String, MappingNode> traitsMap = new HashMap<String, MappingNode>();
     private ResourceLoader resourceLoader;
     private NodeHandler nodeNandler;
-    private Set<MappingNode> resolvedNodes = new HashSet<MappingNode>();
+    // weak, so that resources streamed by the document builder can go once built
+    private Set<MappingNode> resolvedNodes = Collections.newSetFromMap(new WeakHashMap<MappingNode, Boolean>());
+    private Map<MappingNode, PreResolvedResource> preResolvedNodes = new ConcurrentHashMap<MappingNode, PreResolvedResource>();
 	private boolean doResolve;
 
     private enum TemplateType
@@ -225,7 +236,306 @@ public class TemplateResolver
         }
         resolvedNodes.add(resourceNode);
 
-        return new ResourceTemplateMerger(templateValidations, resourceNode, relativeUri, fullUri).merge();
+        PreResolvedResource preResolved = preResolvedNodes.remove(resourceNode);
+        if (preResolved != null)
+        {
+            return preResolved.replay(nodeNandler);
+        }
+        return new ResourceTemplateMerger(templateValidations, resourceNode, relativeUri, fullUri, resourceLoader, nodeNandler).merge();
+    }
+
+    /**
+     * Merges the templates of the top level resource subtrees concurrently, ahead of the validation
+     * walk. Results are kept per resource node and reported by {@link #resolve} when the walk reaches
+     * the node, so validation messages come out as in a sequential run. Subtrees sharing nodes with
+     * other parts of the document through YAML aliases are left to the sequential walk.
+     * Includes are fetched one at a time from the resource loader, which needs not be thread safe.
+     */
+    public void preResolve(MappingNode rootNode, ExecutorService executor)
+    {
+        if (rootNode == null || rootNode.isMerged() || !doResolve)
+        {
+            return;
+        }
+        List<NodeTuple> resourceTuples = new ArrayList<NodeTuple>();
+        for (NodeTuple tuple : rootNode.getValue())
+        {
+            if (isResourceTuple(tuple))
+            {
+                resourceTuples.add(tuple);
+            }
+        }
+        Set<Integer> sharedSubtrees = findSharedSubtrees(rootNode, resourceTuples);
+        final ResourceLoader loader = new SynchronizedResourceLoader(resourceLoader);
+
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (int i = 0; i < resourceTuples.size(); i++)
+        {
+            if (sharedSubtrees.contains(i))
+            {
+                continue;
+            }
+            final MappingNode resourceNode = (MappingNode) resourceTuples.get(i).getValueNode();
+            final String uri = ((ScalarNode) resourceTuples.get(i).getKeyNode()).getValue();
+            tasks.add(executor.submit(new Runnable()
+            {
+                public void run()
+                {
+                    preResolveSubtree(resourceNode, uri, uri, loader);
+                }
+            }));
+        }
+
+        // the walk must not start before every subtree is merged, so wait even if interrupted
+        boolean interrupted = false;
+        Throwable error = null;
+        for (Future<?> task : tasks)
+        {
+            while (true)
+            {
+                try
+                {
+                    task.get();
+                    break;
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException e)
+                {
+                    if (error == null)
+                    {
+                        error = e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+        if (error instanceof Error)
+        {
+            throw (Error) error;
+        }
+        if (error != null)
+        {
+            throw new RuntimeException(error);
+        }
+    }
+
+    private void preResolveSubtree(MappingNode resourceNode, String relativeUri, String fullUri, ResourceLoader loader)
+    {
+        PreResolvedResource preResolved = new PreResolvedResource();
+        try
+        {
+            preResolved.validations = new ResourceTemplateMerger(
+                    new ArrayList<ValidationResult>(), resourceNode, relativeUri, fullUri, loader, preResolved).merge();
+        }
+        catch (RuntimeException e)
+        {
+            // rethrown when the walk reaches the node, as a sequential run would have failed there
+            preResolved.failure = e;
+            preResolvedNodes.put(resourceNode, preResolved);
+            return;
+        }
+        preResolvedNodes.put(resourceNode, preResolved);
+        if (resourceNode.isMerged())
+        {
+            // nested resources are only known once the walk has flattened the merge keys
+            return;
+        }
+        for (NodeTuple tuple : resourceNode.getValue())
+        {
+            if (isResourceTuple(tuple))
+            {
+                String uri = ((ScalarNode) tuple.getKeyNode()).getValue();
+                preResolveSubtree((MappingNode) tuple.getValueNode(), uri, fullUri + uri, loader);
+            }
+        }
+    }
+
+    private boolean isResourceTuple(NodeTuple tuple)
+    {
+        return tuple.getKeyNode().getNodeId() == scalar
+               && ((ScalarNode) tuple.getKeyNode()).getValue().startsWith("/")
+               && tuple.getValueNode().getNodeId() == mapping
+               && Tag.MAP.equals(tuple.getValueNode().getTag());
+    }
+
+    /**
+     * @return indexes of the resource subtrees holding a node that is also reachable from
+     *         elsewhere in the document or the templates
+     */
+    private Set<Integer> findSharedSubtrees(MappingNode rootNode, List<NodeTuple> resourceTuples)
+    {
+        Map<Node, Integer> owners = new IdentityHashMap<Node, Integer>();
+        Set<Integer> shared = new HashSet<Integer>();
+        for (MappingNode template : resourceTypesMap.values())
+        {
+            markOwner(template, -1, owners, shared);
+        }
+        for (MappingNode template : traitsMap.values())
+        {
+            markOwner(template, -1, owners, shared);
+        }
+        for (NodeTuple tuple : rootNode.getValue())
+        {
+            int owner = resourceTuples.indexOf(tuple);
+            markOwner(tuple.getKeyNode(), owner, owners, shared);
+            markOwner(tuple.getValueNode(), owner, owners, shared);
+        }
+        return shared;
+    }
+
+    private void markOwner(Node node, int owner, Map<Node, Integer> owners, Set<Integer> shared)
+    {
+        Integer previous = owners.put(node, owner);
+        if (previous != null)
+        {
+            if (previous >= 0)
+            {
+                shared.add(previous);
+            }
+            if (owner >= 0)
+            {
+                shared.add(owner);
+            }
+            return;
+        }
+        if (node.getNodeId() == mapping)
+        {
+            for (NodeTuple tuple : ((MappingNode) node).getValue())
+            {
+                markOwner(tuple.getKeyNode(), owner, owners, shared);
+                markOwner(tuple.getValueNode(), owner, owners, shared);
+            }
+        }
+        else if (node.getNodeId() == sequence)
+        {
+            for (Node item : ((SequenceNode) node).getValue())
+            {
+                markOwner(item, owner, owners, shared);
+            }
+        }
+    }
+
+    private static class SynchronizedResourceLoader implements ResourceLoader
+    {
+
+        private final ResourceLoader resourceLoader;
+
+        SynchronizedResourceLoader(ResourceLoader resourceLoader)
+        {
+            this.resourceLoader = resourceLoader;
+        }
+
+        public synchronized InputStream fetchResource(String resourceName)
+        {
+            return resourceLoader.fetchResource(resourceName);
+        }
+    }
+
+    private enum TagEvent
+    {
+        START, END, ERROR
+    }
+
+    /**
+     * Outcome of merging the templates of a resource ahead of the walk. Custom tag events, like
+     * include errors, are collected here instead of going to the validator, and replayed in order later.
+     */
+    private static class PreResolvedResource implements NodeHandler
+    {
+
+        private List<Object[]> tagEvents = new ArrayList<Object[]>();
+        private List<ValidationResult> validations;
+        private RuntimeException failure;
+
+        List<ValidationResult> replay(NodeHandler nodeHandler)
+        {
+            for (Object[] event : tagEvents)
+            {
+                switch ((TagEvent) event[0])
+                {
+                    case START:
+                        nodeHandler.onCustomTagStart((Tag) event[1], (Node) event[2], (Node) event[3]);
+                        break;
+                    case END:
+                        nodeHandler.onCustomTagEnd((Tag) event[1], (Node) event[2], (Node) event[3]);
+                        break;
+                    case ERROR:
+                        nodeHandler.onCustomTagError((Tag) event[1], (Node) event[2], (String) event[3]);
+                        break;
+                }
+            }
+            if (failure != null)
+            {
+                throw failure;
+            }
+            return validations;
+        }
+
+        public void onCustomTagError(Tag tag, Node node, String message)
+        {
+            tagEvents.add(new Object[] {TagEvent.ERROR, tag, node, message});
+        }
+
+        public void onMappingNodeStart(MappingNode mappingNode, TupleType tupleType)
+        {
+        }
+
+        public void onMappingNodeEnd(MappingNode mappingNode, TupleType tupleType)
+        {
+        }
+
+        public void onSequenceStart(SequenceNode node, TupleType tupleType)
+        {
+        }
+
+        public void onSequenceEnd(SequenceNode node, TupleType tupleType)
+        {
+        }
+
+        public void onScalar(ScalarNode node, TupleType tupleType)
+        {
+        }
+
+        public void onDocumentStart(MappingNode node)
+        {
+        }
+
+        public void onDocumentEnd(MappingNode node)
+        {
+        }
+
+        public void onTupleEnd(NodeTuple nodeTuple)
+        {
+        }
+
+        public void onTupleStart(NodeTuple nodeTuple)
+        {
+        }
+
+        public void onSequenceElementStart(Node sequenceNode)
+        {
+        }
+
+        public void onSequenceElementEnd(Node sequenceNode)
+        {
+        }
+
+        public void onCustomTagStart(Tag tag, Node originalValueNode, Node node)
+        {
+            tagEvents.add(new Object[] {TagEvent.START, tag, originalValueNode, node});
+        }
+
+        public void onCustomTagEnd(Tag tag, Node originalValueNode, Node node)
+        {
+            tagEvents.add(new Object[] {TagEvent.END, tag, originalValueNode, node});
+        }
     }
 
     private class ResourceTemplateMerger
@@ -236,13 +546,17 @@ public class TemplateResolver
         private String relativeUri;
         private String fullUri;
         private String currentAction;
+        private ResourceLoader resourceLoader;
+        private NodeHandler nodeHandler;
 
-        public ResourceTemplateMerger(List<ValidationResult> templateValidations, MappingNode resourceNode, String relativeUri, String fullUri)
+        public ResourceTemplateMerger(List<ValidationResult> templateValidations, MappingNode resourceNode, String relativeUri, String fullUri, ResourceLoader resourceLoader, NodeHandler nodeHandler)
         {
             this.templateValidations = templateValidations;
             this.resourceNode = resourceNode;
             this.relativeUri = relativeUri;
             this.fullUri = fullUri;
+            this.resourceLoader = resourceLoader;
+            this.nodeHandler = nodeHandler;
         }
 
         public List<ValidationResult> merge()
@@ -291,7 +605,7 @@ public class TemplateResolver
                     }
                     else if (actionNode.getTag().equals(INCLUDE_TAG))
                     {
-                        actionNode = includeResolver.resolve(actionNode, resourceLoader, nodeNandler);
+                        actionNode = includeResolver.resolve(actionNode, resourceLoader, nodeHandler);
                         resourceNode.getValue().remove(i);
                         resourceNode.getValue().add(i, new NodeTuple(resourceTuple.getKeyNode(), actionNode));
                     }
@@ -29,6 +29,7 @@ import java.io.Writer;
 import java.util.Collections;
 import java.util.Stack;
 
+import org.apache.commons.io.IOUtils;
 import org.raml.model.Resource;
 import org.raml.parser.builder.DefaultTupleBuilder;
 import org.raml.parser.builder.NodeBuilder;
@@ -72,13 +73,31 @@ public class YamlDocumentBuilder<T> implements NodeHandler
         this.tagResolvers = tagResolvers;
     }
 
+    /**
+     * Builds the document from parse events, composing each top level resource only when it
+     * is built. {@link #getRootNode()} then holds the other root tuples only.
+     */
     public T build(Reader content)
     {
-        Yaml yamlParser = new Yaml();
+        String text;
+        try
+        {
+            text = IOUtils.toString(content);
+        }
+        catch (IOException e)
+        {
+            throw new YAMLException(e);
+        }
+        YamlEventComposer composer = new YamlEventComposer(text);
+        MappingNode header = composer.composeHeader();
+        if (header == null)
+        {
+            return build((MappingNode) new Yaml().compose(new StringReader(text)));
+        }
         NodeVisitor nodeVisitor = new NodeVisitor(this, resourceLoader, tagResolvers);
-        rootNode = (MappingNode) yamlParser.compose(content);
+        rootNode = header;
         preBuildProcess();
-        nodeVisitor.visitDocument(rootNode);
+        nodeVisitor.visitDocument(rootNode, composer.tuples(rootNode));
         postBuildProcess();
         return documentObject;
     }
@@ -131,6 +150,12 @@ public class YamlDocumentBuilder<T> implements NodeHandler
         return build(new StringReader(content));
     }
 
+    /**
+     * @return the root node of the document being built. When built from a {@link Reader},
+     *         {@link InputStream} or {@link String} it holds the root tuples other than the top
+     *         level resources only, unless the document had to be composed at once. Resources
+     *         are composed one at a time while they are built and are not kept.
+     */
     public MappingNode getRootNode()
     {
         return rootNode;
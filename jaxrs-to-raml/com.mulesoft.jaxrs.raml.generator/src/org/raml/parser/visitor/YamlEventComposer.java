@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.parser.visitor;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.yaml.snakeyaml.composer.ComposerException;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Composes a RAML document from parse events one root tuple at a time, so that the
+ * nodes of a top level resource only live while that resource is built.
+ * <p>
+ * A first pass composes everything but the resources, which is what the template and
+ * media type resolvers need up front, a second one composes the resources in document order.
+ * Nodes are composed like SnakeYAML's <code>Composer</code> does.
+ */
+class YamlEventComposer
+{
+
+    private static final int RESOURCE = -1;
+
+    private final String content;
+    private final Resolver resolver = new Resolver();
+    private Parser parser;
+    private Map<String, Node> anchors = new HashMap<String, Node>();
+    private final Set<Node> recursiveNodes = new HashSet<Node>();
+    private final Map<String, Node> headerAnchors = new HashMap<String, Node>();
+    private final List<Integer> rootTuples = new ArrayList<Integer>();
+
+    YamlEventComposer(String content)
+    {
+        this.content = content;
+    }
+
+    /**
+     * @return the root mapping without its resources, or <code>null</code> if the document
+     *         has to be composed at once: it is empty, has no mapping at the root, has more
+     *         than one document, merges into the root, refers to anchors inside resources
+     *         from elsewhere or is not valid YAML
+     */
+    MappingNode composeHeader()
+    {
+        try
+        {
+            parser = new ParserImpl(new StreamReader(new StringReader(content)));
+            parser.getEvent();
+            if (parser.checkEvent(Event.ID.StreamEnd))
+            {
+                return null;
+            }
+            parser.getEvent();
+            if (!parser.checkEvent(Event.ID.MappingStart) || ((NodeEvent) parser.peekEvent()).getAnchor() != null)
+            {
+                return null;
+            }
+            MappingStartEvent startEvent = (MappingStartEvent) parser.getEvent();
+            MappingNode root = new MappingNode(resolveTag(NodeId.mapping, startEvent.getTag(), null, startEvent.getImplicit()),
+                                               isResolved(startEvent.getTag()), new ArrayList<NodeTuple>(),
+                                               startEvent.getStartMark(), null, startEvent.getFlowStyle());
+            while (!parser.checkEvent(Event.ID.MappingEnd))
+            {
+                if (isResourceKey(parser.peekEvent()))
+                {
+                    skipNode(false);
+                    skipNode(false);
+                    rootTuples.add(RESOURCE);
+                    continue;
+                }
+                Node keyNode = composeNode(root);
+                if (keyNode.getTag().equals(Tag.MERGE))
+                {
+                    return null;
+                }
+                Node valueNode = composeNode(root);
+                rootTuples.add(root.getValue().size());
+                root.getValue().add(new NodeTuple(keyNode, valueNode));
+            }
+            root.setEndMark(parser.getEvent().getEndMark());
+            parser.getEvent();
+            if (!parser.checkEvent(Event.ID.StreamEnd))
+            {
+                return null;
+            }
+            headerAnchors.putAll(anchors);
+            return root;
+        }
+        catch (YAMLException e)
+        {
+            // reported by the regular composition
+            return null;
+        }
+        finally
+        {
+            parser = null;
+            anchors = new HashMap<String, Node>();
+            recursiveNodes.clear();
+        }
+    }
+
+    /**
+     * @return the root tuples in document order, resources being composed as they are reached
+     *         and the others taken from <code>header</code>
+     */
+    Iterator<NodeTuple> tuples(final MappingNode header)
+    {
+        parser = new ParserImpl(new StreamReader(new StringReader(content)));
+        parser.getEvent();
+        parser.getEvent();
+        parser.getEvent();
+        return new Iterator<NodeTuple>()
+        {
+
+            private int index;
+
+            public boolean hasNext()
+            {
+                return index < rootTuples.size();
+            }
+
+            public NodeTuple next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                int headerIndex = rootTuples.get(index++);
+                if (headerIndex != RESOURCE)
+                {
+                    skipNode(true);
+                    skipNode(true);
+                    return header.getValue().get(headerIndex);
+                }
+                Node keyNode = composeNode(null);
+                return new NodeTuple(keyNode, composeNode(null));
+            }
+
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static boolean isResourceKey(Event event)
+    {
+        return event.is(Event.ID.Scalar) && ((ScalarEvent) event).getAnchor() == null
+               && ((ScalarEvent) event).getValue().startsWith("/");
+    }
+
+    /**
+     * Consumes the events of a node without composing it.
+     *
+     * @param composed whether the node was composed by the first pass, whose anchors then
+     *                 become visible to the following nodes
+     */
+    private void skipNode(boolean composed)
+    {
+        int depth = 0;
+        do
+        {
+            Event event = parser.getEvent();
+            if (composed && event instanceof NodeEvent && !(event instanceof AliasEvent))
+            {
+                String anchor = ((NodeEvent) event).getAnchor();
+                if (anchor != null)
+                {
+                    if (anchors.containsKey(anchor))
+                    {
+                        throw new CompositionException("found duplicate anchor " + anchor + "; first occurence",
+                                                    anchors.get(anchor).getStartMark(), "second occurence", event.getStartMark());
+                    }
+                    anchors.put(anchor, headerAnchors.get(anchor));
+                }
+            }
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart))
+            {
+                depth++;
+            }
+            else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd))
+            {
+                depth--;
+            }
+        }
+        while (depth > 0);
+    }
+
+    private Node composeNode(Node parent)
+    {
+        recursiveNodes.add(parent);
+        if (parser.checkEvent(Event.ID.Alias))
+        {
+            AliasEvent event = (AliasEvent) parser.getEvent();
+            String anchor = event.getAnchor();
+            if (!anchors.containsKey(anchor))
+            {
+                throw new CompositionException(null, null, "found undefined alias " + anchor, event.getStartMark());
+            }
+            Node result = anchors.get(anchor);
+            if (recursiveNodes.remove(result))
+            {
+                result.setTwoStepsConstruction(true);
+            }
+            return result;
+        }
+        NodeEvent event = (NodeEvent) parser.peekEvent();
+        String anchor = event.getAnchor();
+        if (anchor != null && anchors.containsKey(anchor))
+        {
+            throw new CompositionException("found duplicate anchor " + anchor + "; first occurence",
+                                        anchors.get(anchor).getStartMark(), "second occurence", event.getStartMark());
+        }
+        Node node;
+        if (parser.checkEvent(Event.ID.Scalar))
+        {
+            node = composeScalarNode(anchor);
+        }
+        else if (parser.checkEvent(Event.ID.SequenceStart))
+        {
+            node = composeSequenceNode(anchor);
+        }
+        else
+        {
+            node = composeMappingNode(anchor);
+        }
+        recursiveNodes.remove(parent);
+        return node;
+    }
+
+    private Node composeScalarNode(String anchor)
+    {
+        ScalarEvent event = (ScalarEvent) parser.getEvent();
+        Tag tag = resolveTag(NodeId.scalar, event.getTag(), event.getValue(),
+                             event.getImplicit().canOmitTagInPlainScalar());
+        Node node = new ScalarNode(tag, isResolved(event.getTag()), event.getValue(), event.getStartMark(),
+                                   event.getEndMark(), event.getStyle());
+        if (anchor != null)
+        {
+            anchors.put(anchor, node);
+        }
+        return node;
+    }
+
+    private Node composeSequenceNode(String anchor)
+    {
+        SequenceStartEvent startEvent = (SequenceStartEvent) parser.getEvent();
+        List<Node> children = new ArrayList<Node>();
+        SequenceNode node = new SequenceNode(resolveTag(NodeId.sequence, startEvent.getTag(), null, startEvent.getImplicit()),
+                                             isResolved(startEvent.getTag()), children,
+                                             startEvent.getStartMark(), null, startEvent.getFlowStyle());
+        if (anchor != null)
+        {
+            anchors.put(anchor, node);
+        }
+        while (!parser.checkEvent(Event.ID.SequenceEnd))
+        {
+            children.add(composeNode(node));
+        }
+        node.setEndMark(parser.getEvent().getEndMark());
+        return node;
+    }
+
+    private Node composeMappingNode(String anchor)
+    {
+        MappingStartEvent startEvent = (MappingStartEvent) parser.getEvent();
+        List<NodeTuple> children = new ArrayList<NodeTuple>();
+        MappingNode node = new MappingNode(resolveTag(NodeId.mapping, startEvent.getTag(), null, startEvent.getImplicit()),
+                                           isResolved(startEvent.getTag()), children,
+                                           startEvent.getStartMark(), null, startEvent.getFlowStyle());
+        if (anchor != null)
+        {
+            anchors.put(anchor, node);
+        }
+        while (!parser.checkEvent(Event.ID.MappingEnd))
+        {
+            Node keyNode = composeNode(node);
+            if (keyNode.getTag().equals(Tag.MERGE))
+            {
+                node.setMerged(true);
+            }
+            children.add(new NodeTuple(keyNode, composeNode(node)));
+        }
+        node.setEndMark(parser.getEvent().getEndMark());
+        return node;
+    }
+
+    private Tag resolveTag(NodeId kind, String tag, String value, boolean implicit)
+    {
+        return isResolved(tag) ? resolver.resolve(kind, value, implicit) : new Tag(tag);
+    }
+
+    private static boolean isResolved(String tag)
+    {
+        return tag == null || tag.equals("!");
+    }
+
+    private static class CompositionException extends ComposerException
+    {
+
+        CompositionException(String context, Mark contextMark, String problem, Mark problemMark)
+        {
+            super(context, contextMark, problem, problemMark);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.mulesoft.jaxrs.raml.annotation.tests;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import org.raml.model.Action;
@@ -13,6 +16,7 @@ import org.raml.model.parameter.Header;
 import org.raml.model.parameter.UriParameter;
 import org.raml.parser.visitor.RamlDocumentBuilder;
 
+import com.mulesoft.jaxrs.raml.annotation.model.bytecode.BytecodeIndex;
 import com.mulesoft.jaxrs.raml.annotation.model.reflection.RuntimeRamlBuilder;
 
 import junit.framework.TestCase;
@@ -33,6 +37,77 @@ public class BasicTest extends TestCase{
 		TestCase.assertNotNull(resource2.getAction(ActionType.PUT));
 	}
 	
+	public void testBytecodeIndex() throws IOException{
+		BytecodeIndex index = new BytecodeIndex();
+		for (Class<?> c:new Class<?>[]{ItemResource.class, ItemContentResource.class, Item.class}){
+			InputStream in = c.getResourceAsStream(c.getSimpleName() + ".class"); //$NON-NLS-1$
+			try {
+				index.addClass(in);
+			} finally {
+				in.close();
+			}
+		}
+		RuntimeRamlBuilder runtimeRamlBuilder = new RuntimeRamlBuilder();
+		runtimeRamlBuilder.addClasses(index);
+		String raml = runtimeRamlBuilder.toRAML();
+		Raml build = new RamlDocumentBuilder().build(raml);
+		Resource resource = build.getResource("/item");		 //$NON-NLS-1$
+		TestCase.assertNotNull(resource);
+		Resource resource2 = resource.getResource("/a").getResource("/{version}"); //$NON-NLS-1$ //$NON-NLS-2$
+		UriParameter uriParameter = resource2.getUriParameters().get("version"); //$NON-NLS-1$
+		TestCase.assertTrue(uriParameter.isRequired());
+		TestCase.assertNotNull(resource2.getAction(ActionType.PUT));
+	}
+	
+	public void testBytecodeIndexFile() throws IOException{
+		BytecodeIndex index = new BytecodeIndex();
+		for (Class<?> c:new Class<?>[]{ItemResource.class, ItemContentResource.class, Item.class}){
+			InputStream in = c.getResourceAsStream(c.getSimpleName() + ".class"); //$NON-NLS-1$
+			try {
+				index.addClass(in);
+			} finally {
+				in.close();
+			}
+		}
+		File indexFile = File.createTempFile("raml-index", ".gz"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			index.write(indexFile);
+			BytecodeIndex restored = BytecodeIndex.read(indexFile);
+			TestCase.assertTrue(restored.contains(ItemContentResource.class.getName()));
+			
+			RuntimeRamlBuilder indexBuilder = new RuntimeRamlBuilder();
+			indexBuilder.addClass(restored, ItemResource.class.getName());
+			RuntimeRamlBuilder reflectionBuilder = new RuntimeRamlBuilder();
+			reflectionBuilder.addClass(ItemResource.class);
+			TestCase.assertEquals(reflectionBuilder.toRAML(), indexBuilder.toRAML());
+		} finally {
+			indexFile.delete();
+		}
+	}
+	
+	public void testBytecodeIndexSchemas() throws IOException{
+		BytecodeIndex index = new BytecodeIndex();
+		for (Class<?> c:new Class<?>[]{CountryResource.class, Country.class}){
+			InputStream in = c.getResourceAsStream(c.getSimpleName() + ".class"); //$NON-NLS-1$
+			try {
+				index.addClass(in);
+			} finally {
+				in.close();
+			}
+		}
+		RuntimeRamlBuilder runtimeRamlBuilder = new RuntimeRamlBuilder(getClass().getClassLoader());
+		runtimeRamlBuilder.addClasses(index);
+		Raml build = new RamlDocumentBuilder().build(runtimeRamlBuilder.toRAML());
+		TestCase.assertNotNull(build.getResource("/country")); //$NON-NLS-1$
+		TestCase.assertTrue(build.getConsolidatedSchemas().containsKey("country")); //$NON-NLS-1$
+		
+		runtimeRamlBuilder = new RuntimeRamlBuilder();
+		runtimeRamlBuilder.addClasses(index);
+		build = new RamlDocumentBuilder().build(runtimeRamlBuilder.toRAML());
+		TestCase.assertNotNull(build.getResource("/country")); //$NON-NLS-1$
+		TestCase.assertFalse(build.getConsolidatedSchemas().containsKey("country")); //$NON-NLS-1$
+	}
+	
 	public void test1(){
 		RuntimeRamlBuilder runtimeRamlBuilder = new RuntimeRamlBuilder();
 		runtimeRamlBuilder.addClass(TestResource1.class);
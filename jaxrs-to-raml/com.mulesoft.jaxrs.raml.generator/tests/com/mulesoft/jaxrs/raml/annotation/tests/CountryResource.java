@@ -0,0 +1,15 @@
+package com.mulesoft.jaxrs.raml.annotation.tests;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+@Path("/country")
+public class CountryResource {
+
+	@GET
+	@Produces("application/xml")
+	public Country get() {
+		return null;
+	}
+}
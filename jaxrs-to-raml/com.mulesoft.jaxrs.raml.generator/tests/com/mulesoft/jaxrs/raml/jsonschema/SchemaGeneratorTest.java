@@ -0,0 +1,61 @@
+package com.mulesoft.jaxrs.raml.jsonschema;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+public class SchemaGeneratorTest extends TestCase {
+
+	private final SchemaGenerator generator = new SchemaGenerator();
+
+	public void testObject() {
+		String schema = generator.generateSchema("{\"id\":1,\"name\":\"n\",\"tags\":[\"a\",\"b\",1],\"owner\":null,\"address\":{\"zip\":\"1\"}}");
+		assertTrue(schema.startsWith("{\"required\":true,"));
+		assertTrue(schema.contains("\"type\":\"object\",\"properties\":{"
+				+ "\"id\":{\"type\":\"number\",\"required\":false},"
+				+ "\"name\":{\"type\":\"string\",\"required\":false},"
+				+ "\"tags\":{\"type\":\"array\",\"required\":false,\"items\":[{\"type\":\"string\"},{\"type\":\"number\"}]},"
+				+ "\"owner\":{\"type\":\"object\",\"required\":false},"
+				+ "\"address\":{\"type\":\"object\",\"required\":false,\"properties\":{\"zip\":{\"type\":\"string\",\"required\":false}}}}}"));
+	}
+
+	public void testArrayKeepsDistinctItemShapes() {
+		String schema = generator.generateSchema("[{\"a\":1},{\"a\":2},{\"b\":true},[1,2]]");
+		assertTrue(schema.contains("\"type\":\"array\",\"items\":["
+				+ "{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"number\",\"required\":false}}},"
+				+ "{\"type\":\"object\",\"properties\":{\"b\":{\"type\":\"boolean\",\"required\":false}}},"
+				+ "{\"type\":\"array\"}]}"));
+	}
+
+	public void testNotJson() {
+		assertNull(generator.generateSchema("plain text"));
+		assertNull(generator.generateSchema("{\"a\":"));
+	}
+
+	public void testMerge() throws Exception {
+		SchemaSummary first = generator.summarize(new StringReader("{\"a\":null,\"b\":1,\"c\":{\"x\":1},\"l\":[{\"p\":1}]}"));
+		SchemaSummary second = generator.summarize(new StringReader("{\"a\":\"s\",\"b\":\"two\",\"c\":{\"y\":true},\"l\":[{\"p\":2},{\"q\":1}]}"));
+		String schema = generator.generateSchema(first.merge(second));
+		assertTrue(schema.contains("\"properties\":{"
+				+ "\"a\":{\"type\":\"string\",\"required\":false},"
+				+ "\"b\":{\"type\":[\"number\",\"string\"],\"required\":false},"
+				+ "\"c\":{\"type\":\"object\",\"required\":false,\"properties\":{\"x\":{\"type\":\"number\",\"required\":false},\"y\":{\"type\":\"boolean\",\"required\":false}}},"
+				+ "\"l\":{\"type\":\"array\",\"required\":false,\"items\":[{\"type\":\"object\",\"properties\":{\"p\":{\"type\":\"number\",\"required\":false}}},{\"type\":\"object\",\"properties\":{\"q\":{\"type\":\"number\",\"required\":false}}}]}}"));
+	}
+
+	public void testJettisonFallbackMatchesStreaming() throws Exception {
+		String[] examples = { "{\"id\":1,\"name\":\"n\",\"tags\":[\"a\",\"b\",1],\"owner\":null,\"address\":{\"zip\":\"1\"}}",
+				"[{\"a\":1},{\"a\":2},{\"b\":true},[1,2]]", " {\"l\":[[1],[\"x\"]],\"f\":1.5} " };
+		for (String example : examples) {
+			assertEquals(generator.generateSchema(generator.summarize(new StringReader(example))),
+					generator.generateSchema(generator.summarizeTree(new StringReader(example))));
+		}
+		assertNull(generator.summarizeTree(new StringReader("plain text")));
+		try {
+			generator.summarizeTree(new StringReader("{\"a\":"));
+			fail();
+		} catch (IOException e) {
+		}
+	}
+}
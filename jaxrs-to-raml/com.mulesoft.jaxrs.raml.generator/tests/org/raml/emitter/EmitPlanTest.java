@@ -0,0 +1,83 @@
+package org.raml.emitter;
+
+import java.lang.reflect.Field;
+
+import org.raml.model.MimeType;
+import org.raml.model.Raml;
+import org.raml.model.Raml2;
+import org.raml.model.Resource;
+import org.raml.model.parameter.UriParameter;
+
+import junit.framework.TestCase;
+
+public class EmitPlanTest extends TestCase {
+
+	public void testPlansAreShared() {
+		assertSame(EmitPlan.of(Raml.class), EmitPlan.of(Raml.class));
+		assertSame(plan(Raml.class, "schemas").dumper, plan(Raml2.class, "schemas").dumper); //$NON-NLS-1$ //$NON-NLS-2$
+
+		EmitPlan.FieldPlan title = plan(Raml.class, "title"); //$NON-NLS-1$
+		assertSame(title, EmitPlan.of(title.field));
+	}
+
+	public void testFieldKinds() throws Exception {
+		EmitPlan.FieldPlan title = plan(Raml.class, "title"); //$NON-NLS-1$
+		assertEquals(EmitPlan.Kind.SCALAR, title.kind);
+		assertEquals("title", title.alias); //$NON-NLS-1$
+
+		EmitPlan.FieldPlan schemas = plan(Raml.class, "schemas"); //$NON-NLS-1$
+		assertEquals(EmitPlan.Kind.DUMPER, schemas.kind);
+		assertTrue(schemas.dumper instanceof SchemasEmitter);
+		assertTrue(schemas.verbatim);
+
+		EmitPlan.FieldPlan resources = plan(Raml.class, "resources"); //$NON-NLS-1$
+		assertEquals(EmitPlan.Kind.MAPPING, resources.kind);
+		assertTrue(resources.implicit);
+		assertEquals(Resource.class, resources.elementType);
+
+		EmitPlan.FieldPlan uriParameters = plan(Resource.class, "uriParameters"); //$NON-NLS-1$
+		assertFalse(uriParameters.implicit);
+		assertTrue(uriParameters.filter instanceof UrlParameterFilter);
+		assertEquals(UriParameter.class, uriParameters.elementType);
+
+		EmitPlan.FieldPlan is = plan(Resource.class, "is"); //$NON-NLS-1$
+		assertEquals(EmitPlan.Kind.DUMPER, is.kind);
+		assertTrue(is.traitReferences);
+		assertTrue(is.templateReference);
+
+		EmitPlan.FieldPlan schema = plan(MimeType.class, "schema"); //$NON-NLS-1$
+		assertEquals("schemaOrigin", schema.includeField.getName()); //$NON-NLS-1$
+
+		Field schemaIndex = Raml.class.getDeclaredField("schemaIndex"); //$NON-NLS-1$
+		assertNull(EmitPlan.of(schemaIndex).kind);
+		for (EmitPlan.FieldPlan field : EmitPlan.of(Raml.class).getFields()) {
+			assertNotNull(field.kind);
+		}
+	}
+
+	public void testOverriddenMappingField() {
+		Raml raml = new Raml();
+		raml.setTitle("items"); //$NON-NLS-1$
+		Resource resource = new Resource();
+		resource.setRelativeUri("/items"); //$NON-NLS-1$
+		raml.getResources().put("/items", resource); //$NON-NLS-1$
+
+		assertFalse(new RamlEmitterV2().dump(raml).contains("resources:")); //$NON-NLS-1$
+		RamlEmitterV2 explicit = new RamlEmitterV2() {
+			protected void dumpMappingField(StringBuilder dump, int depth, Field field, boolean implicit,
+					Object pojo, boolean inlineLists) {
+				super.dumpMappingField(dump, depth, field, false, pojo, inlineLists);
+			}
+		};
+		assertTrue(explicit.dump(raml).contains("resources: \n")); //$NON-NLS-1$
+	}
+
+	private static EmitPlan.FieldPlan plan(Class<?> type, String name) {
+		for (EmitPlan.FieldPlan field : EmitPlan.of(type).getFields()) {
+			if (field.field.getName().equals(name)) {
+				return field;
+			}
+		}
+		throw new AssertionError(name);
+	}
+}
@@ -0,0 +1,132 @@
+package org.raml.emitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.raml.model.Raml2;
+import org.raml.parser.visitor.PreservingTemplatesBuilder;
+
+import com.mulesoft.jaxrs.raml.annotation.model.FileUtil;
+
+import junit.framework.TestCase;
+
+public class RamlHierarchyTargetTest extends TestCase {
+
+	private static final String RAML = "#%RAML 0.8\n" //$NON-NLS-1$
+			+ "title: items\n" //$NON-NLS-1$
+			+ "documentation:\n" //$NON-NLS-1$
+			+ "  - title: Intro\n" //$NON-NLS-1$
+			+ "    content: Items and their lists\n" //$NON-NLS-1$
+			+ "traits:\n" //$NON-NLS-1$
+			+ "  - paged:\n" //$NON-NLS-1$
+			+ "      queryParameters:\n" //$NON-NLS-1$
+			+ "        page:\n" //$NON-NLS-1$
+			+ "          type: integer\n" //$NON-NLS-1$
+			+ "  - secured:\n" //$NON-NLS-1$
+			+ "      headers:\n" //$NON-NLS-1$
+			+ "        token:\n" //$NON-NLS-1$
+			+ "          description: access token\n" //$NON-NLS-1$
+			+ "resourceTypes:\n" //$NON-NLS-1$
+			+ "  - collection:\n" //$NON-NLS-1$
+			+ "      get:\n" //$NON-NLS-1$
+			+ "        is: [ paged ]\n" //$NON-NLS-1$
+			+ "/items:\n" //$NON-NLS-1$
+			+ "  type: collection\n" //$NON-NLS-1$
+			+ "  get:\n" //$NON-NLS-1$
+			+ "    is: [ secured ]\n"; //$NON-NLS-1$
+
+	private static final String SCHEMA = "{ \"type\": \"object\" }"; //$NON-NLS-1$
+
+	public void testConcurrentIncludesMatchSequentialOutput() {
+		InMemoryRamlHierarchyTarget sequential = new InMemoryRamlHierarchyTarget();
+		new RamlEmitterV2().dump(sequential, build());
+		Map<String, String> files = sequential.getFiles();
+		assertTrue(files.containsKey("traits/paged.raml")); //$NON-NLS-1$
+		assertTrue(files.containsKey("traits/secured.raml")); //$NON-NLS-1$
+		assertTrue(files.containsKey("resourceTypes/collection.raml")); //$NON-NLS-1$
+		assertTrue(files.containsKey("docs/intro.md")); //$NON-NLS-1$
+		assertEquals(SCHEMA, files.get("/schemas/item-schema.json")); //$NON-NLS-1$
+		assertTrue(sequential.getRoot().contains("!include traits/paged.raml")); //$NON-NLS-1$
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int a = 0; a < 10; a++) {
+				InMemoryRamlHierarchyTarget concurrent = new InMemoryRamlHierarchyTarget();
+				RamlEmitterV2 emitter = new RamlEmitterV2();
+				emitter.setExecutor(executor);
+				emitter.dump(concurrent, build());
+				assertEquals(sequential.getRoot(), concurrent.getRoot());
+				assertEquals(files, concurrent.getFiles());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	public void testDirectoryAndZipTargets() throws IOException {
+		InMemoryRamlHierarchyTarget expected = new InMemoryRamlHierarchyTarget();
+		new RamlEmitterV2().dump(expected, build());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			File directory = File.createTempFile("raml", ""); //$NON-NLS-1$ //$NON-NLS-2$
+			directory.delete();
+			RamlEmitterV2 emitter = new RamlEmitterV2();
+			emitter.setExecutor(executor);
+			emitter.dump(new DirectoryRamlHierarchyTarget(directory, "api.raml"), build()); //$NON-NLS-1$
+			assertEquals(expected.getRoot(), FileUtil.fileToString(new File(directory, "api.raml"))); //$NON-NLS-1$
+			for (Map.Entry<String, String> file : expected.getFiles().entrySet()) {
+				assertEquals(file.getValue(), FileUtil.fileToString(new File(directory, file.getKey())));
+			}
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ZipRamlHierarchyTarget zip = new ZipRamlHierarchyTarget(out, "api.raml"); //$NON-NLS-1$
+			emitter = new RamlEmitterV2();
+			emitter.setExecutor(executor);
+			emitter.dump(zip, build());
+			zip.close();
+			Map<String, String> entries = readZip(out.toByteArray());
+			assertEquals(expected.getRoot(), entries.remove("api.raml")); //$NON-NLS-1$
+			Map<String, String> files = new TreeMap<String, String>();
+			for (Map.Entry<String, String> file : expected.getFiles().entrySet()) {
+				files.put(file.getKey().startsWith("/") ? file.getKey().substring(1) : file.getKey(), file.getValue()); //$NON-NLS-1$
+			}
+			assertEquals(files, entries);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static Raml2 build() {
+		Raml2 raml = new PreservingTemplatesBuilder().build(new StringReader(RAML));
+		raml.addGlobalSchema("item", SCHEMA, true); //$NON-NLS-1$
+		return raml;
+	}
+
+	private static Map<String, String> readZip(byte[] bytes) throws IOException {
+		Map<String, String> entries = new TreeMap<String, String>();
+		ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(bytes));
+		try {
+			for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+					content.write(buffer, 0, read);
+				}
+				entries.put(entry.getName(), content.toString("UTF-8")); //$NON-NLS-1$
+			}
+		} finally {
+			in.close();
+		}
+		return entries;
+	}
+}
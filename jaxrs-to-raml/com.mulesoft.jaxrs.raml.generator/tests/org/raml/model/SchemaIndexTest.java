@@ -0,0 +1,97 @@
+package org.raml.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class SchemaIndexTest extends TestCase {
+
+	public void testDuplicateNames() {
+		List<Map<String, String>> declarations = new ArrayList<Map<String, String>>();
+		declarations.add(declaration("a", "first"));
+		declarations.add(declaration("b", "b"));
+		declarations.add(declaration("a", "last"));
+		SchemaIndex index = new SchemaIndex(declarations);
+
+		assertEquals("first", index.get("a"));
+		assertEquals("last", index.asMap().get("a"));
+		assertEquals(Arrays.asList("a", "b"), new ArrayList<String>(index.asMap().keySet()));
+		assertEquals("last", new ArrayList<String>(index.asMap().values()).get(0));
+	}
+
+	public void testConsolidatedSchemasKeepTheLastDeclaration() {
+		Raml raml = new Raml();
+		List<Map<String, String>> declarations = new ArrayList<Map<String, String>>();
+		declarations.add(declaration("a", "first"));
+		declarations.add(declaration("a", "last"));
+		raml.setSchemas(declarations);
+
+		Map<String, String> consolidated = new HashMap<String, String>();
+		for (Map<String, String> declaration : raml.getSchemas()) {
+			consolidated.putAll(declaration);
+		}
+		assertEquals(consolidated, raml.getConsolidatedSchemas());
+	}
+
+	public void testAddAndPut() {
+		List<Map<String, String>> declarations = new ArrayList<Map<String, String>>();
+		SchemaIndex index = new SchemaIndex(declarations);
+
+		assertTrue(index.add("a", "1"));
+		assertFalse(index.add("a", "2"));
+		assertEquals("1", index.get("a"));
+		index.put("a", "3");
+		index.put("b", "4");
+		assertEquals(2, declarations.size());
+		assertEquals("3", declarations.get(0).get("a"));
+		assertEquals("4", index.asMap().get("b"));
+		assertTrue(index.contains("b"));
+		assertTrue(index.isCurrent(declarations));
+	}
+
+	public void testIsCurrent() {
+		List<Map<String, String>> declarations = new ArrayList<Map<String, String>>();
+		declarations.add(declaration("a", "1"));
+		SchemaIndex index = new SchemaIndex(declarations);
+		assertTrue(index.isCurrent(declarations));
+		assertFalse(index.isCurrent(new ArrayList<Map<String, String>>(declarations)));
+
+		declarations.add(declaration("b", "2"));
+		assertFalse(index.isCurrent(declarations));
+
+		Map<String, String> filledLater = new HashMap<String, String>();
+		declarations.add(filledLater);
+		index = new SchemaIndex(declarations);
+		assertFalse(index.isCurrent(declarations));
+	}
+
+	public void testRamlRebuildsStaleIndex() {
+		Raml2 raml = new Raml2();
+		raml.addGlobalSchema("a", "1", true);
+		assertEquals("1", raml.getSchemaContent("a"));
+
+		raml.schemas.add(declaration("b", "2"));
+		assertEquals("2", raml.getSchemaContent("b"));
+		assertEquals(2, raml.getConsolidatedSchemas().size());
+	}
+
+	public void testViewIsReadOnly() {
+		SchemaIndex index = new SchemaIndex(new ArrayList<Map<String, String>>());
+		index.add("a", "1");
+		try {
+			index.asMap().put("b", "2");
+			fail();
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	private static Map<String, String> declaration(String name, String content) {
+		Map<String, String> declaration = new HashMap<String, String>();
+		declaration.put(name, content);
+		return declaration;
+	}
+}
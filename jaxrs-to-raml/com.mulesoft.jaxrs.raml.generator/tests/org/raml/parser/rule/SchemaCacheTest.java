@@ -0,0 +1,87 @@
+package org.raml.parser.rule;
+
+import java.util.List;
+
+import org.raml.parser.rule.SchemaCache.CompiledSchema;
+import org.raml.parser.visitor.RamlValidationService;
+
+import junit.framework.TestCase;
+
+public class SchemaCacheTest extends TestCase {
+
+	private static final String XSD = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"><xs:element name=\"item\"/></xs:schema>"; //$NON-NLS-1$
+
+	private static final String JSON = "{ \"type\": \"object\" }"; //$NON-NLS-1$
+
+	private static final String INVALID_JSON = "{ \"type\": }"; //$NON-NLS-1$
+
+	public void testRepeatedSchemaIsCompiledOnce() {
+		CountingSchemaCache cache = new CountingSchemaCache();
+
+		CompiledSchema xml = cache.getXmlSchema("!global item", XSD); //$NON-NLS-1$
+		assertTrue(xml.isValid());
+		assertSame(xml, cache.getXmlSchema("!global item", new String(XSD))); //$NON-NLS-1$
+		CompiledSchema json = cache.getJsonSchema(JSON, JSON);
+		assertSame(json, cache.getJsonSchema(JSON, JSON));
+		assertEquals(2, cache.compiled);
+	}
+
+	public void testChangedSchemaIsRecompiled() {
+		CountingSchemaCache cache = new CountingSchemaCache();
+
+		assertTrue(cache.getJsonSchema("!global item", JSON).isValid()); //$NON-NLS-1$
+		CompiledSchema changed = cache.getJsonSchema("!global item", INVALID_JSON); //$NON-NLS-1$
+		assertFalse(changed.isValid());
+		assertEquals(1, changed.getErrorLine());
+		assertSame(changed, cache.getJsonSchema("!global item", INVALID_JSON)); //$NON-NLS-1$
+		assertEquals(2, cache.compiled);
+	}
+
+	public void testFailuresAreReportedAtEveryReference() {
+		String raml = "#%RAML 0.8\n" //$NON-NLS-1$
+				+ "title: items\n" //$NON-NLS-1$
+				+ "schemas:\n" //$NON-NLS-1$
+				+ "  - item: '" + INVALID_JSON + "'\n" //$NON-NLS-1$ //$NON-NLS-2$
+				+ "/items:\n" //$NON-NLS-1$
+				+ "  get:\n" //$NON-NLS-1$
+				+ "    responses:\n" //$NON-NLS-1$
+				+ "      200:\n" //$NON-NLS-1$
+				+ "        body:\n" //$NON-NLS-1$
+				+ "          application/json:\n" //$NON-NLS-1$
+				+ "            schema: item\n" //$NON-NLS-1$
+				+ "  post:\n" //$NON-NLS-1$
+				+ "    body:\n" //$NON-NLS-1$
+				+ "      application/json:\n" //$NON-NLS-1$
+				+ "        schema: item\n"; //$NON-NLS-1$
+
+		assertEquals(2, schemaErrors(raml));
+		// each validation run has its own cache
+		assertEquals(0, schemaErrors(raml.replace(INVALID_JSON, JSON)));
+	}
+
+	private static int schemaErrors(String raml) {
+		List<ValidationResult> results = RamlValidationService.createDefault().validate(raml);
+		int errors = 0;
+		for (ValidationResult result : ValidationResult.getLevel(ValidationResult.Level.ERROR, results)) {
+			if (result.getMessage().startsWith("invalid JSON schema")) { //$NON-NLS-1$
+				errors++;
+			}
+		}
+		return errors;
+	}
+
+	private static class CountingSchemaCache extends SchemaCache {
+
+		int compiled;
+
+		protected CompiledSchema compileXml(String content) {
+			compiled++;
+			return super.compileXml(content);
+		}
+
+		protected CompiledSchema compileJson(String content) {
+			compiled++;
+			return super.compileJson(content);
+		}
+	}
+}
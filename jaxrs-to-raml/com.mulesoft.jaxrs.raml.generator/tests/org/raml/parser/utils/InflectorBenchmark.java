@@ -0,0 +1,68 @@
+package org.raml.parser.utils;
+
+/**
+ * Microbenchmark of the inflections applied by <code>!singularize</code> and
+ * <code>!pluralize</code> in resource type and trait parameters. Run its main method,
+ * optionally with the number of rounds.
+ */
+public class InflectorBenchmark {
+
+	// resource path names of a few public REST APIs
+	private static final String[] WORDS = {
+		"users", "accounts", "orders", "items", "products", "categories", "invoices", "payments",
+		"customers", "addresses", "companies", "employees", "people", "children", "statuses",
+		"messages", "comments", "replies", "issues", "repositories", "branches", "commits", "tags",
+		"releases", "milestones", "labels", "teams", "members", "organizations", "subscriptions",
+		"policies", "queries", "searches", "boxes", "matrices", "indices", "analyses", "leaves",
+		"wives", "knives", "mice", "oxen", "quizzes", "buses", "aliases", "movies", "series",
+		"species", "news", "data", "media", "files", "photos", "videos", "tomatoes", "databases",
+		"sessions", "tokens", "keys", "certificates", "devices", "notifications", "events", "hooks",
+		"jobs", "builds", "artifacts", "histories", "activities", "entries", "settings", "profiles"
+	};
+
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		for (int warmup = 0; warmup < 3; warmup++) {
+			memoized(rounds / 10);
+			uncached(rounds / 100);
+		}
+		report("memoized", rounds, memoized(rounds));
+		report("uncached", rounds / 10, uncached(rounds / 10));
+	}
+
+	private static long memoized(int rounds) {
+		long sink = 0;
+		long start = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+			for (String word : WORDS) {
+				sink += Inflector.pluralize(Inflector.singularize(word)).length();
+			}
+		}
+		return elapsed(start, sink);
+	}
+
+	// distinct words, so that every call misses the cache and goes through the rules
+	private static long uncached(int rounds) {
+		long sink = 0;
+		long start = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+			for (String word : WORDS) {
+				sink += Inflector.pluralize(Inflector.singularize(round + word)).length();
+			}
+		}
+		return elapsed(start, sink);
+	}
+
+	private static long elapsed(long start, long sink) {
+		long elapsed = System.nanoTime() - start;
+		if (sink == 42) {
+			System.out.println();
+		}
+		return elapsed;
+	}
+
+	private static void report(String name, int rounds, long elapsed) {
+		long calls = 2L * rounds * WORDS.length;
+		System.out.println(String.format("%-10s %,12d calls %10.1f ns/call", name, calls, (double) elapsed / calls));
+	}
+}
@@ -0,0 +1,57 @@
+package org.raml.parser.utils;
+
+import junit.framework.TestCase;
+
+public class InflectorTest extends TestCase {
+
+	// word, plural, singular
+	private static final String[][] WORDS = {
+		{"user", "users", "user"},
+		{"users", "users", "user"},
+		{"person", "people", "person"},
+		{"people", "peoples", "person"},
+		{"status", "statuses", "statu"},
+		{"statuses", "statuses", "status"},
+		{"analysis", "analyses", "analysi"},
+		{"analyses", "analyses", "analysis"},
+		{"wife", "wives", "wife"},
+		{"wolves", "wolves", "wolf"},
+		{"category", "categories", "category"},
+		{"categories", "categories", "category"},
+		{"key", "keys", "key"},
+		{"box", "boxes", "box"},
+		{"churches", "churches", "church"},
+		{"matrix", "matrices", "matrix"},
+		{"vertices", "vertices", "vertex"},
+		{"mouse", "mice", "mouse"},
+		{"ox", "oxen", "ox"},
+		{"oxen", "oxens", "ox"},
+		{"quiz", "quizzes", "quiz"},
+		{"tomato", "tomatoes", "tomato"},
+		{"octopus", "octopi", "octopu"},
+		{"datum", "data", "datum"},
+		{"data", "datas", "datum"},
+		{"news", "news", "news"},
+		{"movies", "movies", "movie"},
+		{"databases", "databases", "database"},
+		{"series", "series", "series"},
+		{"sheep", "sheep", "sheep"},
+		{"Categories", "Categories", "Category"},
+		{"ORDERS", "ORDERs", "ORDER"},
+		{"", "s", ""},
+	};
+
+	public void testInflections() {
+		for (int i = 0; i < 2; i++) { // second round is answered from the caches
+			for (String[] word : WORDS) {
+				assertEquals(word[0], word[1], Inflector.pluralize(word[0]));
+				assertEquals(word[0], word[2], Inflector.singularize(word[0]));
+			}
+		}
+	}
+
+	public void testLineTerminatorBeforeEnd() {
+		assertEquals("boxes\n", Inflector.pluralize("box\n"));
+		assertEquals("box\n", Inflector.singularize("boxes\n"));
+	}
+}
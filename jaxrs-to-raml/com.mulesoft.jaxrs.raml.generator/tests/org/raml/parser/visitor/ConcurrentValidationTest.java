@@ -0,0 +1,112 @@
+package org.raml.parser.visitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.rule.ValidationResult;
+
+import junit.framework.TestCase;
+
+public class ConcurrentValidationTest extends TestCase {
+
+	private static final String RAML = "#%RAML 0.8\n" //$NON-NLS-1$
+			+ "title: items\n" //$NON-NLS-1$
+			+ "traits:\n" //$NON-NLS-1$
+			+ "  - paged: !include paged.raml\n" //$NON-NLS-1$
+			+ "resourceTypes:\n" //$NON-NLS-1$
+			+ "  - collection:\n" //$NON-NLS-1$
+			+ "      description: a collection\n" //$NON-NLS-1$
+			+ "/items:\n" //$NON-NLS-1$
+			+ "  type: collection\n" //$NON-NLS-1$
+			+ "  get: !include get.raml\n" //$NON-NLS-1$
+			+ "  post: !include missing.raml\n" //$NON-NLS-1$
+			+ "  /{id}:\n" //$NON-NLS-1$
+			+ "    get: !include get.raml\n" //$NON-NLS-1$
+			+ "/orders:\n" //$NON-NLS-1$
+			+ "  is: [ paged ]\n" //$NON-NLS-1$
+			+ "  get: !include get.raml\n" //$NON-NLS-1$
+			+ "  put: !include missing.raml\n"; //$NON-NLS-1$
+
+	private static final Map<String, String> INCLUDES = new HashMap<String, String>();
+
+	static {
+		INCLUDES.put("paged.raml", "queryParameters:\n  page:\n    type: integer\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		INCLUDES.put("get.raml", "description: list\n" //$NON-NLS-1$ //$NON-NLS-2$
+				+ "responses:\n" //$NON-NLS-1$
+				+ "  200:\n" //$NON-NLS-1$
+				+ "    body:\n" //$NON-NLS-1$
+				+ "      application/json:\n" //$NON-NLS-1$
+				+ "        schema: '{ \"type\": }'\n"); //$NON-NLS-1$
+	}
+
+	public void testSameResultsWithAndWithoutExecutor() {
+		List<String> sequential = describe(RamlValidationService.createDefault(new MapResourceLoader()).validate(RAML));
+
+		// the test is only meaningful if errors come from includes resolved during the merge
+		boolean includeContext = false;
+		boolean missingInclude = false;
+		for (String result : sequential) {
+			includeContext |= result.contains("get.raml"); //$NON-NLS-1$
+			missingInclude |= result.contains("missing.raml"); //$NON-NLS-1$
+		}
+		assertTrue(sequential.toString(), includeContext);
+		assertTrue(sequential.toString(), missingInclude);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int a = 0; a < 10; a++) {
+				RamlValidationService service = RamlValidationService.createDefault(new MapResourceLoader());
+				service.setExecutor(executor);
+				assertEquals(sequential, describe(service.validate(RAML)));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static List<String> describe(List<ValidationResult> results) {
+		List<String> descriptions = new ArrayList<String>();
+		for (ValidationResult result : results) {
+			StringBuilder description = new StringBuilder();
+			description.append(result.getLevel()).append(' ').append(result.getLine()).append(' ')
+					.append(result.getMessage());
+			for (IncludeInfo include : result.getIncludeContext()) {
+				description.append(" < ").append(include.getIncludeName()).append(':').append(include.getLine());
+			}
+			descriptions.add(description.toString());
+		}
+		return descriptions;
+	}
+
+	/**
+	 * Not thread safe, like the loaders of some embedders.
+	 */
+	private static class MapResourceLoader implements ResourceLoader {
+
+		private boolean fetching;
+
+		public InputStream fetchResource(String resourceName) {
+			if (fetching) {
+				throw new IllegalStateException("concurrent fetch of " + resourceName); //$NON-NLS-1$
+			}
+			fetching = true;
+			try {
+				Thread.yield();
+				String content = INCLUDES.get(resourceName);
+				return content != null ? new ByteArrayInputStream(content.getBytes("UTF-8")) : null; //$NON-NLS-1$
+			} catch (UnsupportedEncodingException e) {
+				throw new IllegalStateException(e);
+			} finally {
+				fetching = false;
+			}
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package org.raml.parser.visitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.rule.ValidationResult;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+import junit.framework.TestCase;
+
+public class IncrementalRamlValidatorTest extends TestCase {
+
+	private static final String HEADER = "#%RAML 0.8\n" //$NON-NLS-1$
+			+ "title: items\n" //$NON-NLS-1$
+			+ "traits:\n" //$NON-NLS-1$
+			+ "  - paged:\n" //$NON-NLS-1$
+			+ "      queryParameters:\n" //$NON-NLS-1$
+			+ "        page:\n" //$NON-NLS-1$
+			+ "          type: integer\n" //$NON-NLS-1$
+			+ "resourceTypes:\n" //$NON-NLS-1$
+			+ "  - base:\n" //$NON-NLS-1$
+			+ "      get:\n" //$NON-NLS-1$
+			+ "        is: [ paged ]\n" //$NON-NLS-1$
+			+ "  - collection:\n" //$NON-NLS-1$
+			+ "      type: base\n" //$NON-NLS-1$
+			+ "      post:\n"; //$NON-NLS-1$
+
+	private static final String ITEMS = "/items:\n" //$NON-NLS-1$
+			+ "  type: collection\n" //$NON-NLS-1$
+			+ "  get:\n" //$NON-NLS-1$
+			+ "    responses:\n" //$NON-NLS-1$
+			+ "      200:\n" //$NON-NLS-1$
+			+ "        body:\n" //$NON-NLS-1$
+			+ "          application/json:\n" //$NON-NLS-1$
+			+ "            schema: '{ \"type\": }'\n"; //$NON-NLS-1$
+
+	private static final String ORDERS = "/orders:\n" //$NON-NLS-1$
+			+ "  is: [ paged ]\n" //$NON-NLS-1$
+			+ "  get:\n" //$NON-NLS-1$
+			+ "    description: orders\n" //$NON-NLS-1$
+			+ "    responses:\n" //$NON-NLS-1$
+			+ "      200:\n" //$NON-NLS-1$
+			+ "        body:\n" //$NON-NLS-1$
+			+ "          application/json:\n" //$NON-NLS-1$
+			+ "            schema: '{ \"type\": }'\n"; //$NON-NLS-1$
+
+	private static final String USERS = "/users:\n" //$NON-NLS-1$
+			+ "  get:\n" //$NON-NLS-1$
+			+ "    description: !include users.md\n"; //$NON-NLS-1$
+
+	private static final String RAML = HEADER + ITEMS + ORDERS + USERS;
+
+	private MapResourceLoader loader = new MapResourceLoader();
+
+	private RecordingValidator validator = new RecordingValidator(loader);
+
+	protected void setUp() throws Exception {
+		loader.files.put("users.md", "users"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(fullValidation(RAML), sorted(validator.validate(RAML)));
+		assertEquals(Arrays.asList(resources(), resources("/items"), resources("/orders"), resources("/users")), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				validator.validated);
+		validator.validated.clear();
+	}
+
+	public void testEditedResourceIsValidatedAlone() {
+		String edited = RAML.replace("description: orders", "description: all orders"); //$NON-NLS-1$ //$NON-NLS-2$
+		List<String> results = sorted(validator.validate(edited));
+
+		assertEquals(Arrays.asList(resources("/orders")), validator.validated); //$NON-NLS-1$
+		assertEquals(fullValidation(edited), results);
+		assertFalse(results.isEmpty());
+	}
+
+	public void testChangedTemplateInvalidatesItsUsers() {
+		String edited = RAML.replace("type: integer", "type: string"); //$NON-NLS-1$ //$NON-NLS-2$
+		List<String> results = sorted(validator.validate(edited));
+
+		// /orders uses the trait, /items through two resource types
+		assertEquals(Arrays.asList(resources(), resources("/items"), resources("/orders")), validator.validated); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(fullValidation(edited), results);
+	}
+
+	public void testChangedIncludeInvalidatesItsResource() {
+		loader.files.put("users.md", "all users"); //$NON-NLS-1$ //$NON-NLS-2$
+		List<String> results = sorted(validator.validate(RAML));
+
+		assertEquals(Arrays.asList(resources("/users")), validator.validated); //$NON-NLS-1$
+		assertEquals(fullValidation(RAML), results);
+	}
+
+	public void testMovedResourceKeepsItsResultsAtTheNewLines() {
+		String moved = HEADER + "/new:\n  description: new\n" + ITEMS + ORDERS + USERS; //$NON-NLS-1$
+		List<String> before = sorted(validator.validate(RAML));
+		validator.validated.clear();
+		List<String> results = sorted(validator.validate(moved));
+
+		assertEquals(Arrays.asList(resources("/new")), validator.validated); //$NON-NLS-1$
+		assertEquals(fullValidation(moved), results);
+		assertFalse(before.equals(results));
+	}
+
+	public void testDuplicateResourcesAreValidatedFully() {
+		String duplicate = RAML + ORDERS;
+		List<String> results = sorted(validator.validate(duplicate));
+
+		assertEquals(Arrays.asList(resources("/items", "/orders", "/users", "/orders")), validator.validated); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(fullValidation(duplicate), results);
+	}
+
+	public void testSharedAliasesAreValidatedFully() {
+		String aliased = HEADER + ITEMS.replace("  get:\n", "  get: &get\n") + "/orders:\n  get: *get\n" + USERS; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		List<String> results = sorted(validator.validate(aliased));
+
+		assertEquals(Arrays.asList(resources("/items", "/orders", "/users")), validator.validated); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(fullValidation(aliased), results);
+
+		// nothing is kept from a full validation
+		validator.validated.clear();
+		validator.validate(RAML);
+		assertEquals(4, validator.validated.size());
+	}
+
+	private List<String> fullValidation(String raml) {
+		return sorted(new RamlValidationService(loader, new RamlDocumentValidator()).validate(raml));
+	}
+
+	private static List<String> sorted(List<ValidationResult> results) {
+		List<String> descriptions = new ArrayList<String>();
+		for (ValidationResult result : results) {
+			descriptions.add(result.getLevel() + " " + result.getLine() + " " + result.getIncludeName() + " " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ result.getMessage());
+		}
+		Collections.sort(descriptions);
+		return descriptions;
+	}
+
+	private static List<String> resources(String... uris) {
+		return Arrays.asList(uris);
+	}
+
+	/**
+	 * Records the top level resources of every document validated.
+	 */
+	private static class RecordingValidator extends IncrementalRamlValidator {
+
+		final List<List<String>> validated = new ArrayList<List<String>>();
+
+		RecordingValidator(ResourceLoader resourceLoader) {
+			super(resourceLoader);
+		}
+
+		protected List<ValidationResult> runValidation(MappingNode document) {
+			List<String> resources = new ArrayList<String>();
+			for (NodeTuple tuple : document.getValue()) {
+				String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+				if (key.startsWith("/")) { //$NON-NLS-1$
+					resources.add(key);
+				}
+			}
+			validated.add(resources);
+			return super.runValidation(document);
+		}
+	}
+
+	private static class MapResourceLoader implements ResourceLoader {
+
+		final Map<String, String> files = new HashMap<String, String>();
+
+		public InputStream fetchResource(String resourceName) {
+			String content = files.get(resourceName);
+			try {
+				return content != null ? new ByteArrayInputStream(content.getBytes("UTF-8")) : null; //$NON-NLS-1$
+			} catch (UnsupportedEncodingException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
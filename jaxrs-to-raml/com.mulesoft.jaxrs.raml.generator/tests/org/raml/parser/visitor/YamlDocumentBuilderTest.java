@@ -0,0 +1,129 @@
+package org.raml.parser.visitor;
+
+import java.io.File;
+import java.io.StringReader;
+
+import org.raml.emitter.RamlEmitter;
+import org.raml.model.Raml;
+import org.raml.parser.loader.FileResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+import com.mulesoft.jaxrs.raml.annotation.model.FileUtil;
+
+import junit.framework.TestCase;
+
+public class YamlDocumentBuilderTest extends TestCase {
+
+	private static final String[] SAMPLE_SPECS = { "../functional-tests/api.raml", //$NON-NLS-1$
+			"../examples/swagger-example/api.raml", //$NON-NLS-1$
+			"../examples/swagger-example/api2.raml", //$NON-NLS-1$
+			"../examples/swagger-example/ap33i.raml" }; //$NON-NLS-1$
+
+	private static final String RAML = "#%RAML 0.8\n" //$NON-NLS-1$
+			+ "title: items\n" //$NON-NLS-1$
+			+ "traits:\n" //$NON-NLS-1$
+			+ "  - paged:\n" //$NON-NLS-1$
+			+ "      queryParameters:\n" //$NON-NLS-1$
+			+ "        page:\n" //$NON-NLS-1$
+			+ "          type: integer\n" //$NON-NLS-1$
+			+ "/items:\n" //$NON-NLS-1$
+			+ "  description: &items all items\n" //$NON-NLS-1$
+			+ "  get:\n" //$NON-NLS-1$
+			+ "    is: [ paged ]\n" //$NON-NLS-1$
+			+ "/orders:\n" //$NON-NLS-1$
+			+ "  description: *items\n"; //$NON-NLS-1$
+
+	public void testSampleSpecs() {
+		for (String spec : SAMPLE_SPECS) {
+			File file = new File(spec);
+			assertTrue(spec, file.isFile());
+			String raml = FileUtil.fileToString(file);
+			assertNotNull(spec, new YamlEventComposer(raml).composeHeader());
+			assertSameModel(raml, new FileResourceLoader(file.getParentFile()));
+		}
+	}
+
+	public void testRootNodeLacksResources() {
+		RamlDocumentBuilder builder = new RamlDocumentBuilder();
+		builder.build(new StringReader(RAML));
+		assertEquals(2, builder.getRootNode().getValue().size());
+		for (NodeTuple tuple : builder.getRootNode().getValue()) {
+			assertFalse(((ScalarNode) tuple.getKeyNode()).getValue().startsWith("/")); //$NON-NLS-1$
+		}
+
+		builder = new RamlDocumentBuilder();
+		builder.build((MappingNode) new Yaml().compose(new StringReader(RAML)));
+		assertEquals(4, builder.getRootNode().getValue().size());
+	}
+
+	public void testAliasBetweenResources() {
+		assertNotNull(new YamlEventComposer(RAML).composeHeader());
+		Raml raml = assertSameModel(RAML, null);
+		assertEquals("all items", raml.getResource("/orders").getDescription()); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testAliasIntoResourceFromElsewhere() {
+		String raml = RAML + "documentation:\n" //$NON-NLS-1$
+				+ "  - title: Items\n" //$NON-NLS-1$
+				+ "    content: *items\n"; //$NON-NLS-1$
+		assertNull(new YamlEventComposer(raml).composeHeader());
+		assertEquals("all items", assertSameModel(raml, null).getDocumentation().get(0).getContent()); //$NON-NLS-1$
+	}
+
+	public void testMergeAtRoot() {
+		String raml = "#%RAML 0.8\n" //$NON-NLS-1$
+				+ "<<: { title: items, version: v1 }\n" //$NON-NLS-1$
+				+ "/items:\n" //$NON-NLS-1$
+				+ "  description: all items\n"; //$NON-NLS-1$
+		assertNull(new YamlEventComposer(raml).composeHeader());
+		assertEquals("items", assertSameModel(raml, null).getTitle()); //$NON-NLS-1$
+	}
+
+	public void testSeveralDocuments() {
+		String raml = RAML + "---\n" + RAML; //$NON-NLS-1$
+		assertNull(new YamlEventComposer(raml).composeHeader());
+		assertSameFailure(raml);
+	}
+
+	public void testInvalidYaml() {
+		String raml = RAML + "/users: [\n"; //$NON-NLS-1$
+		assertNull(new YamlEventComposer(raml).composeHeader());
+		assertSameFailure(raml);
+	}
+
+	/**
+	 * Builds the document from parse events and from the composed node graph, and compares the
+	 * models through their dumps.
+	 */
+	private Raml assertSameModel(String raml, ResourceLoader resourceLoader) {
+		Raml streamed = builder(resourceLoader).build(new StringReader(raml));
+		Raml composed = builder(resourceLoader).build((MappingNode) new Yaml().compose(new StringReader(raml)));
+		assertEquals(new RamlEmitter().dump(composed), new RamlEmitter().dump(streamed));
+		return streamed;
+	}
+
+	private void assertSameFailure(String raml) {
+		String expected = null;
+		try {
+			new Yaml().compose(new StringReader(raml));
+			fail();
+		} catch (YAMLException e) {
+			expected = e.getMessage();
+		}
+		try {
+			new RamlDocumentBuilder().build(new StringReader(raml));
+			fail();
+		} catch (YAMLException e) {
+			assertEquals(expected, e.getMessage());
+		}
+	}
+
+	private static RamlDocumentBuilder builder(ResourceLoader resourceLoader) {
+		return resourceLoader == null ? new RamlDocumentBuilder() : new RamlDocumentBuilder(resourceLoader);
+	}
+}
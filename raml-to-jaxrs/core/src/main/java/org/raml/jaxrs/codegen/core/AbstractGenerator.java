@@ -116,6 +116,19 @@ public abstract class AbstractGenerator {
 		return loaderArray;
 	}
 
+	/**
+	 * Includes are served from the session, if any, so that validating and building the
+	 * document, as well as the other runs of the session, only read them once.
+	 */
+	private ResourceLoader prepareResourceLoader(
+			final Configuration configuration) {
+		final ResourceLoader loader = new CompositeResourceLoader(
+				prepareResourceLoaders(configuration));
+		final CodegenSession session = configuration.getSession();
+		return session == null ? loader : session.cache(loader,
+				configuration.getSourceDirectory());
+	}
+
 	private void validate(final Configuration configuration) {
 		Validate.notNull(configuration, "configuration can't be null");
 
@@ -137,6 +150,11 @@ public abstract class AbstractGenerator {
 				"base package name can't be empty");
 	}
 
+	private ResourceFilter createResourceFilter(final Configuration configuration) {
+		return new ResourceFilter(configuration.getResourceIncludes(),
+				configuration.getResourceExcludes());
+	}
+
 	protected Set<String> run(final Raml raml, final Configuration configuration)
 			throws Exception {
 		validate(configuration);
@@ -148,8 +166,10 @@ public abstract class AbstractGenerator {
 			e.setRaml(raml);
 		}
 
+		createResourceFilter(configuration).filter(raml);
 		Collection<Resource> resources = raml.getResources().values();
 		types.generateClassesFromXmlSchemas(resources);
+		types.generateClassesFromJsonSchemas(resources);
 
 		for (final Resource resource : resources) {
 			createResourceInterface(resource, raml);
@@ -551,16 +571,22 @@ public abstract class AbstractGenerator {
 			throw new IllegalArgumentException(
 					"Asynchronous resources are not supported in JAX-RS 1.1");
 		}
-		final String ramlBuffer = IOUtils.toString(ramlReader);
+		if (configuration.isGenerateParamConverters()
+				&& configuration.getJaxrsVersion() == JaxrsVersion.JAXRS_1_1) {
+			throw new IllegalArgumentException(
+					"Parameter converters are not supported in JAX-RS 1.1");
+		}
+		// dropped resources are blanked out before parsing, so their templates are never resolved
+		final String ramlBuffer = createResourceFilter(configuration).filter(
+				IOUtils.toString(ramlReader));
 
-		ResourceLoader[] loaderArray = prepareResourceLoaders(configuration);
+		final ResourceLoader resourceLoader = prepareResourceLoader(configuration);
 
 		final List<ValidationResult> results = RamlValidationService
-				.createDefault(new CompositeResourceLoader(loaderArray))
+				.createDefault(resourceLoader)
 				.validate(ramlBuffer, "");
 		if (ValidationResult.areValid(results)) {
-			return run(new RamlDocumentBuilder(new CompositeResourceLoader(
-					loaderArray)).build(ramlBuffer, ""), configuration);
+			return run(new RamlDocumentBuilder(resourceLoader).build(ramlBuffer, ""), configuration);
 		} else {
 			final List<String> validationErrors = Lists.transform(results,
 					new Function<ValidationResult, String>() {
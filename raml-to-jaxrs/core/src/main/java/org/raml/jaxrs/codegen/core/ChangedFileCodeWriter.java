@@ -0,0 +1,195 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Renders generated files in memory and only writes those whose content differs from the file
+ * on disk, so that unchanged files keep their modification time and build tools and IDEs don't
+ * compile them, and everything depending on them, again.
+ * <p>
+ * Files are written when the writer is closed, on a thread per core, each to a temporary file
+ * next to it which is then renamed, so that readers never see half written sources.
+ */
+class ChangedFileCodeWriter extends InMemoryCodeWriter
+{
+    private enum Status
+    {
+        ADDED, CHANGED, UNCHANGED
+    }
+
+    private final File outputDirectory;
+    private final Set<String> addedFiles = new TreeSet<String>();
+    private final Set<String> changedFiles = new TreeSet<String>();
+    private final Set<String> unchangedFiles = new TreeSet<String>();
+
+    ChangedFileCodeWriter(final File outputDirectory)
+    {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Writes the files added since the last call.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (getFiles().isEmpty())
+        {
+            return;
+        }
+
+        final List<String> paths = new ArrayList<String>();
+        final List<Callable<Status>> tasks = new ArrayList<Callable<Status>>();
+        for (final Entry<String, byte[]> pathAndContent : getFiles().entrySet())
+        {
+            paths.add(pathAndContent.getKey());
+            tasks.add(new Callable<Status>()
+            {
+                public Status call() throws IOException
+                {
+                    return write(new File(outputDirectory, pathAndContent.getKey()), pathAndContent.getValue());
+                }
+            });
+        }
+        getFiles().clear();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(tasks.size(),
+            Runtime.getRuntime().availableProcessors()));
+        try
+        {
+            final List<Future<Status>> results = executor.invokeAll(tasks);
+            for (int i = 0; i < paths.size(); i++)
+            {
+                switch (results.get(i).get())
+                {
+                    case ADDED :
+                        addedFiles.add(paths.get(i));
+                        break;
+                    case CHANGED :
+                        changedFiles.add(paths.get(i));
+                        break;
+                    default :
+                        unchangedFiles.add(paths.get(i));
+                }
+            }
+        }
+        catch (final InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing to: " + outputDirectory);
+        }
+        catch (final ExecutionException ee)
+        {
+            if (ee.getCause() instanceof IOException)
+            {
+                throw (IOException) ee.getCause();
+            }
+            throw new IllegalStateException(ee.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the paths of the files which didn't exist before, relative to the output directory
+     */
+    public Set<String> getAddedFiles()
+    {
+        return Collections.unmodifiableSet(addedFiles);
+    }
+
+    /**
+     * @return the paths of the files which were overwritten, relative to the output directory
+     */
+    public Set<String> getChangedFiles()
+    {
+        return Collections.unmodifiableSet(changedFiles);
+    }
+
+    /**
+     * @return the paths of the files which were left alone, relative to the output directory
+     */
+    public Set<String> getUnchangedFiles()
+    {
+        return Collections.unmodifiableSet(unchangedFiles);
+    }
+
+    /**
+     * @return the paths of all the written and unchanged files, relative to the output directory
+     */
+    public Set<String> getGeneratedFiles()
+    {
+        final Set<String> generatedFiles = new TreeSet<String>(addedFiles);
+        generatedFiles.addAll(changedFiles);
+        generatedFiles.addAll(unchangedFiles);
+        return generatedFiles;
+    }
+
+    private static Status write(final File file, final byte[] content) throws IOException
+    {
+        if (file.isFile())
+        {
+            // comparing the length first spares reading most changed files
+            if (file.length() == content.length && Arrays.equals(FileUtils.readFileToByteArray(file), content))
+            {
+                return Status.UNCHANGED;
+            }
+            replace(file, content);
+            return Status.CHANGED;
+        }
+        file.getParentFile().mkdirs();
+        replace(file, content);
+        return Status.ADDED;
+    }
+
+    private static void replace(final File file, final byte[] content) throws IOException
+    {
+        final File temporaryFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+        try
+        {
+            FileUtils.writeByteArrayToFile(temporaryFile, content);
+            // renaming doesn't replace existing files on Windows
+            if (!temporaryFile.renameTo(file) && !(file.delete() && temporaryFile.renameTo(file)))
+            {
+                throw new IOException("Failed to write: " + file);
+            }
+        }
+        finally
+        {
+            temporaryFile.delete();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.io.IOUtils;
+import org.raml.parser.loader.ClassPathResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+
+/**
+ * State shared by all the generator runs of a build, e.g. by the plug-in executions of all the
+ * modules of a Maven reactor build that include the same traits, resource types and schemas:
+ * the content of included resources and the fingerprints of schemas. Thread-safe.
+ * <p>
+ * Included files are read again when their size or modification time changes, URL and class
+ * path resources are cached for the lifetime of the session. Resources are keyed by where they
+ * resolve to: files by their path, URLs by themselves and class path resources by their URL, so
+ * modules share what they include from the same place whatever their source directories, but
+ * not same-named resources of their own class paths. Resources the session can't locate are
+ * keyed by the source directory they are included from, and never shared across modules.
+ */
+public class CodegenSession
+{
+    private final ConcurrentMap<String, CachedResource> resources = new ConcurrentHashMap<String, CachedResource>();
+    private final ConcurrentMap<String, String> schemaFingerprints = new ConcurrentHashMap<String, String>();
+
+    /**
+     * @param sourceDirectory the directory <code>loader</code> resolves relative file names
+     *            against, may be <code>null</code>
+     * @return a loader that serves the resources of <code>loader</code> from this session
+     */
+    public ResourceLoader cache(final ResourceLoader loader, final File sourceDirectory)
+    {
+        return new ResourceLoader()
+        {
+            public InputStream fetchResource(final String resourceName)
+            {
+                final File file = resolve(sourceDirectory, resourceName);
+                final String key = key(sourceDirectory, file, resourceName);
+                final String stamp = stamp(file);
+                final CachedResource cached = resources.get(key);
+                if (cached != null && cached.stamp.equals(stamp))
+                {
+                    return new ByteArrayInputStream(cached.content);
+                }
+
+                final InputStream inputStream = loader.fetchResource(resourceName);
+                if (inputStream == null)
+                {
+                    return null;
+                }
+                try
+                {
+                    final byte[] content = IOUtils.toByteArray(inputStream);
+                    resources.put(key, new CachedResource(file.isFile() ? file : null, stamp, content));
+                    return new ByteArrayInputStream(content);
+                }
+                catch (final IOException ioe)
+                {
+                    throw new IllegalStateException("Failed to read resource: " + resourceName, ioe);
+                }
+                finally
+                {
+                    IOUtils.closeQuietly(inputStream);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the {@link SchemaFingerprint} of <code>schema</code>, computed once per session
+     */
+    public String fingerprint(final String schema)
+    {
+        String fingerprint = schemaFingerprints.get(schema);
+        if (fingerprint == null)
+        {
+            fingerprint = SchemaFingerprint.of(schema);
+            schemaFingerprints.put(schema, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return the number of resources held by this session
+     */
+    public int getCachedResourceCount()
+    {
+        return resources.size();
+    }
+
+    /**
+     * @return the files the cached resources were read from, with their {@link #stamp(File)
+     *         stamp} at that time, e.g. to watch them for changes
+     */
+    public Map<File, String> getResourceFiles()
+    {
+        final Map<File, String> files = new HashMap<File, String>();
+        for (final CachedResource resource : resources.values())
+        {
+            if (resource.file != null)
+            {
+                files.put(resource.file, resource.stamp);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * @return the size and modification time of <code>file</code>, empty if it isn't a file
+     */
+    static String stamp(final File file)
+    {
+        return file.isFile() ? file.length() + ":" + file.lastModified() : "";
+    }
+
+    private static String key(final File sourceDirectory, final File file, final String resourceName)
+    {
+        if (file.isFile())
+        {
+            return "file:" + file.getAbsolutePath();
+        }
+        if (isUrl(resourceName))
+        {
+            return "url:" + resourceName;
+        }
+        final URL classPathResource = findClassPathResource(resourceName);
+        if (classPathResource != null)
+        {
+            return "classpath:" + classPathResource.toExternalForm();
+        }
+        final String origin = sourceDirectory == null ? "" : sourceDirectory.getAbsolutePath();
+        return "source:" + origin + ":" + resourceName;
+    }
+
+    private static boolean isUrl(final String resourceName)
+    {
+        try
+        {
+            new URL(resourceName);
+            return true;
+        }
+        catch (final MalformedURLException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return the resource {@link ClassPathResourceLoader} would read, looked up the same way
+     */
+    private static URL findClassPathResource(final String resourceName)
+    {
+        final URL resource = ClassPathResourceLoader.class.getClassLoader().getResource(resourceName);
+        if (resource != null)
+        {
+            return resource;
+        }
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader == null ? null : contextClassLoader.getResource(resourceName);
+    }
+
+    private static File resolve(final File sourceDirectory, final String resourceName)
+    {
+        final File file = new File(resourceName);
+        return file.isAbsolute() || sourceDirectory == null ? file : new File(sourceDirectory, resourceName);
+    }
+
+    private static final class CachedResource
+    {
+        private final File file;
+        private final String stamp;
+        private final byte[] content;
+
+        CachedResource(final File file, final String stamp, final byte[] content)
+        {
+            this.file = file;
+            this.stamp = stamp;
+            this.content = content;
+        }
+    }
+}
@@ -19,6 +19,8 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.jsonschema2pojo.AnnotationStyle;
@@ -58,6 +60,26 @@ public class Configuration
         }
     };
 
+    /**
+     * How resource methods carrying the {@link #getAsyncResourceTrait() async trait} are generated.
+     */
+    public enum AsyncResourceStyle
+    {
+        /**
+         * void method with a {@code @Suspended AsyncResponse} parameter.
+         */
+        SUSPENDED,
+        /**
+         * method returning {@code CompletionStage<XxxResponse>} (JAX-RS 2.1, Java 8).
+         */
+        COMPLETION_STAGE,
+        /**
+         * like {@link #SUSPENDED}, plus a nested {@code AsyncDispatcher} class which runs
+         * the blocking {@code xxxBlocking} implementation on a configurable executor.
+         */
+        EXECUTOR
+    }
+
     private File outputDirectory;
     private JaxrsVersion jaxrsVersion = JaxrsVersion.JAXRS_1_1;
     private String basePackageName;
@@ -67,8 +89,17 @@ public class Configuration
     private Class methodThrowException = Exception.class;
     private Map<String, String> jsonMapperConfiguration;
     private String asyncResourceTrait;
+    private AsyncResourceStyle asyncResourceStyle = AsyncResourceStyle.SUSPENDED;
+    private long asyncTimeout;
+    private String conditionalRequestTrait;
 	private boolean emptyResponseReturnVoid;
 	private boolean generateClientInterface;
+	private boolean generateParamConverters;
+	private boolean compactResponseClasses;
+	private final ConcurrentMap<String, Map<String, String>> generatedSchemaClasses = new ConcurrentHashMap<String, Map<String, String>>();
+	private List<String> resourceIncludes = new ArrayList<String>();
+	private List<String> resourceExcludes = new ArrayList<String>();
+	private CodegenSession session;
 	
 	public boolean isGenerateClientInterface() {
 		return generateClientInterface;
@@ -92,6 +123,44 @@ public class Configuration
          this.asyncResourceTrait = asyncResourceTrait;
     }
 
+    public AsyncResourceStyle getAsyncResourceStyle()
+    {
+        return asyncResourceStyle;
+    }
+
+    public void setAsyncResourceStyle(final AsyncResourceStyle asyncResourceStyle)
+    {
+        this.asyncResourceStyle = asyncResourceStyle;
+    }
+
+    /**
+     * @return the timeout in milliseconds after which an {@link AsyncResourceStyle#EXECUTOR}
+     *         dispatched call is cancelled and answered with 503, 0 for the container default
+     */
+    public long getAsyncTimeout()
+    {
+        return asyncTimeout;
+    }
+
+    public void setAsyncTimeout(final long asyncTimeout)
+    {
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    /**
+     * @return the trait marking actions which get a <code>Request</code> parameter and
+     *         ETag/Last-Modified support in their response class
+     */
+    public String getConditionalRequestTrait()
+    {
+        return conditionalRequestTrait;
+    }
+
+    public void setConditionalRequestTrait(final String conditionalRequestTrait)
+    {
+        this.conditionalRequestTrait = conditionalRequestTrait;
+    }
+
     public GenerationConfig createJsonSchemaGenerationConfig()
     {
         return new DefaultGenerationConfig()
@@ -228,9 +297,86 @@ public class Configuration
 		this.emptyResponseReturnVoid = emptyResponseReturnVoid;
 	}
 	
+	/**
+	 * @return true if a ParamConverterProvider for RAML date, integer, number and
+	 *         boolean parameters should be generated in the support package (JAX-RS 2.0 only)
+	 */
+	public boolean isGenerateParamConverters() {
+		return generateParamConverters;
+	}
+
+	public void setGenerateParamConverters(boolean generateParamConverters) {
+		this.generateParamConverters = generateParamConverters;
+	}
+
+	/**
+	 * @return true if the resource methods with the same response signature (status codes,
+	 *         headers, media types and entity classes) share one top level response class
+	 *         instead of getting a nested one each
+	 */
+	public boolean isCompactResponseClasses() {
+		return compactResponseClasses;
+	}
+
+	public void setCompactResponseClasses(boolean compactResponseClasses) {
+		this.compactResponseClasses = compactResponseClasses;
+	}
+
 	public List<GeneratorExtension> getExtensions() {
 		return this.extensions;
 	}
+
+	/**
+	 * @return the fully qualified names of the classes generated from schemas with this
+	 *         configuration into the current output directory and base package, by
+	 *         {@link SchemaFingerprint}, so that all the RAML files of a build share them
+	 */
+	public Map<String, String> getGeneratedSchemaClasses() {
+		final String target = outputDirectory + File.pathSeparator + basePackageName;
+		final Map<String, String> classes = generatedSchemaClasses.get(target);
+		if (classes != null) {
+			return classes;
+		}
+		generatedSchemaClasses.putIfAbsent(target, new ConcurrentHashMap<String, String>());
+		return generatedSchemaClasses.get(target);
+	}
+
+	/**
+	 * @return patterns of the full resource URIs to generate code for, all if empty
+	 * @see ResourceFilter
+	 */
+	public List<String> getResourceIncludes() {
+		return resourceIncludes;
+	}
+
+	public void setResourceIncludes(List<String> resourceIncludes) {
+		this.resourceIncludes = resourceIncludes;
+	}
+
+	/**
+	 * @return patterns of the full resource URIs to skip, with their nested resources
+	 * @see ResourceFilter
+	 */
+	public List<String> getResourceExcludes() {
+		return resourceExcludes;
+	}
+
+	public void setResourceExcludes(List<String> resourceExcludes) {
+		this.resourceExcludes = resourceExcludes;
+	}
+
+	/**
+	 * @return the session shared with the other generator runs of the build, or
+	 *         <code>null</code> if this run doesn't share anything
+	 * @see CodegenSession
+	 */
+	public CodegenSession getSession() {
+		return session;
+	}
+
+	public void setSession(CodegenSession session) {
+		this.session = session;
+	}
 	
 
 }
@@ -18,34 +18,40 @@ package org.raml.jaxrs.codegen.core;
 import static org.raml.jaxrs.codegen.core.Constants.JAXRS_HTTP_METHODS;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.InterruptedIOException;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.net.URI;
 import java.net.URL;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.HttpMethod;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.Validate;
 import org.jsonschema2pojo.AnnotatorFactory;
 import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.Schema;
 import org.jsonschema2pojo.SchemaGenerator;
 import org.jsonschema2pojo.SchemaMapper;
 import org.jsonschema2pojo.SchemaStore;
@@ -78,17 +84,26 @@ class Context
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(Context.class);
 
+    private static final String ASYNC_DISPATCHER_NAME = "AsyncDispatcher";
+
     private final Configuration configuration;
     private final Raml raml;
     private final JCodeModel codeModel;
-    private final Map<String, Set<String>> resourcesMethods;
+    private final UniqueNames resourceClassNames;
+    private final Map<String, ResourceInterfaceNames> resourceInterfacesNames;
     private final Map<String, Object> httpMethodAnnotations;
+    private final Map<String, JDefinedClass> sharedResponseClasses;
 
+    private final GenerationConfig jsonSchemaGenerationConfig;
+    private final SchemaStore schemaStore;
     private final SchemaMapper schemaMapper;
+    private final Map<String, byte[]> mergedSchemaFiles;
 
     private boolean shouldGenerateResponseWrapper = false;
+    private boolean shouldGenerateAsyncExecution = false;
     private JDefinedClass currentResourceInterface;
     private final File globalSchemaStore;
+    private final Map<String, String> globalSchemas;
 
     public JType ref(String name){
     	return codeModel.ref(name);
@@ -104,7 +119,17 @@ class Context
 
         codeModel = new JCodeModel();
 
-        resourcesMethods = new HashMap<String, Set<String>>();
+        resourceClassNames = new UniqueNames()
+        {
+            @Override
+            protected boolean isTakenElsewhere(final String name)
+            {
+                // such as the classes of extensions
+                return getResourcePackage()._getClass(name) != null;
+            }
+        };
+        resourceInterfacesNames = new HashMap<String, ResourceInterfaceNames>();
+        sharedResponseClasses = new HashMap<String, JDefinedClass>();
 
         // prime the HTTP method annotation cache
         httpMethodAnnotations = new HashMap<String, Object>();
@@ -114,33 +139,48 @@ class Context
         }
 
         // write all global schemas to a temporary directory
+        // the parser's consolidated view is rebuilt on each call, so keep one for lookups
+        globalSchemas = raml.getConsolidatedSchemas();
         globalSchemaStore = Files.createTempDir();
-        for (final Entry<String, String> nameAndSchema : raml.getConsolidatedSchemas().entrySet())
+        for (final Entry<String, String> nameAndSchema : globalSchemas.entrySet())
         {
             final File schemaFile = new File(globalSchemaStore, nameAndSchema.getKey());
             FileUtils.writeStringToFile(schemaFile, nameAndSchema.getValue());
         }
 
         // configure the JSON -> POJO generator
-        final GenerationConfig jsonSchemaGenerationConfig = configuration.createJsonSchemaGenerationConfig();
-        schemaMapper = new SchemaMapper(new RuleFactory(jsonSchemaGenerationConfig,
-            new AnnotatorFactory().getAnnotator(configuration.getJsonMapper()),
-            new SchemaStore()), new SchemaGenerator());
+        jsonSchemaGenerationConfig = configuration.createJsonSchemaGenerationConfig();
+        schemaStore = new SchemaStore();
+        schemaMapper = createSchemaMapper(schemaStore);
+        mergedSchemaFiles = new LinkedHashMap<String, byte[]>();
     }
 
     public Set<String> generate() throws IOException
     {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final PrintStream ps = new PrintStream(baos);
-        codeModel.build(configuration.getOutputDirectory(), ps);
-        ps.close();
-
-        final Set<String> generatedFiles = new HashSet<String>();
+        final ChangedFileCodeWriter codeWriter = new ChangedFileCodeWriter(configuration.getOutputDirectory());
         if (shouldGenerateResponseWrapper)
         {
-            generatedFiles.add(generateResponseWrapper());
+            generateSupportClass(codeWriter, "ResponseWrapper");
+        }
+        if (shouldGenerateAsyncExecution)
+        {
+            generateSupportClass(codeWriter, "AsyncExecution");
+        }
+        if (configuration.isGenerateParamConverters())
+        {
+            generateSupportClass(codeWriter, "ParamConverters");
+        }
+        for (final Entry<String, byte[]> pathAndContent : mergedSchemaFiles.entrySet())
+        {
+            codeWriter.add(pathAndContent.getKey(), pathAndContent.getValue());
         }
-        generatedFiles.addAll(Arrays.asList(StringUtils.split(baos.toString())));
+        // only writes the files whose content changed, when closed by the code model
+        codeModel.build(codeWriter);
+        LOGGER.info("Generated files in " + configuration.getOutputDirectory() + ": "
+                    + codeWriter.getAddedFiles().size() + " added, " + codeWriter.getChangedFiles().size()
+                    + " changed, " + codeWriter.getUnchangedFiles().size() + " unchanged");
+
+        final Set<String> generatedFiles = codeWriter.getGeneratedFiles();
 
         try
         {
@@ -159,7 +199,7 @@ class Context
      */
     public Entry<File, String> getSchemaFile(final String schemaNameOrContent) throws IOException
     {
-        if (raml.getConsolidatedSchemas().containsKey(schemaNameOrContent))
+        if (globalSchemas.containsKey(schemaNameOrContent))
         {
             // schemaNameOrContent is actually a global name
             return new SimpleEntry<File, String>(new File(globalSchemaStore, schemaNameOrContent),
@@ -169,13 +209,23 @@ class Context
         {
             // this is not a global reference but a local schema def - dump it to a temp file so
             // the type generators can pick it up
-            final String schemaFileName = "schema" + schemaNameOrContent.hashCode();
+            final String schemaFileName = "schema-" + SchemaFingerprint.of(schemaNameOrContent);
             final File schemaFile = new File(globalSchemaStore, schemaFileName);
             FileUtils.writeStringToFile(schemaFile, schemaNameOrContent);
             return new SimpleEntry<File, String>(schemaFile, null);
         }
     }
 
+    /**
+     * @return the content of the named global schema, or <code>schemaNameOrContent</code> itself if it
+     *         is a local schema definition.
+     */
+    public String getSchemaContent(final String schemaNameOrContent)
+    {
+        final String globalSchema = globalSchemas.get(schemaNameOrContent);
+        return globalSchema != null ? globalSchema : schemaNameOrContent;
+    }
+
     public Configuration getConfiguration()
     {
         return configuration;
@@ -191,24 +241,15 @@ class Context
         this.currentResourceInterface = currentResourceInterface;
     }
 
-    private String generateResponseWrapper() throws IOException
+    private void generateSupportClass(final ChangedFileCodeWriter codeWriter, final String className)
+        throws IOException
     {
         final String template = IOUtils.toString(getClass().getResourceAsStream(
-            "/org/raml/templates/ResponseWrapper." + configuration.getJaxrsVersion().toString().toLowerCase()
+            "/org/raml/templates/" + className + "." + configuration.getJaxrsVersion().toString().toLowerCase()
                             + ".template"));
 
-        final File supportPackageOutputDirectory = new File(configuration.getOutputDirectory(),
-            getSupportPackage().replace('.', File.separatorChar));
-
-        supportPackageOutputDirectory.mkdirs();
-
-        final File sourceOutputFile = new File(supportPackageOutputDirectory, "ResponseWrapper.java");
         final String source = template.replace("${codegen.support.package}", getSupportPackage());
-        final FileWriter fileWriter = new FileWriter(sourceOutputFile);
-        IOUtils.write(source, fileWriter);
-        IOUtils.closeQuietly(fileWriter);
-
-        return getSupportPackage().replace('.', '/') + "/ResponseWrapper.java";
+        codeWriter.add(getSupportPackage().replace('.', '/') + "/" + className + ".java", source.getBytes());
     }
 
     public JClass getResponseWrapperType()
@@ -218,56 +259,105 @@ class Context
         return codeModel.directClass(getSupportPackage() + ".ResponseWrapper");
     }
 
-    public JDefinedClass createResourceInterface(final String name) throws Exception
+    public JClass getAsyncExecutionType()
+    {
+        shouldGenerateAsyncExecution = true;
+
+        return codeModel.directClass(getSupportPackage() + ".AsyncExecution");
+    }
+
+    /**
+     * @return the abstract class nested in <code>resourceInterface</code> which dispatches its
+     *         asynchronous methods to blocking implementations, created on first use.
+     */
+    public JDefinedClass getAsyncDispatcher(final JDefinedClass resourceInterface) throws Exception
     {
-        String actualName;
-        int i = -1;
-        while (true)
+        final ResourceInterfaceNames names = resourceInterfacesNames.get(resourceInterface.name());
+        final JDefinedClass existingDispatcher = names.nestedClasses.get(ASYNC_DISPATCHER_NAME);
+        if (existingDispatcher != null)
         {
-            actualName = name + (++i == 0 ? "" : Integer.toString(i));
-            if (!resourcesMethods.containsKey(actualName))
-            {
-                resourcesMethods.put(actualName, new HashSet<String>());
-                break;
-            }
+            return existingDispatcher;
         }
 
-        final JPackage pkg = codeModel._package(configuration.getBasePackageName() + ".resource");
-        return pkg._interface(actualName);
+        final JDefinedClass dispatcher = resourceInterface._class(JMod.PUBLIC | JMod.STATIC | JMod.ABSTRACT,
+            ASYNC_DISPATCHER_NAME);
+        names.addNestedClass(dispatcher);
+        dispatcher._implements(resourceInterface);
+        dispatcher.javadoc().add(
+            "Runs the asynchronous methods of " + resourceInterface.name()
+                            + " on the executor configured in " + getAsyncExecutionType().name()
+                            + ": extend it and implement the <code>xxxBlocking</code> methods.");
+        return dispatcher;
+    }
+
+    public JDefinedClass createAnonymousClass(final JClass baseType)
+    {
+        return codeModel.anonymousClass(baseType);
+    }
+
+    public JDefinedClass createResourceInterface(final String name) throws Exception
+    {
+        final String actualName = resourceClassNames.take(name);
+        resourceInterfacesNames.put(actualName, new ResourceInterfaceNames());
+
+        return getResourcePackage()._interface(actualName);
+    }
+
+    /**
+     * @return the response class shared by the methods with this response signature, or
+     *         <code>null</code> if there is none yet
+     */
+    public JDefinedClass getSharedResponseClass(final String signature)
+    {
+        return sharedResponseClasses.get(signature);
+    }
+
+    /**
+     * @return a new top level class in the resource package for the methods with this response
+     *         signature, named <code>name</code> followed by a number if taken
+     */
+    public JDefinedClass createSharedResponseClass(final String name, final String signature) throws Exception
+    {
+        final JDefinedClass responseClass = getResourcePackage()._class(resourceClassNames.take(name));
+        sharedResponseClasses.put(signature, responseClass);
+        return responseClass;
     }
 
     public JMethod createResourceMethod(final JDefinedClass resourceInterface,
                                         final String methodName,
                                         final JType returnType)
     {
-        final Set<String> existingMethodNames = resourcesMethods.get(resourceInterface.name());
-
-        String actualMethodName;
-        int i = -1;
-        while (true)
-        {
-            actualMethodName = methodName + (++i == 0 ? "" : Integer.toString(i));
-            if (!existingMethodNames.contains(actualMethodName))
-            {
-                existingMethodNames.add(actualMethodName);
-                break;
-            }
-        }
+        final String actualMethodName = resourceInterfacesNames.get(resourceInterface.name()).methods.take(
+            methodName);
 
         return resourceInterface.method(JMod.NONE, returnType, actualMethodName);
     }
 
+    /**
+     * @return a new class nested in <code>resourceInterface</code>, named <code>name</code>
+     *         followed by a number if taken
+     */
+    public JDefinedClass createResourceNestedClass(final JDefinedClass resourceInterface, final String name)
+        throws Exception
+    {
+        final ResourceInterfaceNames names = resourceInterfacesNames.get(resourceInterface.name());
+        final JDefinedClass nestedClass = resourceInterface._class(names.nestedClassNames.take(name));
+        names.addNestedClass(nestedClass);
+        return nestedClass;
+    }
+
     public JDefinedClass createResourceEnum(final JDefinedClass resourceInterface,
                                             final String name,
                                             final List<String> values) throws Exception
     {
-    	JClass[] listClasses = resourceInterface.listClasses();
-    	for (JClass c:listClasses){
-    		if (c.name().equals(name)){
-    			return (JDefinedClass) c;
-    		}
-    	}
+        final ResourceInterfaceNames names = resourceInterfacesNames.get(resourceInterface.name());
+        final JDefinedClass existingEnum = names.nestedClasses.get(name);
+        if (existingEnum != null)
+        {
+            return existingEnum;
+        }
         final JDefinedClass _enum = resourceInterface._enum(name);
+        names.addNestedClass(_enum);
 
         for (final String value : values)
         {
@@ -318,6 +408,233 @@ class Context
     	return schemaMapper.generate(codeModel, className, getModelPackage(), schemaUrl).boxify();
     }
 
+    /**
+     * Generates the classes of JSON schemas concurrently, each into its own code model, then merges
+     * them in the given order. The classes of a schema are only merged if their names aren't taken
+     * by different classes: otherwise the schema is left out, to be generated into this code model
+     * when first used, where jsonschema2pojo makes the names unique. The schemas a merged schema
+     * refers to keep their merged classes then.
+     *
+     * @param schemas {class name, schema URL} tuples by schema key, in merge order.
+     * @return the merged schema classes by schema key.
+     */
+    public Map<String, JClass> generateClassesFromJsonSchemas(final Map<String, Entry<String, URL>> schemas)
+        throws IOException
+    {
+        final Map<String, JClass> result = new HashMap<String, JClass>();
+        if (schemas.isEmpty())
+        {
+            return result;
+        }
+
+        final Map<String, Future<IsolatedSchemaClasses>> isolatedClasses =
+            new LinkedHashMap<String, Future<IsolatedSchemaClasses>>();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(schemas.size(),
+            Runtime.getRuntime().availableProcessors()));
+        try
+        {
+            for (final Entry<String, Entry<String, URL>> keyAndSchema : schemas.entrySet())
+            {
+                isolatedClasses.put(keyAndSchema.getKey(),
+                    executor.submit(new Callable<IsolatedSchemaClasses>()
+                    {
+                        public IsolatedSchemaClasses call() throws IOException
+                        {
+                            return generateIsolatedClassesFromJsonSchema(keyAndSchema.getValue().getKey(),
+                                keyAndSchema.getValue().getValue());
+                        }
+                    }));
+            }
+
+            for (final Entry<String, Future<IsolatedSchemaClasses>> keyAndClasses : isolatedClasses.entrySet())
+            {
+                final IsolatedSchemaClasses classes;
+                try
+                {
+                    classes = keyAndClasses.getValue().get();
+                }
+                catch (final ExecutionException ee)
+                {
+                    // reported again, and failing the generation, when first used
+                    LOGGER.debug("Failed to generate classes from JSON schema: " + keyAndClasses.getKey(),
+                        ee.getCause());
+                    continue;
+                }
+
+                final JClass schemaClass = mergeClassesFromJsonSchema(classes);
+                if (schemaClass != null)
+                {
+                    result.put(keyAndClasses.getKey(), schemaClass);
+                }
+            }
+        }
+        catch (final InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating classes from JSON schemas");
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
+    private IsolatedSchemaClasses generateIsolatedClassesFromJsonSchema(final String className,
+                                                                        final URL schemaUrl) throws IOException
+    {
+        // schema mappers cache the schemas they read, so each thread needs its own
+        final JCodeModel isolatedCodeModel = new JCodeModel();
+        final RecordingSchemaStore isolatedSchemaStore = new RecordingSchemaStore();
+        final JType schemaType = createSchemaMapper(isolatedSchemaStore).generate(isolatedCodeModel, className,
+            getModelPackage(), schemaUrl);
+        final InMemoryCodeWriter codeWriter = new InMemoryCodeWriter();
+        isolatedCodeModel.build(codeWriter);
+        return new IsolatedSchemaClasses(schemaType.boxify().fullName(), codeWriter.getFiles(),
+            isolatedSchemaStore.getClassNames());
+    }
+
+    /**
+     * Declares the classes of a schema as hidden classes of this code model, which can be referred
+     * to but aren't rendered, and keeps their files to write.
+     *
+     * @return the schema class, or <code>null</code> if the classes can't be merged.
+     */
+    private JClass mergeClassesFromJsonSchema(final IsolatedSchemaClasses classes)
+    {
+        final String schemaClassName = classes.schemaClassName;
+        final Map<String, byte[]> files = classes.files;
+
+        // arrays and simple types are left to the regular generation
+        if (!files.containsKey(schemaClassName.replace('.', File.separatorChar) + ".java"))
+        {
+            return null;
+        }
+
+        for (final Entry<String, byte[]> pathAndContent : files.entrySet())
+        {
+            final byte[] mergedContent = mergedSchemaFiles.get(pathAndContent.getKey());
+            if (mergedContent != null ? !Arrays.equals(mergedContent, pathAndContent.getValue())
+                                     : codeModel._getClass(getClassName(pathAndContent.getKey())) != null)
+            {
+                LOGGER.info("Class name conflict for JSON schema class: " + schemaClassName
+                            + ", generating it separately");
+                return null;
+            }
+        }
+
+        for (final Entry<String, byte[]> pathAndContent : files.entrySet())
+        {
+            if (!mergedSchemaFiles.containsKey(pathAndContent.getKey()))
+            {
+                try
+                {
+                    codeModel._class(getClassName(pathAndContent.getKey())).hide();
+                }
+                catch (final JClassAlreadyExistsException jcaee)
+                {
+                    throw new IllegalStateException(jcaee);
+                }
+                mergedSchemaFiles.put(pathAndContent.getKey(), pathAndContent.getValue());
+            }
+        }
+
+        // so that schemas generated when first used refer to the merged classes, not to copies
+        for (final Entry<URI, String> uriAndClassName : classes.schemaClassNames.entrySet())
+        {
+            final JClass mergedClass = codeModel._getClass(uriAndClassName.getValue());
+            if (mergedClass != null)
+            {
+                schemaStore.create(uriAndClassName.getKey()).setJavaTypeIfEmpty(mergedClass);
+            }
+        }
+        return codeModel._getClass(schemaClassName);
+    }
+
+    /**
+     * The names taken in a resource interface, for its methods and nested classes.
+     */
+    private static class ResourceInterfaceNames
+    {
+        private final UniqueNames methods = new UniqueNames();
+        private final Map<String, JDefinedClass> nestedClasses = new HashMap<String, JDefinedClass>();
+        private final UniqueNames nestedClassNames = new UniqueNames()
+        {
+            @Override
+            protected boolean isTakenElsewhere(final String name)
+            {
+                return nestedClasses.containsKey(name);
+            }
+        };
+
+        void addNestedClass(final JDefinedClass nestedClass)
+        {
+            nestedClasses.put(nestedClass.name(), nestedClass);
+        }
+    }
+
+    /**
+     * The files generated from a JSON schema into a code model of its own.
+     */
+    private static class IsolatedSchemaClasses
+    {
+        private final String schemaClassName;
+        private final Map<String, byte[]> files;
+        private final Map<URI, String> schemaClassNames;
+
+        IsolatedSchemaClasses(final String schemaClassName, final Map<String, byte[]> files,
+                              final Map<URI, String> schemaClassNames)
+        {
+            this.schemaClassName = schemaClassName;
+            this.files = files;
+            this.schemaClassNames = schemaClassNames;
+        }
+    }
+
+    /**
+     * A schema store that remembers the schemas it read, including those referred to.
+     */
+    private static class RecordingSchemaStore extends SchemaStore
+    {
+        private final Set<URI> ids = new LinkedHashSet<URI>();
+
+        @Override
+        public synchronized Schema create(final URI id)
+        {
+            ids.add(id);
+            return super.create(id);
+        }
+
+        /**
+         * @return the names of the classes generated for the schemas read, by schema id.
+         */
+        synchronized Map<URI, String> getClassNames()
+        {
+            final Map<URI, String> classNames = new LinkedHashMap<URI, String>();
+            for (final URI id : ids)
+            {
+                final Schema schema = super.create(id);
+                if (schema.isGenerated())
+                {
+                    classNames.put(id, schema.getJavaType().boxify().fullName());
+                }
+            }
+            return classNames;
+        }
+    }
+
+    private static String getClassName(final String sourcePath)
+    {
+        return StringUtils.removeEnd(sourcePath, ".java").replace(File.separatorChar, '.');
+    }
+
+    private SchemaMapper createSchemaMapper(final SchemaStore store)
+    {
+        return new SchemaMapper(new RuleFactory(jsonSchemaGenerationConfig,
+            new AnnotatorFactory().getAnnotator(configuration.getJsonMapper()), store),
+            new SchemaGenerator());
+    }
+
     private JDefinedClass createCustomHttpMethodAnnotation(final String httpMethod)
         throws JClassAlreadyExistsException
     {
@@ -331,6 +648,11 @@ class Context
         return annotationClazz;
     }
 
+    private JPackage getResourcePackage()
+    {
+        return codeModel._package(configuration.getBasePackageName() + ".resource");
+    }
+
     private String getModelPackage()
     {
         return configuration.getBasePackageName() + ".model";
@@ -31,10 +31,13 @@ import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.math.BigDecimal;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 import javax.mail.internet.MimeMultipart;
 import javax.validation.constraints.Max;
@@ -49,14 +52,17 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response.ResponseBuilder;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.math.NumberUtils;
+import org.raml.jaxrs.codegen.core.Configuration.AsyncResourceStyle;
 import org.raml.jaxrs.codegen.core.ext.GeneratorExtension;
 import org.raml.model.Action;
 import org.raml.model.MimeType;
@@ -79,12 +85,12 @@ import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
 import com.sun.codemodel.JType;
 import com.sun.codemodel.JVar;
 
 public class Generator extends AbstractGenerator
 {
-    
 
     protected void createResourceInterface(final Resource resource, final Raml raml) throws Exception
     {
@@ -124,14 +130,25 @@ public class Generator extends AbstractGenerator
         Configuration configuration = context.getConfiguration();
         String asyncResourceTrait = configuration.getAsyncResourceTrait();
         boolean asyncMethod = isNotBlank(asyncResourceTrait) && action.getIs().contains(asyncResourceTrait);
+        AsyncResourceStyle asyncStyle = asyncMethod ? configuration.getAsyncResourceStyle() : null;
+        String conditionalRequestTrait = configuration.getConditionalRequestTrait();
+        boolean conditionalMethod = isNotBlank(conditionalRequestTrait)
+                                    && action.getIs().contains(conditionalRequestTrait);
         
-        final JType resourceMethodReturnType = getResourceMethodReturnType(methodName, action,
-            uniqueResponseMimeTypes.isEmpty(),asyncMethod, resourceInterface);
-
-        // the actually created unique method name should be needed in the previous method but
-        // no way of doing this :(
+        // the response class is named after the unique method name, so the return type comes second
         final JMethod method = context.createResourceMethod(resourceInterface, methodName,
-            resourceMethodReturnType);
+            types.getGeneratorType(void.class));
+
+        // methods of the async styles returning void still get the response helper class, and
+        // conditional methods must be able to return a 304 even without a response body
+        JDefinedClass responseClass = null;
+        if (!uniqueResponseMimeTypes.isEmpty() || !configuration.isEmptyResponseReturnVoid() || conditionalMethod
+            || (asyncStyle != null && asyncStyle != AsyncResourceStyle.COMPLETION_STAGE))
+        {
+            responseClass = getResourceMethodResponseClass(method.name(), action, conditionalMethod,
+                resourceInterface);
+        }
+        method.type(getResourceMethodReturnType(responseClass, asyncStyle));
         
         if (configuration.getMethodThrowException() != null ) {
             method._throws(configuration.getMethodThrowException());
@@ -149,7 +166,10 @@ public class Generator extends AbstractGenerator
         addHeaderParameters(action, method, javadoc);
         addQueryParameters(action, method, javadoc);
         addBodyParameters(bodyMimeType, method, javadoc);
-        if (asyncMethod) {
+        if (conditionalMethod) {
+            addRequestParameter(conditionalRequestTrait, method, javadoc);
+        }
+        if (asyncStyle == AsyncResourceStyle.SUSPENDED || asyncStyle == AsyncResourceStyle.EXECUTOR) {
             addAsyncResponseParameter(asyncResourceTrait, method, javadoc);
         }
         
@@ -157,32 +177,144 @@ public class Generator extends AbstractGenerator
         for (GeneratorExtension e : extensions) {
         	e.onAddResourceMethod(method, action, bodyMimeType, uniqueResponseMimeTypes);
         }
-     
+
+        if (asyncStyle == AsyncResourceStyle.EXECUTOR) {
+            addAsyncDispatchMethod(resourceInterface, method, asyncResourceTrait, responseClass);
+        }
 
     }
 
-    private JType getResourceMethodReturnType(final String methodName,
-                                              final Action action,
-                                              final boolean returnsVoid,
-                                              final boolean asyncMethod,
-                                              final JDefinedClass resourceInterface) throws Exception
+    private JType getResourceMethodReturnType(final JDefinedClass responseClass,
+                                              final AsyncResourceStyle asyncStyle)
     {
-    	if (asyncMethod) 
-    	{
-    	   // returns void but also generate the response helper object
-    	   createResourceMethodReturnType(methodName, action, resourceInterface);
-    	   return types.getGeneratorType(void.class);
-    	}
-    	else
-        if (returnsVoid&&context.getConfiguration().isEmptyResponseReturnVoid())
+        if (asyncStyle == AsyncResourceStyle.COMPLETION_STAGE)
+        {
+            final JClass completionStage = types.getGeneratorClass("java.util.concurrent.CompletionStage");
+            return responseClass == null ? completionStage.narrow(Void.class) : completionStage.narrow(responseClass);
+        }
+        else if (asyncStyle != null || responseClass == null)
         {
             return types.getGeneratorType(void.class);
         }
         else
         {
-            return createResourceMethodReturnType(methodName, action, resourceInterface);
+            return responseClass;
         }
     }
+
+    /**
+     * @return the response class of the method: a new one nested in the resource interface, or in
+     *         compact mode the one of the first method with the same response signature
+     */
+    private JDefinedClass getResourceMethodResponseClass(final String methodName,
+                                                         final Action action,
+                                                         final boolean conditional,
+                                                         final JDefinedClass resourceInterface)
+        throws Exception
+    {
+        if (!context.getConfiguration().isCompactResponseClasses())
+        {
+            return createResourceMethodReturnType(
+                context.createResourceNestedClass(resourceInterface, capitalize(methodName) + "Response"), action,
+                conditional);
+        }
+
+        final String signature = buildResponseSignature(action, conditional);
+        final JDefinedClass sharedClass = context.getSharedResponseClass(signature);
+        if (sharedClass != null)
+        {
+            return sharedClass;
+        }
+        return createResourceMethodReturnType(
+            context.createSharedResponseClass(capitalize(methodName) + "Response", signature), action, conditional);
+    }
+
+    /**
+     * What the builder methods of a response class depend on: status codes, response headers,
+     * media types and entity classes. Descriptions and examples are left out, the shared class
+     * gets those of the first method.
+     */
+    private String buildResponseSignature(final Action action, final boolean conditional) throws Exception
+    {
+        final StringBuilder signature = new StringBuilder(conditional ? "conditional" : "");
+        for (final Entry<String, Response> statusCodeAndResponse : new TreeMap<String, Response>(
+            action.getResponses()).entrySet())
+        {
+            final Response response = statusCodeAndResponse.getValue();
+            signature.append('\n').append(statusCodeAndResponse.getKey());
+            for (final Entry<String, Header> namedHeader : new TreeMap<String, Header>(response.getHeaders()).entrySet())
+            {
+                final Header header = namedHeader.getValue();
+                signature.append(" header ").append(namedHeader.getKey())
+                    .append(':').append(Types.getJavaType(header).getName())
+                    .append(header.isRepeat() ? "[]" : "")
+                    .append(header.getEnumeration() == null ? "" : header.getEnumeration());
+            }
+            if (response.hasBody())
+            {
+                for (final MimeType mimeType : response.getBody().values())
+                {
+                    signature.append(" body ").append(mimeType.getType())
+                        .append(':').append(types.getResponseEntityClass(mimeType).fullName());
+                }
+            }
+        }
+        return signature.toString();
+    }
+
+    private void addRequestParameter(final String conditionalRequestTrait,
+                                     final JMethod method,
+                                     final JDocComment javadoc) throws Exception
+    {
+        final JVar argumentVariable = method.param(types.getGeneratorClass(Request.class),
+            Names.buildVariableName(conditionalRequestTrait));
+        argumentVariable.annotate(javax.ws.rs.core.Context.class);
+        javadoc.addParam(argumentVariable.name()).add(conditionalRequestTrait);
+    }
+
+    /**
+     * Adds <code>withEntityTag</code> and <code>withLastModified</code> to <code>responseClass</code>,
+     * plus a static <code>evaluatePreconditions</code> which yields the 304/412 response before any
+     * entity is built, or null if the request must be processed.
+     */
+    private void addConditionalResponseMethods(final JDefinedClass responseClass) throws Exception
+    {
+        final JClass responseType = types.getGeneratorClass(javax.ws.rs.core.Response.class);
+
+        final JMethod withEntityTag = responseClass.method(PUBLIC, responseClass, "withEntityTag");
+        final JVar entityTag = withEntityTag.param(JMod.FINAL, EntityTag.class, "entityTag");
+        withEntityTag.javadoc().addReturn().add("a copy of this response with an ETag header");
+        withEntityTag.body()._return(JExpr._new(responseClass).arg(
+            responseType.staticInvoke("fromResponse").arg(JExpr._this()).invoke("tag").arg(entityTag).invoke("build")));
+
+        final JMethod withLastModified = responseClass.method(PUBLIC, responseClass, "withLastModified");
+        final JVar lastModified = withLastModified.param(JMod.FINAL, Date.class, "lastModified");
+        withLastModified.javadoc().addReturn().add("a copy of this response with a Last-Modified header");
+        withLastModified.body()._return(JExpr._new(responseClass).arg(
+            responseType.staticInvoke("fromResponse")
+                .arg(JExpr._this())
+                .invoke("lastModified")
+                .arg(lastModified)
+                .invoke("build")));
+
+        final JMethod evaluatePreconditions = responseClass.method(PUBLIC + STATIC, responseClass,
+            "evaluatePreconditions");
+        final JVar request = evaluatePreconditions.param(JMod.FINAL, Request.class, "request");
+        final JVar currentEntityTag = evaluatePreconditions.param(JMod.FINAL, EntityTag.class, "entityTag");
+        final JVar currentLastModified = evaluatePreconditions.param(JMod.FINAL, Date.class, "lastModified");
+        final JDocComment javadoc = evaluatePreconditions.javadoc();
+        javadoc.add("Evaluates the request's conditional headers against the current validators of the resource.");
+        javadoc.addParam(currentEntityTag).add("the current ETag, or null");
+        javadoc.addParam(currentLastModified).add("the current modification date, or null");
+        javadoc.addReturn().add("a 304 or 412 response, or null if the request must be processed");
+        final JBlock body = evaluatePreconditions.body();
+        final JVar builderVariable = body.decl(JMod.FINAL, types.getGeneratorType(ResponseBuilder.class),
+            "responseBuilder",
+            JExpr.invoke("evaluateValidators").arg(request).arg(currentEntityTag).arg(currentLastModified));
+        body._return(JOp.cond(builderVariable.eq(JExpr._null()), JExpr._null(),
+            JExpr._new(responseClass).arg(builderVariable.invoke("build"))));
+    }
+
     private void addAsyncResponseParameter(String asyncResourceTrait,final JMethod method,final JDocComment javadoc) throws Exception {
     	
       final String argumentName = Names.buildVariableName(asyncResourceTrait);
@@ -194,13 +326,62 @@ public class Generator extends AbstractGenerator
       javadoc.addParam( argumentVariable.name()).add(asyncResourceTrait);
    }
 
-    private JDefinedClass createResourceMethodReturnType(final String methodName,
+    /**
+     * Implements <code>method</code> in the resource interface's AsyncDispatcher: the call is
+     * handed to AsyncExecution, which runs the abstract <code>methodBlocking</code> counterpart on
+     * its executor and resumes the AsyncResponse with the result.
+     */
+    private void addAsyncDispatchMethod(final JDefinedClass resourceInterface,
+                                        final JMethod method,
+                                        final String asyncResourceTrait,
+                                        final JDefinedClass responseClass) throws Exception
+    {
+        final JDefinedClass dispatcher = context.getAsyncDispatcher(resourceInterface);
+        final String asyncResponseName = Names.buildVariableName(asyncResourceTrait);
+        final String blockingMethodName = method.name() + "Blocking";
+
+        final JMethod blockingMethod = dispatcher.method(JMod.PROTECTED | JMod.ABSTRACT, responseClass,
+            blockingMethodName);
+        if (context.getConfiguration().getMethodThrowException() != null)
+        {
+            blockingMethod._throws(context.getConfiguration().getMethodThrowException());
+        }
+
+        final JMethod dispatchMethod = dispatcher.method(PUBLIC, types.getGeneratorType(void.class),
+            method.name());
+        final JInvocation blockingCall = JExpr.invoke(blockingMethodName);
+        JVar asyncResponse = null;
+        for (final JVar param : method.params())
+        {
+            final JVar dispatchParam = dispatchMethod.param(JMod.FINAL, param.type(), param.name());
+            if (asyncResponseName.equals(param.name()))
+            {
+                asyncResponse = dispatchParam;
+                continue;
+            }
+            blockingMethod.param(param.type(), param.name());
+            blockingCall.arg(dispatchParam);
+        }
+
+        final JDefinedClass task = context.createAnonymousClass(types.getGeneratorClass(Callable.class)
+            .narrow(Object.class));
+        final JMethod call = task.method(PUBLIC, Object.class, "call");
+        call._throws(Exception.class);
+        call.body()._return(blockingCall);
+
+        dispatchMethod.body().add(context.getAsyncExecutionType()
+            .staticInvoke("dispatch")
+            .arg(asyncResponse)
+            .arg(JExpr.lit(context.getConfiguration().getAsyncTimeout()))
+            .arg(JExpr._new(task)));
+    }
+
+    private JDefinedClass createResourceMethodReturnType(final JDefinedClass responseClass,
                                                          final Action action,
-                                                         final JDefinedClass resourceInterface)
+                                                         final boolean conditional)
         throws Exception
     {
-        final JDefinedClass responseClass = resourceInterface._class(capitalize(methodName) + "Response")
-            ._extends(context.getResponseWrapperType());
+        responseClass._extends(context.getResponseWrapperType());
 
         final JMethod responseClassConstructor = responseClass.constructor(JMod.PRIVATE);
         responseClassConstructor.param(javax.ws.rs.core.Response.class, "delegate");
@@ -210,6 +391,10 @@ public class Generator extends AbstractGenerator
         {
             createResponseBuilderInResourceMethodReturnType(action, responseClass, statusCodeAndResponse);
         }
+        if (conditional)
+        {
+            addConditionalResponseMethods(responseClass);
+        }
 
         return responseClass;
     }
@@ -16,15 +16,19 @@
 package org.raml.jaxrs.codegen.core;
 
 import java.io.InputStreamReader;
+import java.util.Set;
 
 public class GeneratorProxy {
 
-	public void run(InputStreamReader ramlReader, Configuration configuration) throws Exception {
+	/**
+	 * @return the paths of the generated files, relative to the output directory
+	 */
+	public Set<String> run(InputStreamReader ramlReader, Configuration configuration) throws Exception {
 		if (configuration.isGenerateClientInterface()){
-			new ClientGenerator().run(ramlReader, configuration);
+			return new ClientGenerator().run(ramlReader, configuration);
 		}
 		else{
-			new Generator().run(ramlReader, configuration);
+			return new Generator().run(ramlReader, configuration);
 		}
 	}
 
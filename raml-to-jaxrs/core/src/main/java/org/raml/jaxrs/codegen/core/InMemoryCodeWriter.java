@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JPackage;
+
+/**
+ * Renders the files of a code model in memory, keyed by their path relative to the output
+ * directory.
+ */
+class InMemoryCodeWriter extends CodeWriter
+{
+    private final Map<String, byte[]> files = new LinkedHashMap<String, byte[]>();
+
+    @Override
+    public OutputStream openBinary(final JPackage pkg, final String fileName) throws IOException
+    {
+        final String path = pkg.isUnnamed() ? fileName : pkg.name().replace('.', File.separatorChar)
+                                                         + File.separatorChar + fileName;
+        return new ByteArrayOutputStream()
+        {
+            @Override
+            public void close() throws IOException
+            {
+                super.close();
+                add(path, toByteArray());
+            }
+        };
+    }
+
+    /**
+     * Adds a file which isn't rendered by the code model.
+     *
+     * @param path the path of the file relative to the output directory
+     */
+    void add(final String path, final byte[] content)
+    {
+        files.put(path, content);
+    }
+
+    /**
+     * @return the rendered files, by path relative to the output directory, in rendering order
+     */
+    Map<String, byte[]> getFiles()
+    {
+        return files;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        // nothing to release
+    }
+}
@@ -27,13 +27,14 @@ import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
 import org.jsonschema2pojo.AnnotationStyle;
+import org.raml.jaxrs.codegen.core.Configuration.AsyncResourceStyle;
 import org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion;
 
 public class Launcher {
 
 	public static void main(String[] args) {
 		
-		Map<String,String> argMap = createArgMap(args);
+		final Map<String,String> argMap = createArgMap(args);
 		
 		Configuration configuration = createConfiguration(argMap);
 		
@@ -42,14 +43,9 @@ public class Launcher {
 		if(removeOldOutputStringValue!=null){
 			removeOldOutput = Boolean.parseBoolean(removeOldOutputStringValue);
 		}
-		boolean generateClient = false;	
-		String generateClientStringValue = argMap.get("generateClientProxy");
-		if(removeOldOutputStringValue!=null){
-			generateClient = Boolean.parseBoolean(generateClientStringValue);
-		}
-		configuration.setGenerateClientInterface(generateClient);
+		boolean watch = Boolean.parseBoolean(argMap.get("watch"));
 		Collection<File> ramlFiles = getRamlFiles(argMap);
-		if(ramlFiles.isEmpty()){
+		if(ramlFiles.isEmpty() && !watch){
 			return;
 		}
 		
@@ -61,6 +57,11 @@ public class Launcher {
 				e.printStackTrace();
 			}            
         }
+		if (watch)
+		{
+			watch(argMap, configuration.getOutputDirectory());
+			return;
+		}
 		final GeneratorProxy generator = new GeneratorProxy();
 		for (final File ramlFile : ramlFiles)
         {
@@ -74,6 +75,30 @@ public class Launcher {
         }
 	}
 
+	/**
+	 * Regenerates the RAML files affected by each change until the JVM is stopped.
+	 */
+	private static void watch(final Map<String, String> argMap, File outputDirectory) {
+		
+		RamlFileWatcher watcher = new RamlFileWatcher(outputDirectory) {
+			
+			@Override
+			protected Collection<File> listRamlFiles() {
+				return getRamlFiles(argMap);
+			}
+			
+			@Override
+			protected Configuration createConfiguration() {
+				return Launcher.createConfiguration(argMap);
+			}
+		};
+		try {
+			watcher.watch();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	private static Collection<File> getRamlFiles(Map<String, String> argMap) {
 		
 		String sourcePaths = argMap.get("sourcePaths");
@@ -108,6 +133,13 @@ public class Launcher {
 		String jaxrsVersion = "1.1";
 		boolean useJsr303Annotations = false;
 		boolean mapToVoid = false;
+		boolean generateParamConverters = false;
+		boolean generateClient = false;
+		boolean compactResponseClasses = false;
+		String conditionalRequestTrait = null;
+		String asyncResourceTrait = null;
+		String asyncResourceStyle = "suspended";
+		long asyncTimeout = 0;
 		String jsonMapper = "jackson1";
 		
 		
@@ -137,6 +169,27 @@ public class Launcher {
 			else if(argName.equals("jsonMapper")){
 				jsonMapper = argValue;
 			}
+			else if(argName.equals("generateParamConverters")){
+				generateParamConverters = Boolean.parseBoolean(argValue);
+			}
+			else if(argName.equals("conditionalRequestTrait")){
+				conditionalRequestTrait = argValue;
+			}
+			else if(argName.equals("generateClientProxy")){
+				generateClient = Boolean.parseBoolean(argValue);
+			}
+			else if(argName.equals("compactResponseClasses")){
+				compactResponseClasses = Boolean.parseBoolean(argValue);
+			}
+			else if(argName.equals("asyncResourceTrait")){
+				asyncResourceTrait = argValue;
+			}
+			else if(argName.equals("asyncResourceStyle")){
+				asyncResourceStyle = argValue;
+			}
+			else if(argName.equals("asyncTimeout")){
+				asyncTimeout = Long.parseLong(argValue);
+			}
 		}
 		if(basePackageName==null){
 			throw new RuntimeException("Base package must be specified.");
@@ -151,6 +204,13 @@ public class Launcher {
         configuration.setUseJsr303Annotations(useJsr303Annotations);
         configuration.setJsonMapper(AnnotationStyle.valueOf(jsonMapper.toUpperCase()));
         configuration.setSourceDirectory(sourceDirectory);
+        configuration.setGenerateParamConverters(generateParamConverters);
+        configuration.setConditionalRequestTrait(conditionalRequestTrait);
+        configuration.setGenerateClientInterface(generateClient);
+        configuration.setCompactResponseClasses(compactResponseClasses);
+        configuration.setAsyncResourceTrait(asyncResourceTrait);
+        configuration.setAsyncResourceStyle(AsyncResourceStyle.valueOf(asyncResourceStyle.toUpperCase()));
+        configuration.setAsyncTimeout(asyncTimeout);
         
         return configuration;
 	}
@@ -162,7 +222,9 @@ public class Launcher {
 					
 			String argName = args[i];
 			if(argName.startsWith("-")){
-				argName = argName.substring(1);			
+				argName = argName.replaceFirst("^-+", "");
+				// a flag without value, e.g. --watch
+				map.put(argName, "true");
 				if(i+1 < args.length)
 				{
 					String argValue = args[i+1];
@@ -17,13 +17,14 @@ package org.raml.jaxrs.codegen.core;
 
 import static org.apache.commons.lang.StringUtils.defaultIfBlank;
 import static org.apache.commons.lang.StringUtils.isBlank;
-import static org.apache.commons.lang.StringUtils.left;
 import static org.apache.commons.lang.StringUtils.remove;
 import static org.apache.commons.lang.StringUtils.uncapitalize;
-import static org.apache.commons.lang.WordUtils.capitalize;
-import static org.apache.commons.lang.math.NumberUtils.isDigits;
 import static org.raml.jaxrs.codegen.core.Constants.DEFAULT_LOCALE;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.impl.EnglishReasonPhraseCatalog;
 import org.raml.model.Action;
@@ -36,6 +37,12 @@ public class Names
     public static final String MULTIPLE_RESPONSE_HEADERS_ARGUMENT_NAME = "headers";
     public static final String EXAMPLE_PREFIX = " e.g. ";
 
+    private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("\\W+");
+
+    // shared by the generations running in parallel in a build, and bounded for long lived daemons
+    private static final int MAX_CACHED_FRIENDLY_NAMES = 10000;
+    private static final Map<String, String> FRIENDLY_NAMES = new ConcurrentHashMap<String, String>();
+
     public static String buildResourceInterfaceName(final Resource resource)
     {
         final String resourceInterfaceName = buildJavaFriendlyName(defaultIfBlank(resource.getDisplayName(),
@@ -51,18 +58,50 @@ public class Names
         return Constants.JAVA_KEYWORDS.contains(name) ? "$" + name : name;
     }
 
+    /**
+     * @return the ASCII letters and digits of <code>source</code>, with the first one of each run
+     *         upper-cased, prefixed with an underscore if the first one is a digit
+     */
     public static String buildJavaFriendlyName(final String source)
     {
-        final String baseName = source.replaceAll("[\\W_]", " ");
+        // the same URIs and display names are converted for each of their methods and media types
+        final String cachedName = FRIENDLY_NAMES.get(source);
+        if (cachedName != null)
+        {
+            return cachedName;
+        }
 
-        String friendlyName = capitalize(baseName).replaceAll("[\\W_]", "");
+        final StringBuilder friendlyName = new StringBuilder(source.length() + 1);
+        boolean startOfWord = true;
+        for (int i = 0; i < source.length(); i++)
+        {
+            final char c = source.charAt(i);
+            if (isAsciiLetterOrDigit(c))
+            {
+                if (friendlyName.length() == 0 && c >= '0' && c <= '9')
+                {
+                    friendlyName.append('_');
+                }
+                friendlyName.append(startOfWord ? Character.toUpperCase(c) : c);
+                startOfWord = false;
+            }
+            else
+            {
+                startOfWord = true;
+            }
+        }
 
-        if (isDigits(left(friendlyName, 1)))
+        if (FRIENDLY_NAMES.size() >= MAX_CACHED_FRIENDLY_NAMES)
         {
-            friendlyName = "_" + friendlyName;
+            FRIENDLY_NAMES.clear();
         }
+        FRIENDLY_NAMES.put(source, friendlyName.toString());
+        return friendlyName.toString();
+    }
 
-        return friendlyName;
+    private static boolean isAsciiLetterOrDigit(final char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
     }
 
     public static String buildResourceMethodName(final Action action, final MimeType bodyMimeType)
@@ -106,7 +145,7 @@ public class Names
 		if (subType.contains(".")) {
 			// handle types like application/vnd.example.v1+json
 			StringBuilder sb = new StringBuilder();
-			for (String s : subType.split("\\W+")) {
+			for (String s : NON_WORD_CHARACTERS.split(subType)) {
 				sb.append(sb.length() == 0 ? s : StringUtils.capitalize(s));
 			}
 			return sb.toString();
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Watch mode of the {@link Launcher}: regenerates the code of RAML files when they, or the files
+ * they include, change, in the same JVM.
+ * <p>
+ * Each RAML file is generated with its own {@link CodegenSession}, whose resource files are the
+ * includes to watch. Only the RAML files affected by a change are generated again, and the files
+ * they generated before but no longer do are deleted. Files are polled, as this has to run on
+ * Java 6, and changes are coalesced until nothing changed for {@link #QUIET_PERIOD} ms, so that
+ * saving several files at once regenerates once.
+ */
+abstract class RamlFileWatcher
+{
+    static final long POLL_INTERVAL = 200;
+    static final long QUIET_PERIOD = 300;
+
+    private final File outputDirectory;
+    private final Map<File, Map<File, String>> dependencies = new LinkedHashMap<File, Map<File, String>>();
+    private final Map<File, Set<String>> outputs = new HashMap<File, Set<String>>();
+
+    RamlFileWatcher(final File outputDirectory)
+    {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * @return the RAML files to generate code for, listed again on each poll
+     */
+    protected abstract Collection<File> listRamlFiles();
+
+    /**
+     * @return a new configuration writing to the output directory, one per generation of a
+     *         RAML file
+     */
+    protected abstract Configuration createConfiguration();
+
+    /**
+     * Generates all the RAML files, then polls until the thread is interrupted.
+     */
+    public void watch() throws InterruptedException
+    {
+        update();
+        System.out.println("Watching " + dependencies.size() + " RAML file(s) for changes...");
+        while (!Thread.currentThread().isInterrupted())
+        {
+            Thread.sleep(POLL_INTERVAL);
+            if (hasChanges())
+            {
+                awaitQuietPeriod();
+                update();
+            }
+        }
+    }
+
+    /**
+     * Generates the RAML files which are new or depend on a changed file, and deletes the output
+     * of removed ones.
+     *
+     * @return the number of generated RAML files
+     */
+    int update()
+    {
+        final Collection<File> ramlFiles = listRamlFiles();
+        for (final File removed : new ArrayList<File>(dependencies.keySet()))
+        {
+            if (!ramlFiles.contains(removed))
+            {
+                dependencies.remove(removed);
+                deleteStaleOutputs(removed, new HashSet<String>());
+                outputs.remove(removed);
+            }
+        }
+
+        int generated = 0;
+        for (final File ramlFile : ramlFiles)
+        {
+            final Map<File, String> stamps = dependencies.get(ramlFile);
+            if (stamps == null || !stamps.equals(currentStamps(stamps.keySet())))
+            {
+                generate(ramlFile);
+                generated++;
+            }
+        }
+        return generated;
+    }
+
+    private void generate(final File ramlFile)
+    {
+        final long start = System.currentTimeMillis();
+        final Map<File, String> stamps = new HashMap<File, String>();
+        stamps.put(ramlFile, CodegenSession.stamp(ramlFile));
+
+        final Configuration configuration = createConfiguration();
+        final CodegenSession session = new CodegenSession();
+        configuration.setSession(session);
+        try
+        {
+            final FileReader ramlReader = new FileReader(ramlFile);
+            final Set<String> generatedFiles;
+            try
+            {
+                generatedFiles = new GeneratorProxy().run(ramlReader, configuration);
+            }
+            finally
+            {
+                ramlReader.close();
+            }
+            deleteStaleOutputs(ramlFile, generatedFiles);
+            outputs.put(ramlFile, generatedFiles);
+            System.out.println("Generated Java classes from: " + ramlFile + " in "
+                               + (System.currentTimeMillis() - start) + " ms");
+        }
+        catch (final Exception e)
+        {
+            // keep the previous output and watch the includes of both runs until it is fixed
+            System.err.println("Error generating Java classes from: " + ramlFile);
+            e.printStackTrace();
+            final Map<File, String> previous = dependencies.get(ramlFile);
+            if (previous != null)
+            {
+                stamps.putAll(currentStamps(previous.keySet()));
+            }
+        }
+        stamps.putAll(session.getResourceFiles());
+        dependencies.put(ramlFile, stamps);
+    }
+
+    /**
+     * Deletes the files <code>ramlFile</code> generated before but not this time, unless another
+     * RAML file generated them as well.
+     */
+    private void deleteStaleOutputs(final File ramlFile, final Set<String> generatedFiles)
+    {
+        final Set<String> previousFiles = outputs.get(ramlFile);
+        if (previousFiles == null)
+        {
+            return;
+        }
+        final Set<String> staleFiles = new HashSet<String>(previousFiles);
+        staleFiles.removeAll(generatedFiles);
+        for (final Map.Entry<File, Set<String>> output : outputs.entrySet())
+        {
+            if (!output.getKey().equals(ramlFile))
+            {
+                staleFiles.removeAll(output.getValue());
+            }
+        }
+        for (final String staleFile : staleFiles)
+        {
+            new File(outputDirectory, staleFile).delete();
+        }
+    }
+
+    private boolean hasChanges()
+    {
+        final Collection<File> ramlFiles = listRamlFiles();
+        if (!dependencies.keySet().containsAll(ramlFiles) || !ramlFiles.containsAll(dependencies.keySet()))
+        {
+            return true;
+        }
+        for (final Map<File, String> stamps : dependencies.values())
+        {
+            if (!stamps.equals(currentStamps(stamps.keySet())))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void awaitQuietPeriod() throws InterruptedException
+    {
+        Map<File, String> snapshot = snapshot();
+        while (true)
+        {
+            Thread.sleep(QUIET_PERIOD);
+            final Map<File, String> next = snapshot();
+            if (next.equals(snapshot))
+            {
+                return;
+            }
+            snapshot = next;
+        }
+    }
+
+    /**
+     * @return the stamps of all the RAML files and their dependencies
+     */
+    private Map<File, String> snapshot()
+    {
+        final List<File> files = new ArrayList<File>(listRamlFiles());
+        for (final Map<File, String> stamps : dependencies.values())
+        {
+            files.addAll(stamps.keySet());
+        }
+        return currentStamps(files);
+    }
+
+    private static Map<File, String> currentStamps(final Collection<File> files)
+    {
+        final Map<File, String> stamps = new HashMap<File, String>();
+        for (final File file : files)
+        {
+            stamps.put(file, CodegenSession.stamp(file));
+        }
+        return stamps;
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.raml.model.Raml;
+import org.raml.model.Resource;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+/**
+ * Selects the resources to generate code for by their full URI, e.g. <code>/users/{userId}</code>.
+ * Patterns match whole URIs: <code>*</code> stands for any characters within a path segment and
+ * <code>**</code> for any number of segments. A matching resource brings its nested resources
+ * along, so <code>/users</code> selects the users resource and everything below it.
+ * <p>
+ * If there are include patterns, resources matching none of them are dropped, except for the
+ * ancestors of included ones, which are kept without their own actions. Resources matching an
+ * exclude pattern are always dropped.
+ */
+public class ResourceFilter
+{
+    private enum Selection
+    {
+        DROPPED, PATH_ONLY, INCLUDED
+    }
+
+    private final List<Pattern> includes;
+    private final List<Pattern> excludes;
+
+    public ResourceFilter(final Collection<String> includes, final Collection<String> excludes)
+    {
+        this.includes = compile(includes);
+        this.excludes = compile(excludes);
+    }
+
+    public boolean isEmpty()
+    {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    /**
+     * Blanks out the source of the dropped resources, so that the parser neither resolves their
+     * templates and includes nor validates them. Line numbers are preserved. Resources which
+     * can't be cut out of the text safely, e.g. in flow style or sharing YAML anchors with the
+     * rest of the document, are left in for {@link #filter(Raml)}.
+     *
+     * @return the filtered RAML source, or <code>raml</code> itself if nothing was dropped
+     */
+    public String filter(final String raml)
+    {
+        if (isEmpty())
+        {
+            return raml;
+        }
+        final Node root;
+        try
+        {
+            root = new Yaml().compose(new StringReader(raml));
+        }
+        catch (final YAMLException ye)
+        {
+            // left to the validation to report
+            return raml;
+        }
+        if (!(root instanceof MappingNode))
+        {
+            return raml;
+        }
+
+        final List<NodeTuple> dropped = new ArrayList<NodeTuple>();
+        final List<Node> kept = new ArrayList<Node>();
+        collectDropped((MappingNode) root, "", false, dropped, kept);
+        if (dropped.isEmpty())
+        {
+            return raml;
+        }
+
+        // a tuple stays if its nodes are also reachable through the text left in, which grows
+        // with every tuple that has to stay
+        final Set<Node> keptNodes = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+        for (final Node node : kept)
+        {
+            collectNodes(node, keptNodes);
+        }
+        final List<NodeTuple> blanked = new ArrayList<NodeTuple>(dropped);
+        boolean settled = false;
+        while (!settled)
+        {
+            settled = true;
+            for (final Iterator<NodeTuple> it = blanked.iterator(); it.hasNext();)
+            {
+                final NodeTuple tuple = it.next();
+                if (!canBlankOut(raml, tuple, keptNodes))
+                {
+                    it.remove();
+                    collectNodes(tuple.getKeyNode(), keptNodes);
+                    collectNodes(tuple.getValueNode(), keptNodes);
+                    settled = false;
+                }
+            }
+        }
+        if (blanked.isEmpty())
+        {
+            return raml;
+        }
+
+        final char[] source = raml.toCharArray();
+        for (final NodeTuple tuple : blanked)
+        {
+            final int end = tuple.getValueNode().getEndMark().getIndex();
+            for (int i = tuple.getKeyNode().getStartMark().getIndex(); i < end; i++)
+            {
+                if (source[i] != '\n' && source[i] != '\r')
+                {
+                    source[i] = ' ';
+                }
+            }
+        }
+        return new String(source);
+    }
+
+    /**
+     * Removes the dropped resources from a parsed model, and the actions of the resources that are
+     * only kept as the path to included ones.
+     */
+    public void filter(final Raml raml)
+    {
+        if (!isEmpty())
+        {
+            filter(raml.getResources(), "", false);
+        }
+    }
+
+    private void filter(final Map<String, Resource> resources, final String parentUri, final boolean parentIncluded)
+    {
+        for (final Iterator<Map.Entry<String, Resource>> it = resources.entrySet().iterator(); it.hasNext();)
+        {
+            final Map.Entry<String, Resource> entry = it.next();
+            final String uri = parentUri + entry.getKey();
+            final Selection selection = select(uri, parentIncluded);
+            if (selection == Selection.DROPPED)
+            {
+                it.remove();
+                continue;
+            }
+            if (selection == Selection.PATH_ONLY)
+            {
+                entry.getValue().getActions().clear();
+            }
+            filter(entry.getValue().getResources(), uri, selection == Selection.INCLUDED);
+        }
+    }
+
+    private Selection select(final String uri, final boolean parentIncluded)
+    {
+        if (matchesAny(excludes, uri))
+        {
+            return Selection.DROPPED;
+        }
+        if (parentIncluded || includes.isEmpty() || matchesAny(includes, uri))
+        {
+            return Selection.INCLUDED;
+        }
+        for (final Pattern include : includes)
+        {
+            // could a nested resource still match?
+            final Matcher matcher = include.matcher(uri + "/");
+            if (matcher.matches() || matcher.hitEnd())
+            {
+                return Selection.PATH_ONLY;
+            }
+        }
+        return Selection.DROPPED;
+    }
+
+    private void collectDropped(final MappingNode node,
+                                final String parentUri,
+                                final boolean parentIncluded,
+                                final List<NodeTuple> dropped,
+                                final List<Node> kept)
+    {
+        for (final NodeTuple tuple : node.getValue())
+        {
+            final String key = tuple.getKeyNode() instanceof ScalarNode ? ((ScalarNode) tuple.getKeyNode()).getValue() : null;
+            if (key == null || !key.startsWith("/"))
+            {
+                kept.add(tuple.getKeyNode());
+                kept.add(tuple.getValueNode());
+                continue;
+            }
+            final String uri = parentUri + key;
+            final Selection selection = select(uri, parentIncluded);
+            if (selection == Selection.DROPPED && !Boolean.TRUE.equals(node.getFlowStyle()))
+            {
+                dropped.add(tuple);
+                continue;
+            }
+            kept.add(tuple.getKeyNode());
+            if (selection != Selection.DROPPED && tuple.getValueNode() instanceof MappingNode)
+            {
+                collectDropped((MappingNode) tuple.getValueNode(), uri, selection == Selection.INCLUDED, dropped, kept);
+            }
+            else
+            {
+                kept.add(tuple.getValueNode());
+            }
+        }
+    }
+
+    private boolean canBlankOut(final String raml, final NodeTuple tuple, final Set<Node> keptNodes)
+    {
+        final int start = tuple.getKeyNode().getStartMark().getIndex();
+        final int end = tuple.getValueNode().getEndMark().getIndex();
+        final String key = ((ScalarNode) tuple.getKeyNode()).getValue();
+        if (start < 0 || end > raml.length() || !raml.startsWith(key, start)
+            || tuple.getValueNode().getStartMark().getIndex() < start)
+        {
+            // quoted keys, aliased values or marks not counted in chars
+            return false;
+        }
+        final Set<Node> nodes = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+        collectNodes(tuple.getKeyNode(), nodes);
+        collectNodes(tuple.getValueNode(), nodes);
+        nodes.retainAll(keptNodes);
+        return nodes.isEmpty();
+    }
+
+    private static void collectNodes(final Node node, final Set<Node> nodes)
+    {
+        if (!nodes.add(node))
+        {
+            return;
+        }
+        if (node.getNodeId() == NodeId.mapping)
+        {
+            for (final NodeTuple tuple : ((MappingNode) node).getValue())
+            {
+                collectNodes(tuple.getKeyNode(), nodes);
+                collectNodes(tuple.getValueNode(), nodes);
+            }
+        }
+        else if (node.getNodeId() == NodeId.sequence)
+        {
+            for (final Node item : ((SequenceNode) node).getValue())
+            {
+                collectNodes(item, nodes);
+            }
+        }
+    }
+
+    private static boolean matchesAny(final List<Pattern> patterns, final String uri)
+    {
+        for (final Pattern pattern : patterns)
+        {
+            if (pattern.matcher(uri).matches())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Pattern> compile(final Collection<String> patterns)
+    {
+        final List<Pattern> compiled = new ArrayList<Pattern>();
+        if (patterns == null)
+        {
+            return compiled;
+        }
+        for (final String pattern : patterns)
+        {
+            if (pattern != null && pattern.trim().length() > 0)
+            {
+                compiled.add(compile(pattern.trim()));
+            }
+        }
+        return compiled;
+    }
+
+    static Pattern compile(final String pattern)
+    {
+        final StringBuilder regex = new StringBuilder();
+        for (final String segment : pattern.split("/"))
+        {
+            if (segment.length() == 0)
+            {
+                continue;
+            }
+            if (segment.equals("**"))
+            {
+                regex.append("(/.*)?");
+                continue;
+            }
+            regex.append('/');
+            final String[] literals = segment.split("\\*", -1);
+            for (int i = 0; i < literals.length; i++)
+            {
+                if (i > 0)
+                {
+                    regex.append("[^/]*");
+                }
+                if (literals[i].length() > 0)
+                {
+                    regex.append(Pattern.quote(literals[i]));
+                }
+            }
+        }
+        return Pattern.compile(regex.length() == 0 ? "/?" : regex.toString());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.apache.commons.lang.StringUtils.trimToEmpty;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Content address of a schema: the SHA-256 of its canonical form, so that schemas which only
+ * differ in formatting or JSON key order map to the same generated classes.
+ */
+public final class SchemaFingerprint
+{
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ObjectMapper CANONICAL_JSON_MAPPER = new ObjectMapper().configure(
+        SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    /**
+     * @return the lower case hex SHA-256 of the canonical form of <code>schema</code>.
+     */
+    public static String of(final String schema)
+    {
+        try
+        {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] hash = digest.digest(canonicalize(schema).getBytes(UTF_8));
+            final char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++)
+            {
+                hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xf];
+            }
+            return new String(hex);
+        }
+        catch (final NoSuchAlgorithmException nsae)
+        {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", nsae);
+        }
+    }
+
+    /**
+     * JSON is re-serialized compactly with sorted keys. Anything else, XML schemas in particular, only
+     * gets line endings and the whitespace between markup normalized.
+     */
+    static String canonicalize(final String schema)
+    {
+        final String trimmed = trimToEmpty(schema);
+        if (trimmed.startsWith("{"))
+        {
+            try
+            {
+                final Object json = CANONICAL_JSON_MAPPER.readValue(trimmed, Object.class);
+                return CANONICAL_JSON_MAPPER.writeValueAsString(json);
+            }
+            catch (final IOException ioe)
+            {
+                // not valid JSON: fall back to the textual normalization
+            }
+        }
+        return trimmed.replace("\r\n", "\n").replaceAll(">\\s+<", "><");
+    }
+
+    private SchemaFingerprint()
+    {
+        throw new UnsupportedOperationException();
+    }
+}
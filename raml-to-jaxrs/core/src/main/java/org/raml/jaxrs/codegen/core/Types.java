@@ -34,9 +34,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.net.URL;
+import java.util.AbstractMap.SimpleEntry;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -166,6 +169,15 @@ public class Types
             return existingClass;
         }
 
+        // generated while processing another RAML file with the same configuration
+        final String sharedClassName = getGeneratedSchemaClasses().get(buildSchemaKey);
+        if (sharedClassName != null)
+        {
+            final JClass sharedClass = context.getGeneratorClass(sharedClassName);
+            schemaClasses.put(buildSchemaKey, sharedClass);
+            return sharedClass;
+        }
+
         if (isCompatibleWith(mimeType, APPLICATION_XML, TEXT_XML))
         {
             //at this point all classes generated from XSDs are contained in the schemaClasses map;
@@ -173,16 +185,11 @@ public class Types
         }
         else if (isCompatibleWith(mimeType, APPLICATION_JSON))
         {
-            final Entry<File, String> schemaNameAndFile = context.getSchemaFile(schemaNameOrContent);
-            if (isBlank(schemaNameAndFile.getValue()))
-            {
-                schemaNameAndFile.setValue(buildNestedSchemaName(mimeType));
-            }
-
-            final String className = buildJavaFriendlyName(schemaNameAndFile.getValue());
-            final JClass generatedClass = context.generateClassFromJsonSchema(className,
-                schemaNameAndFile.getKey().toURI().toURL());
+            final Entry<String, URL> classNameAndSchema = getJsonSchema(mimeType);
+            final JClass generatedClass = context.generateClassFromJsonSchema(classNameAndSchema.getKey(),
+                classNameAndSchema.getValue());
             schemaClasses.put(buildSchemaKey, generatedClass);
+            getGeneratedSchemaClasses().put(buildSchemaKey, generatedClass.fullName());
             return generatedClass;
         }
         else
@@ -191,6 +198,21 @@ public class Types
         }
     }
 
+    /**
+     * @return a {class name, schema URL} tuple.
+     */
+    private Entry<String, URL> getJsonSchema(final MimeType mimeType) throws IOException
+    {
+        final Entry<File, String> schemaNameAndFile = context.getSchemaFile(mimeType.getSchema());
+        if (isBlank(schemaNameAndFile.getValue()))
+        {
+            schemaNameAndFile.setValue(buildNestedSchemaName(mimeType));
+        }
+
+        return new SimpleEntry<String, URL>(buildJavaFriendlyName(schemaNameAndFile.getValue()),
+            schemaNameAndFile.getKey().toURI().toURL());
+    }
+
     private boolean isCompatibleWith(final MimeType mt, final String... mediaTypes)
     {
         final String mimeType = mt.getType();
@@ -224,9 +246,20 @@ public class Types
         return false;
     }
 
+    /**
+     * Keys schemas by content rather than by media type, so that a schema declared inline, globally
+     * or for several media types only gets its classes generated once.
+     */
     private String buildSchemaKey(final MimeType mimeType)
     {
-        return Names.getShortMimeType(mimeType) + "@" + mimeType.getSchema().hashCode();
+        final String schemaContent = context.getSchemaContent(mimeType.getSchema());
+        final CodegenSession session = context.getConfiguration().getSession();
+        return session == null ? SchemaFingerprint.of(schemaContent) : session.fingerprint(schemaContent);
+    }
+
+    private Map<String, String> getGeneratedSchemaClasses()
+    {
+        return context.getConfiguration().getGeneratedSchemaClasses();
     }
 
     static Class<?> getJavaType(final AbstractParam parameter)
@@ -259,6 +292,67 @@ public class Types
         }
     }
     
+    /**
+     * Generates the classes of all the JSON schemas of the resources concurrently, so that creating
+     * the resource interfaces only looks them up.
+     */
+    public void generateClassesFromJsonSchemas(final Collection<Resource> resources) throws IOException
+    {
+        final Map<String, Entry<String, URL>> schemas = new LinkedHashMap<String, Entry<String, URL>>();
+        for (final Resource resource : resources)
+        {
+            collectJsonSchemas(resource, schemas);
+        }
+
+        final Map<String, JClass> jsonSchemaClasses = context.generateClassesFromJsonSchemas(schemas);
+        schemaClasses.putAll(jsonSchemaClasses);
+        for (final Entry<String, JClass> keyAndClass : jsonSchemaClasses.entrySet())
+        {
+            getGeneratedSchemaClasses().put(keyAndClass.getKey(), keyAndClass.getValue().fullName());
+        }
+    }
+
+    private void collectJsonSchemas(final Resource resource, final Map<String, Entry<String, URL>> schemas)
+        throws IOException
+    {
+        for (final Action action : resource.getActions().values())
+        {
+            if (action.getBody() != null)
+            {
+                collectJsonSchemas(action.getBody().values(), schemas);
+            }
+            for (final Response response : action.getResponses().values())
+            {
+                if (response.getBody() != null)
+                {
+                    collectJsonSchemas(response.getBody().values(), schemas);
+                }
+            }
+        }
+        for (final Resource childResource : resource.getResources().values())
+        {
+            collectJsonSchemas(childResource, schemas);
+        }
+    }
+
+    private void collectJsonSchemas(final Collection<MimeType> mimeTypes,
+                                    final Map<String, Entry<String, URL>> schemas) throws IOException
+    {
+        for (final MimeType mimeType : mimeTypes)
+        {
+            if (isBlank(mimeType.getSchema()) || !isCompatibleWith(mimeType, APPLICATION_JSON))
+            {
+                continue;
+            }
+            final String schemaKey = buildSchemaKey(mimeType);
+            if (!schemas.containsKey(schemaKey) && !schemaClasses.containsKey(schemaKey)
+                && !getGeneratedSchemaClasses().containsKey(schemaKey))
+            {
+                schemas.put(schemaKey, getJsonSchema(mimeType));
+            }
+        }
+    }
+
     public void generateClassesFromXmlSchemas(Collection<Resource> resources) {
 
         if (resources == null) {
@@ -268,7 +362,12 @@ public class Types
         for (Resource r : resources) {
             collectXmlSchemaFiles(r, schemaFiles);
         }
-        schemaClasses.putAll(context.generateClassesFromXmlSchemas(schemaFiles));
+        final Map<String, JClass> xmlSchemaClasses = context.generateClassesFromXmlSchemas(schemaFiles);
+        schemaClasses.putAll(xmlSchemaClasses);
+        for (final Entry<String, JClass> keyAndClass : xmlSchemaClasses.entrySet())
+        {
+            getGeneratedSchemaClasses().put(keyAndClass.getKey(), keyAndClass.getValue().fullName());
+        }
     }
 
     public void collectXmlSchemaFiles(Resource resource,
@@ -320,6 +419,9 @@ public class Types
             return;
         }
         final String buildSchemaKey = buildSchemaKey(mimeType);
+        if (schemaFiles.containsKey(buildSchemaKey) || getGeneratedSchemaClasses().containsKey(buildSchemaKey)) {
+            return;
+        }
         final Entry<File, String> schemaNameAndFile = context.getSchemaFile(schemaNameOrContent);
         schemaFiles.put(buildSchemaKey, schemaNameAndFile.getKey());
     }
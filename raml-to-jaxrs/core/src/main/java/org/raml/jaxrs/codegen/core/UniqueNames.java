@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The names taken in a scope, such as a package or a class, which makes names unique by appending
+ * 1, 2, ... to them.
+ * <p>
+ * The next number to try is kept per name, so that taking the same name over and over doesn't
+ * probe all the numbers taken before.
+ */
+class UniqueNames
+{
+    private final Set<String> names = new HashSet<String>();
+    private final Map<String, Integer> nextSuffixes = new HashMap<String, Integer>();
+
+    /**
+     * @return <code>name</code>, or <code>name</code> followed by the lowest number which makes it
+     *         unique, now taken
+     */
+    String take(final String name)
+    {
+        final Integer nextSuffix = nextSuffixes.get(name);
+        int suffix = nextSuffix == null ? 0 : nextSuffix;
+        String actualName = suffix == 0 ? name : name + suffix;
+        while (isTakenElsewhere(actualName) || !names.add(actualName))
+        {
+            actualName = name + ++suffix;
+        }
+        nextSuffixes.put(name, suffix + 1);
+        return actualName;
+    }
+
+    /**
+     * @return <code>true</code> if the name is taken by something not declared in this scope,
+     *         <code>false</code> by default
+     */
+    protected boolean isTakenElsewhere(final String name)
+    {
+        return false;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core.ext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.raml.model.Action;
+import org.raml.model.MimeType;
+import org.raml.model.Resource;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JVar;
+import com.sun.codemodel.fmt.JTextFile;
+
+/**
+ * Generator extension instrumenting every generated resource method with a latency histogram.
+ * Requires JAX-RS 2.0.
+ * <p>
+ * For each resource interface a <code>DynamicFeature</code> named <code>&lt;Interface&gt;Metrics</code> is
+ * generated next to it. It pre-registers one <code>LatencyRecorder</code> per resource method, keyed by RAML
+ * resource URI and action, and binds a dedicated <code>LatencyFilter</code> to each method when the
+ * application is deployed, so serving a request involves no lookup. Recorders are exported via JMX and
+ * <code>LatencyRegistry.writeText</code>; the support classes go to the <code>support</code> package.
+ */
+public class LatencyMetricsExtension extends AbstractGeneratorExtension {
+
+	private static final String[] SUPPORT_CLASSES = { "LatencyRecorderMBean", "LatencyRecorder",
+			"LatencyFilter", "LatencyRegistry" };
+
+	private final List<Route> pendingRoutes = new ArrayList<Route>();
+
+	private JCodeModel instrumentedCodeModel;
+
+	@Override
+	public void onAddResourceMethod(JMethod method, Action action, MimeType bodyMimeType,
+			Collection<MimeType> uniqueResponseMimeTypes) {
+		pendingRoutes.add(new Route(method.name(), action.getResource().getUri(), action.getType()
+				.toString()));
+	}
+
+	@Override
+	public void onCreateResourceInterface(JDefinedClass resourceInterface, Resource resource) {
+		final List<Route> routes = new ArrayList<Route>(pendingRoutes);
+		pendingRoutes.clear();
+		if (routes.isEmpty()) {
+			return;
+		}
+
+		try {
+			generateMetricsFeature(resourceInterface, routes);
+		} catch (final JClassAlreadyExistsException e) {
+			throw new IllegalStateException("Metrics feature already exists for "
+					+ resourceInterface.fullName(), e);
+		} catch (final IOException e) {
+			throw new IllegalStateException("Can't load latency metrics templates", e);
+		}
+	}
+
+	private void generateMetricsFeature(final JDefinedClass resourceInterface, final List<Route> routes)
+			throws JClassAlreadyExistsException, IOException {
+		final JCodeModel codeModel = resourceInterface.owner();
+		final String supportPackage = StringUtils.substringBeforeLast(resourceInterface._package().name(),
+				".") + ".support";
+		if (codeModel != instrumentedCodeModel) {
+			addSupportClasses(codeModel._package(supportPackage));
+			instrumentedCodeModel = codeModel;
+		}
+
+		final JClass recorderType = codeModel.directClass(supportPackage + ".LatencyRecorder");
+		final JClass registryType = codeModel.directClass(supportPackage + ".LatencyRegistry");
+		final JClass filterType = codeModel.directClass(supportPackage + ".LatencyFilter");
+
+		final JDefinedClass feature = resourceInterface._package()._class(resourceInterface.name() + "Metrics");
+		feature._implements(codeModel.ref("javax.ws.rs.container.DynamicFeature"));
+		feature.annotate(codeModel.ref("javax.ws.rs.ext.Provider"));
+		feature.javadoc().add("Binds a latency filter to each method of {@link " + resourceInterface.name()
+				+ "} implementations.");
+
+		final JMethod recorderFor = feature.method(JMod.PRIVATE | JMod.STATIC, recorderType, "recorderFor");
+		final JVar methodName = recorderFor.param(JMod.FINAL, String.class, "methodName");
+		final Set<String> constantNames = new HashSet<String>();
+		for (final Route route : routes) {
+			final JFieldVar recorder = feature.field(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, recorderType,
+					buildConstantName(route.methodName, constantNames),
+					registryType.staticInvoke("register").arg(route.uri).arg(route.action)
+							.arg(resourceInterface.name() + "." + route.methodName));
+			recorderFor.body()._if(JExpr.lit(route.methodName).invoke("equals").arg(methodName))._then()
+					._return(recorder);
+		}
+		recorderFor.body()._return(JExpr._null());
+
+		final JMethod configure = feature.method(JMod.PUBLIC, codeModel.VOID, "configure");
+		configure.annotate(Override.class);
+		final JVar resourceInfo = configure.param(JMod.FINAL,
+				codeModel.ref("javax.ws.rs.container.ResourceInfo"), "resourceInfo");
+		final JVar context = configure.param(JMod.FINAL, codeModel.ref("javax.ws.rs.core.FeatureContext"),
+				"context");
+		final JBlock body = configure.body();
+		body._if(
+				JExpr.dotclass(resourceInterface).invoke("isAssignableFrom")
+						.arg(resourceInfo.invoke("getResourceClass")).not())._then()._return();
+		final JVar recorder = body.decl(JMod.FINAL, recorderType, "recorder",
+				JExpr.invoke(recorderFor).arg(resourceInfo.invoke("getResourceMethod").invoke("getName")));
+		body._if(recorder.ne(JExpr._null()))._then().invoke(context, "register")
+				.arg(JExpr._new(filterType).arg(recorder));
+	}
+
+	private void addSupportClasses(final JPackage supportPackage) throws IOException {
+		for (final String className : SUPPORT_CLASSES) {
+			final InputStream template = getClass().getResourceAsStream(
+					"/org/raml/templates/" + className + ".jaxrs_2_0.template");
+			try {
+				final JTextFile source = new JTextFile(className + ".java");
+				source.setContents(IOUtils.toString(template).replace("${codegen.support.package}",
+						supportPackage.name()));
+				supportPackage.addResourceFile(source);
+			} finally {
+				IOUtils.closeQuietly(template);
+			}
+		}
+	}
+
+	private static String buildConstantName(final String methodName, final Set<String> usedNames) {
+		final String base = methodName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+		String name = base;
+		for (int i = 1; !usedNames.add(name); i++) {
+			name = base + "_" + i;
+		}
+		return name;
+	}
+
+	private static class Route {
+		final String methodName;
+		final String uri;
+		final String action;
+
+		Route(final String methodName, final String uri, final String action) {
+			this.methodName = methodName;
+			this.uri = uri;
+			this.action = action;
+		}
+	}
+}
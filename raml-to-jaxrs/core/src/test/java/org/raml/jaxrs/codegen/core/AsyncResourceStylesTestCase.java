@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.raml.jaxrs.codegen.core.Configuration.AsyncResourceStyle;
+import org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion;
+
+public class AsyncResourceStylesTestCase
+{
+    private static final String JOBS_SOURCE = "org/raml/jaxrs/test/resource/Jobs.java";
+
+    @Rule
+    public GeneratedCode generatedCode = new GeneratedCode();
+
+    @Test
+    public void suspended() throws Exception
+    {
+        final Set<String> generatedSources = generate(AsyncResourceStyle.SUSPENDED);
+
+        final String jobs = generatedCode.read(JOBS_SOURCE);
+        assertThat(jobs, containsString("void getJobs("));
+        assertThat(jobs, containsString("@Suspended"));
+        assertThat(jobs, containsString("AsyncResponse async)"));
+        assertThat(jobs, containsString("Jobs.PostJobsResponse postJobs()"));
+        assertThat(jobs, not(containsString("AsyncDispatcher")));
+        generatedCode.compile(generatedSources);
+    }
+
+    @Test
+    public void completionStage() throws Exception
+    {
+        final Set<String> generatedSources = generate(AsyncResourceStyle.COMPLETION_STAGE);
+
+        final String jobs = generatedCode.read(JOBS_SOURCE);
+        assertThat(jobs, containsString("CompletionStage<Jobs.GetJobsResponse> getJobs()"));
+        assertThat(jobs, containsString("class GetJobsResponse"));
+        assertThat(jobs, not(containsString("AsyncResponse")));
+        assertThat(jobs, not(containsString("AsyncDispatcher")));
+        generatedCode.compile(generatedSources);
+    }
+
+    @Test
+    public void executor() throws Exception
+    {
+        final Set<String> generatedSources = generate(AsyncResourceStyle.EXECUTOR);
+
+        assertThat(generatedSources, hasItem("org/raml/jaxrs/test/support/AsyncExecution.java"));
+        final String jobs = generatedCode.read(JOBS_SOURCE);
+        assertThat(jobs, containsString("void getJobs("));
+        assertThat(jobs, containsString("AsyncResponse async)"));
+        assertThat(jobs, containsString("abstract class AsyncDispatcher"));
+        assertThat(jobs, containsString("implements Jobs"));
+        assertThat(jobs, containsString("abstract Jobs.GetJobsResponse getJobsBlocking()"));
+        assertThat(jobs, containsString("AsyncExecution.dispatch(async, 30000L, "));
+        assertThat(jobs, containsString("return getJobsBlocking();"));
+        // only asynchronous methods are dispatched
+        assertThat(jobs, not(containsString("postJobsBlocking")));
+        generatedCode.compile(generatedSources);
+    }
+
+    @Test
+    public void dispatchedMethodsResumeTheAsyncResponseWithTheBlockingResult() throws Exception
+    {
+        final Set<String> generatedSources = generate(AsyncResourceStyle.EXECUTOR);
+        generatedSources.add(generatedCode.addSource("/org/raml/async/JobsService.java"));
+        final ClassLoader classLoader = generatedCode.compileWithRuntimeDelegate(generatedSources);
+
+        // run the blocking implementation on the calling thread
+        classLoader.loadClass("org.raml.jaxrs.test.support.AsyncExecution")
+            .getMethod("setExecutor", Executor.class)
+            .invoke(null, new Executor()
+            {
+                @Override
+                public void execute(final Runnable command)
+                {
+                    command.run();
+                }
+            });
+
+        final List<Object> resumedWith = new ArrayList<Object>();
+        final Class<?> asyncResponseType = classLoader.loadClass("javax.ws.rs.container.AsyncResponse");
+        final Object asyncResponse = Proxy.newProxyInstance(classLoader, new Class<?>[]{asyncResponseType},
+            new InvocationHandler()
+            {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args)
+                {
+                    if ("resume".equals(method.getName()))
+                    {
+                        resumedWith.add(args[0]);
+                    }
+                    return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                }
+            });
+
+        final Object jobs = classLoader.loadClass("org.raml.async.JobsService").newInstance();
+        classLoader.loadClass("org.raml.jaxrs.test.resource.Jobs")
+            .getMethod("getJobs", asyncResponseType)
+            .invoke(jobs, asyncResponse);
+
+        assertThat(resumedWith, hasSize(1));
+        final Class<?> responseType = classLoader.loadClass("javax.ws.rs.core.Response");
+        assertThat(responseType.getMethod("getStatus").invoke(resumedWith.get(0)), is((Object) 200));
+        assertThat(responseType.getMethod("getEntity").invoke(resumedWith.get(0)), is((Object) "done"));
+    }
+
+    private Set<String> generate(final AsyncResourceStyle asyncResourceStyle) throws Exception
+    {
+        final Configuration configuration = generatedCode.createConfiguration(JaxrsVersion.JAXRS_2_0);
+        configuration.setAsyncResourceTrait("async");
+        configuration.setAsyncResourceStyle(asyncResourceStyle);
+        configuration.setAsyncTimeout(30000);
+
+        return generatedCode.generate("/org/raml/async/jobs.yaml", configuration);
+    }
+}
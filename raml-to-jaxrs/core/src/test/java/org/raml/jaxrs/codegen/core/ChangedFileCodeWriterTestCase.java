@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.codemodel.ClassType;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JMod;
+
+public class ChangedFileCodeWriterTestCase
+{
+    private static final String A_JAVA = "org" + File.separatorChar + "raml" + File.separatorChar + "A.java";
+    private static final String B_JAVA = "org" + File.separatorChar + "raml" + File.separatorChar + "B.java";
+
+    @Rule
+    public TemporaryFolder codegenOutputFolder = new TemporaryFolder();
+
+    @Test
+    public void onlyWritesFilesWhoseContentChanged() throws Exception
+    {
+        final ChangedFileCodeWriter firstRun = build(false);
+        assertThat(firstRun.getAddedFiles().size(), is(2));
+
+        final File a = new File(codegenOutputFolder.getRoot(), A_JAVA);
+        final File b = new File(codegenOutputFolder.getRoot(), B_JAVA);
+        a.setLastModified(1000000000000L);
+        b.setLastModified(1000000000000L);
+
+        final ChangedFileCodeWriter secondRun = build(true);
+        assertThat(secondRun.getAddedFiles().isEmpty(), is(true));
+        assertThat(secondRun.getChangedFiles(), is(Collections.singleton(B_JAVA)));
+        assertThat(secondRun.getUnchangedFiles(), is(Collections.singleton(A_JAVA)));
+        assertThat(secondRun.getGeneratedFiles().size(), is(2));
+        assertThat(a.lastModified(), is(1000000000000L));
+        assertThat(b.lastModified() == 1000000000000L, is(false));
+        // no temporary files left behind
+        assertThat(new File(codegenOutputFolder.getRoot(), "org/raml").list().length, is(2));
+    }
+
+    private ChangedFileCodeWriter build(final boolean abstractB) throws Exception
+    {
+        final JCodeModel codeModel = new JCodeModel();
+        codeModel._class("org.raml.A");
+        codeModel._class(abstractB ? JMod.PUBLIC | JMod.ABSTRACT : JMod.PUBLIC, "org.raml.B", ClassType.CLASS);
+        final ChangedFileCodeWriter codeWriter = new ChangedFileCodeWriter(codegenOutputFolder.getRoot());
+        codeModel.build(codeWriter);
+        return codeWriter;
+    }
+}
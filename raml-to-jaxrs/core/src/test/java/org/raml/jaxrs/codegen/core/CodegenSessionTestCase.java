@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.raml.parser.loader.ClassPathResourceLoader;
+import org.raml.parser.loader.FileResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+
+public class CodegenSessionTestCase
+{
+    @Rule
+    public TemporaryFolder sourceFolder = new TemporaryFolder();
+
+    @Test
+    public void readsIncludedFilesOnceUntilTheyChange() throws IOException
+    {
+        final File include = sourceFolder.newFile("traits.raml");
+        FileUtils.writeStringToFile(include, "paged: {}");
+        final CountingResourceLoader loader = new CountingResourceLoader(
+            new FileResourceLoader(sourceFolder.getRoot().getAbsolutePath()));
+        final CodegenSession session = new CodegenSession();
+
+        assertThat(read(session.cache(loader, sourceFolder.getRoot()), "traits.raml"), is("paged: {}"));
+        assertThat(read(session.cache(loader, sourceFolder.getRoot()), "traits.raml"), is("paged: {}"));
+        assertThat(loader.fetches.get(), is(1));
+
+        FileUtils.writeStringToFile(include, "paged: { queryParameters: {} }");
+        include.setLastModified(include.lastModified() + 2000);
+
+        assertThat(read(session.cache(loader, sourceFolder.getRoot()), "traits.raml"),
+            is("paged: { queryParameters: {} }"));
+        assertThat(loader.fetches.get(), is(2));
+        assertThat(session.getCachedResourceCount(), is(1));
+    }
+
+    @Test
+    public void doesNotCacheMissingResources()
+    {
+        final CountingResourceLoader loader = new CountingResourceLoader(
+            new FileResourceLoader(sourceFolder.getRoot().getAbsolutePath()));
+        final ResourceLoader cachingLoader = new CodegenSession().cache(loader, sourceFolder.getRoot());
+
+        assertThat(cachingLoader.fetchResource("missing.raml"), is(nullValue()));
+        assertThat(cachingLoader.fetchResource("missing.raml"), is(nullValue()));
+        assertThat(loader.fetches.get(), is(2));
+    }
+
+    @Test
+    public void sharesClassPathResourcesAcrossSourceDirectories() throws IOException
+    {
+        final File first = sourceFolder.newFolder("first");
+        final File second = sourceFolder.newFolder("second");
+        final CountingResourceLoader classPathLoader = new CountingResourceLoader(new ClassPathResourceLoader());
+        final CodegenSession session = new CodegenSession();
+
+        final String shared = read(session.cache(classPathLoader, first), "org/raml/responses/wrapper.yaml");
+        assertThat(read(session.cache(classPathLoader, second), "org/raml/responses/wrapper.yaml"), is(shared));
+        assertThat(classPathLoader.fetches.get(), is(1));
+    }
+
+    @Test
+    public void keepsTheResourcesOfEachSourceDirectoryApart() throws IOException
+    {
+        final File first = sourceFolder.newFolder("first");
+        final File second = sourceFolder.newFolder("second");
+        FileUtils.writeStringToFile(new File(first, "traits.raml"), "first: {}");
+        FileUtils.writeStringToFile(new File(second, "traits.raml"), "second: {}");
+        final CodegenSession session = new CodegenSession();
+
+        assertThat(read(session.cache(new FileResourceLoader(first.getAbsolutePath()), first), "traits.raml"),
+            is("first: {}"));
+        assertThat(read(session.cache(new FileResourceLoader(second.getAbsolutePath()), second), "traits.raml"),
+            is("second: {}"));
+
+        // served by other loaders, e.g. from the class paths of two modules, and not found by the session
+        assertThat(read(session.cache(new ConstantResourceLoader("first: {}"), first), "common/traits.raml"),
+            is("first: {}"));
+        assertThat(read(session.cache(new ConstantResourceLoader("second: {}"), second), "common/traits.raml"),
+            is("second: {}"));
+        assertThat(session.getCachedResourceCount(), is(4));
+    }
+
+    @Test
+    public void fingerprintsLikeSchemaFingerprint()
+    {
+        final String schema = "{\"type\": \"object\"}";
+
+        assertThat(new CodegenSession().fingerprint(schema), is(SchemaFingerprint.of(schema)));
+    }
+
+    private static String read(final ResourceLoader loader, final String resourceName) throws IOException
+    {
+        final InputStream inputStream = loader.fetchResource(resourceName);
+        try
+        {
+            return IOUtils.toString(inputStream);
+        }
+        finally
+        {
+            inputStream.close();
+        }
+    }
+
+    private static class CountingResourceLoader implements ResourceLoader
+    {
+        private final ResourceLoader delegate;
+        private final AtomicInteger fetches = new AtomicInteger();
+
+        CountingResourceLoader(final ResourceLoader delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        public InputStream fetchResource(final String resourceName)
+        {
+            fetches.incrementAndGet();
+            return delegate.fetchResource(resourceName);
+        }
+    }
+
+    private static class ConstantResourceLoader implements ResourceLoader
+    {
+        private final String content;
+
+        ConstantResourceLoader(final String content)
+        {
+            this.content = content;
+        }
+
+        public InputStream fetchResource(final String resourceName)
+        {
+            return new ByteArrayInputStream(content.getBytes());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion.JAXRS_1_1;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class CompactResponseClassesTestCase
+{
+    @Rule
+    public GeneratedCode generatedCode = new GeneratedCode();
+
+    @Test
+    public void sharesResponseClassesBetweenMethodsWithTheSameSignature() throws Exception
+    {
+        final Set<String> generatedSources = generate(true);
+
+        assertThat(generatedSources, hasItems("org/raml/jaxrs/test/resource/GetUsersResponse.java",
+            "org/raml/jaxrs/test/resource/DeleteOrdersResponse.java"));
+        assertThat(generatedSources.contains("org/raml/jaxrs/test/resource/GetOrdersResponse.java"), is(false));
+
+        final String orders = read("Orders.java");
+        assertThat(orders, containsString("GetUsersResponse getOrders("));
+        assertThat(orders, containsString("DeleteOrdersResponse deleteOrders("));
+        assertThat(orders, not(containsString("class ")));
+        assertThat(read("GetUsersResponse.java"), containsString("public static GetUsersResponse withPlainOK("));
+        generatedCode.compile(generatedSources);
+    }
+
+    @Test
+    public void nestsAResponseClassPerMethodByDefault() throws Exception
+    {
+        final Set<String> generatedSources = generate(false);
+
+        assertThat(read("Orders.java"), containsString("class GetOrdersResponse"));
+        assertThat(read("Users.java"), containsString("class GetUsersResponse"));
+        generatedCode.compile(generatedSources);
+    }
+
+    private Set<String> generate(final boolean compactResponseClasses) throws Exception
+    {
+        final Configuration configuration = generatedCode.createConfiguration(JAXRS_1_1);
+        configuration.setCompactResponseClasses(compactResponseClasses);
+
+        return generatedCode.generate("/org/raml/responses/compact.yaml", configuration);
+    }
+
+    private String read(final String resourceClassFileName) throws IOException
+    {
+        return generatedCode.read("org/raml/jaxrs/test/resource/" + resourceClassFileName);
+    }
+}
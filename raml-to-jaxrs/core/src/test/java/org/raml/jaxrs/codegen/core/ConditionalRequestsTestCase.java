@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.Assert.assertThat;
+import static org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion.JAXRS_1_1;
+
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ConditionalRequestsTestCase
+{
+    private static final String DOCUMENTS_SOURCE = "org/raml/jaxrs/test/resource/Documents.java";
+
+    @Rule
+    public GeneratedCode generatedCode = new GeneratedCode();
+
+    @Test
+    public void generatesConditionalRequestSupport() throws Exception
+    {
+        final Set<String> generatedSources = generate(false);
+
+        assertThat(generatedSources, hasItem("org/raml/jaxrs/test/support/ResponseWrapper.java"));
+        final String documents = generatedCode.read(DOCUMENTS_SOURCE);
+        assertThat(documents, containsString("Request conditional)"));
+        assertThat(documents, containsString("public Documents.GetDocumentsResponse withEntityTag("));
+        assertThat(documents, containsString("public Documents.GetDocumentsResponse withLastModified("));
+        assertThat(documents, containsString("public static Documents.GetDocumentsResponse evaluatePreconditions("));
+        assertThat(generatedCode.read("org/raml/jaxrs/test/support/ResponseWrapper.java"),
+            containsString("evaluateValidators("));
+        generatedCode.compile(generatedSources);
+    }
+
+    @Test
+    public void conditionalMethodsWithoutBodyKeepTheirResponseClassWhenMappedToVoid() throws Exception
+    {
+        final Set<String> generatedSources = generate(true);
+
+        final String documents = generatedCode.read(DOCUMENTS_SOURCE);
+        assertThat(documents, containsString("Documents.DeleteDocumentsResponse deleteDocuments("));
+        assertThat(documents, containsString("public static Documents.DeleteDocumentsResponse evaluatePreconditions("));
+        assertThat(documents, containsString("public Documents.DeleteDocumentsResponse withEntityTag("));
+        // unlike the methods which aren't conditional
+        assertThat(documents, containsString("void putDocuments()"));
+        generatedCode.compile(generatedSources);
+    }
+
+    private Set<String> generate(final boolean mapToVoid) throws Exception
+    {
+        final Configuration configuration = generatedCode.createConfiguration(JAXRS_1_1);
+        configuration.setConditionalRequestTrait("conditional");
+        configuration.setEmptyResponseReturnVoid(mapToVoid);
+
+        return generatedCode.generate("/org/raml/responses/conditional.yaml", configuration);
+    }
+}
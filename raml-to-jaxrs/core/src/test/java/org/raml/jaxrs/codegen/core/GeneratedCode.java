@@ -0,0 +1,248 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.jci.compilers.CompilationResult;
+import org.apache.commons.jci.compilers.JavaCompiler;
+import org.apache.commons.jci.compilers.JavaCompilerFactory;
+import org.apache.commons.jci.compilers.JavaCompilerSettings;
+import org.apache.commons.jci.stores.FileResourceStore;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.apache.commons.lang.builder.ToStringStyle;
+import org.junit.rules.ExternalResource;
+import org.junit.rules.TemporaryFolder;
+import org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion;
+
+/**
+ * Generates code from the RAML fixtures under <code>/org/raml</code> into a temporary folder and test
+ * compiles it, like {@link GeneratorTestCase} does.
+ * <p>
+ * Code generated for JAX-RS 2.0 is compiled and loaded against the API jar named by the
+ * <code>jaxrs20.api.jar</code> system property: the Maven build copies it out of the test class path,
+ * where Jersey 1 needs JAX-RS 1.1.
+ */
+public class GeneratedCode extends ExternalResource
+{
+    public static final String TEST_BASE_PACKAGE = "org.raml.jaxrs.test";
+
+    private static final String JAXRS_20_API_JAR_PROPERTY = "jaxrs20.api.jar";
+
+    private static final String STATUS_RUNTIME_DELEGATE = "/org/raml/support/StatusRuntimeDelegate.java";
+
+    private final TemporaryFolder codegenOutputFolder = new TemporaryFolder();
+
+    private final TemporaryFolder compilationOutputFolder = new TemporaryFolder();
+
+    private JaxrsVersion jaxrsVersion = JaxrsVersion.JAXRS_1_1;
+
+    @Override
+    protected void before() throws Throwable
+    {
+        codegenOutputFolder.create();
+        compilationOutputFolder.create();
+    }
+
+    @Override
+    protected void after()
+    {
+        compilationOutputFolder.delete();
+        codegenOutputFolder.delete();
+    }
+
+    public File getOutputDirectory()
+    {
+        return codegenOutputFolder.getRoot();
+    }
+
+    /**
+     * @return a configuration generating into this folder, in the test base package
+     */
+    public Configuration createConfiguration(final JaxrsVersion jaxrsVersion)
+    {
+        final Configuration configuration = new Configuration();
+        configuration.setJaxrsVersion(jaxrsVersion);
+        configuration.setOutputDirectory(getOutputDirectory());
+        configuration.setBasePackageName(TEST_BASE_PACKAGE);
+        configuration.setSourceDirectory(new File(getClass().getResource("/org/raml").getPath()));
+        return configuration;
+    }
+
+    /**
+     * Generates the code of a RAML fixture; {@link #compile(Set)} compiles it against the JAX-RS version
+     * of the last <code>configuration</code> passed here.
+     *
+     * @param ramlResource the class path of the fixture, e.g. <code>/org/raml/params/converters.yaml</code>
+     */
+    public Set<String> generate(final String ramlResource, final Configuration configuration) throws Exception
+    {
+        jaxrsVersion = configuration.getJaxrsVersion();
+        final Reader raml = new InputStreamReader(getClass().getResourceAsStream(ramlResource));
+        try
+        {
+            return new Generator().run(raml, configuration);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(raml);
+        }
+    }
+
+    /**
+     * @param source a generated file, e.g. <code>org/raml/jaxrs/test/resource/Jobs.java</code>
+     */
+    public String read(final String source) throws IOException
+    {
+        return FileUtils.readFileToString(new File(getOutputDirectory(), source));
+    }
+
+    /**
+     * Copies a Java source fixture next to the generated code, so it is compiled with it.
+     *
+     * @param javaResource the class path of the fixture, its directory matching its package
+     * @return the source name to compile
+     */
+    public String addSource(final String javaResource) throws IOException
+    {
+        final String source = StringUtils.removeStart(javaResource, "/");
+        FileUtils.copyURLToFile(getClass().getResource(javaResource), new File(getOutputDirectory(), source));
+        return source;
+    }
+
+    /**
+     * Test compiles the Java files among <code>sources</code>, failing on any error.
+     *
+     * @return a class loader of the compiled classes
+     */
+    public ClassLoader compile(final Set<String> sources) throws Exception
+    {
+        final ClassLoader classLoader = jaxrsVersion == JaxrsVersion.JAXRS_2_0
+            ? createJaxrs20ClassLoader() : getTestClassLoader();
+
+        final List<String> javaSources = new ArrayList<String>();
+        for (final String source : sources)
+        {
+            if (source.endsWith(".java"))
+            {
+                javaSources.add(source);
+            }
+        }
+
+        final JavaCompiler compiler = new JavaCompilerFactory().createCompiler("eclipse");
+        final JavaCompilerSettings settings = compiler.createDefaultSettings();
+        // the JAX-RS 2.0 support classes have @Override on interface methods
+        settings.setSourceVersion("1.6");
+        settings.setTargetVersion("1.6");
+        settings.setDebug(true);
+
+        final CompilationResult result = compiler.compile(javaSources.toArray(new String[javaSources.size()]),
+            new FileResourceReader2(getOutputDirectory()),
+            new FileResourceStore(compilationOutputFolder.getRoot()), classLoader, settings);
+
+        assertThat(ToStringBuilder.reflectionToString(result.getErrors(), ToStringStyle.SHORT_PREFIX_STYLE),
+            result.getErrors(), is(emptyArray()));
+
+        return new URLClassLoader(new URL[]{compilationOutputFolder.getRoot().toURI().toURL()}, classLoader);
+    }
+
+    /**
+     * Like {@link #compile(Set)} for JAX-RS 2.0 code, also installing a <code>RuntimeDelegate</code> whose
+     * responses only keep their status and entity, so the generated code can create responses and
+     * <code>WebApplicationException</code>s without a JAX-RS implementation.
+     */
+    public ClassLoader compileWithRuntimeDelegate(final Set<String> sources) throws Exception
+    {
+        sources.add(addSource(STATUS_RUNTIME_DELEGATE));
+        final ClassLoader classLoader = compile(sources);
+
+        final Class<?> runtimeDelegateType = classLoader.loadClass("javax.ws.rs.ext.RuntimeDelegate");
+        runtimeDelegateType.getMethod("setInstance", runtimeDelegateType).invoke(null,
+            classLoader.loadClass("org.raml.support.StatusRuntimeDelegate").newInstance());
+        return classLoader;
+    }
+
+    private static ClassLoader createJaxrs20ClassLoader() throws IOException
+    {
+        final String apiJar = System.getProperty(JAXRS_20_API_JAR_PROPERTY);
+        if (StringUtils.isBlank(apiJar) || !new File(apiJar).isFile())
+        {
+            throw new IllegalStateException(JAXRS_20_API_JAR_PROPERTY
+                                            + " must name the JAX-RS 2.0 API jar, as set by the Maven build: "
+                                            + apiJar);
+        }
+        return new Jaxrs20ClassLoader(new File(apiJar).toURI().toURL(), getTestClassLoader());
+    }
+
+    private static ClassLoader getTestClassLoader()
+    {
+        return Thread.currentThread().getContextClassLoader();
+    }
+
+    /**
+     * Takes the <code>javax.ws.rs</code> classes and resources from the JAX-RS 2.0 API jar, anything else
+     * from its parent. The compiler reads classes as resources, hence both are overridden.
+     */
+    private static class Jaxrs20ClassLoader extends URLClassLoader
+    {
+        Jaxrs20ClassLoader(final URL apiJar, final ClassLoader parent)
+        {
+            super(new URL[]{apiJar}, parent);
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve)
+            throws ClassNotFoundException
+        {
+            if (!name.startsWith("javax.ws.rs."))
+            {
+                return super.loadClass(name, resolve);
+            }
+
+            Class<?> loadedClass = findLoadedClass(name);
+            if (loadedClass == null)
+            {
+                loadedClass = findClass(name);
+            }
+            if (resolve)
+            {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
+
+        @Override
+        public URL getResource(final String name)
+        {
+            return name.startsWith("javax/ws/rs/") ? findResource(name) : super.getResource(name);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion.JAXRS_1_1;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class JsonSchemaClassesTestCase
+{
+    private static final String CONFLICTING_SCHEMAS = "/org/raml/schema/conflicting-schemas.yaml";
+
+    @Rule
+    public GeneratedCode generatedCode = new GeneratedCode();
+
+    @Rule
+    public GeneratedCode otherGeneratedCode = new GeneratedCode();
+
+    @Test
+    public void generatesTheClassesOfAllSchemasDeterministically() throws Exception
+    {
+        final Set<String> generatedSources = generatedCode.generate(CONFLICTING_SCHEMAS,
+            generatedCode.createConfiguration(JAXRS_1_1));
+
+        assertThat(generatedSources, hasItems("org/raml/jaxrs/test/model/First.java",
+            "org/raml/jaxrs/test/model/Second.java", "org/raml/jaxrs/test/model/Address.java"));
+        assertThat(generatedCode.read("org/raml/jaxrs/test/resource/Third.java"), containsString("First entity"));
+        generatedCode.compile(generatedSources);
+
+        // the classes of conflicting schemas get the same names on each run
+        otherGeneratedCode.generate(CONFLICTING_SCHEMAS, otherGeneratedCode.createConfiguration(JAXRS_1_1));
+        assertThat(read(otherGeneratedCode, generatedSources), is(read(generatedCode, generatedSources)));
+    }
+
+    @Test
+    public void sharesTheClassesOfSchemasOnlyWithinTheSameOutputDirectory() throws Exception
+    {
+        final Configuration configuration = generatedCode.createConfiguration(JAXRS_1_1);
+
+        assertThat(generatedCode.generate(CONFLICTING_SCHEMAS, configuration),
+            hasItem("org/raml/jaxrs/test/model/First.java"));
+        assertThat(generatedCode.generate(CONFLICTING_SCHEMAS, configuration),
+            not(hasItem("org/raml/jaxrs/test/model/First.java")));
+
+        configuration.setOutputDirectory(otherGeneratedCode.getOutputDirectory());
+        assertThat(otherGeneratedCode.generate(CONFLICTING_SCHEMAS, configuration),
+            hasItem("org/raml/jaxrs/test/model/First.java"));
+    }
+
+    @Test
+    public void conflictingSchemasReferToTheMergedClassesOfSharedSchemas() throws Exception
+    {
+        // the inline customer of supplier conflicts with the customer schema
+        final Set<String> generatedSources = generatedCode.generate("/org/raml/schema/shared-references.yaml",
+            generatedCode.createConfiguration(JAXRS_1_1));
+
+        assertThat(generatedSources, hasItems("org/raml/jaxrs/test/model/Address.java",
+            "org/raml/jaxrs/test/model/Customer_.java", "org/raml/jaxrs/test/model/Supplier.java"));
+        assertThat(generatedSources, not(hasItem("org/raml/jaxrs/test/model/Address_.java")));
+        assertThat(generatedCode.read("org/raml/jaxrs/test/model/Supplier.java"),
+            containsString("private Address address;"));
+        generatedCode.compile(generatedSources);
+    }
+
+    private static Map<String, String> read(final GeneratedCode code, final Set<String> sources) throws Exception
+    {
+        final Map<String, String> contents = new HashMap<String, String>();
+        for (final String source : sources)
+        {
+            contents.put(source, code.read(source));
+        }
+        return contents;
+    }
+}
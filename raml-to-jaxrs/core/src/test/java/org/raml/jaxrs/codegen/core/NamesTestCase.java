@@ -24,6 +24,15 @@ import org.raml.model.MimeType;
 
 public class NamesTestCase
 {
+    @Test
+    public void buildJavaFriendlyName()
+    {
+        assertThat(Names.buildJavaFriendlyName("/users/{userId}/sales_orders"), is("UsersUserIdSalesOrders"));
+        assertThat(Names.buildJavaFriendlyName("pet-store API"), is("PetStoreAPI"));
+        assertThat(Names.buildJavaFriendlyName("/2fa/caf\u00e9"), is("_2faCaf"));
+        assertThat(Names.buildJavaFriendlyName("/"), is(""));
+    }
+
     @Test
     public void getShortMimeType()
     {
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion.JAXRS_1_1;
+import static org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion.JAXRS_2_0;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion;
+
+public class ParamConvertersTestCase
+{
+    private static final String PARAM_CONVERTERS_SOURCE = "org/raml/jaxrs/test/support/ParamConverters.java";
+
+    // Sun, 06 Nov 1994 08:49:37 GMT
+    private static final Date RFC_2616_EXAMPLE_DATE = new Date(784111777000L);
+
+    @Rule
+    public GeneratedCode generatedCode = new GeneratedCode();
+
+    private ClassLoader classLoader;
+
+    private Object paramConverters;
+
+    @Test
+    public void generatesTheProviderForJaxrs20() throws Exception
+    {
+        final Set<String> generatedSources = generate(JAXRS_2_0);
+
+        assertThat(generatedSources, hasItem(PARAM_CONVERTERS_SOURCE));
+        assertThat(generatedCode.read(PARAM_CONVERTERS_SOURCE),
+            containsString("package org.raml.jaxrs.test.support;"));
+        generatedCode.compile(generatedSources);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsJaxrs11() throws Exception
+    {
+        generate(JAXRS_1_1);
+    }
+
+    @Test
+    public void convertsTheDateFormatsOfRfc2616() throws Exception
+    {
+        loadParamConverters();
+        final Object dates = converterFor(Date.class);
+
+        assertThat(fromString(dates, "Sun, 06 Nov 1994 08:49:37 GMT"), is((Object) RFC_2616_EXAMPLE_DATE));
+        // obsolete RFC 850 and asctime formats
+        assertThat(fromString(dates, "Sunday, 06-Nov-94 08:49:37 GMT"), is((Object) RFC_2616_EXAMPLE_DATE));
+        assertThat(fromString(dates, "Sun Nov  6 08:49:37 1994"), is((Object) RFC_2616_EXAMPLE_DATE));
+
+        assertThat(convertToString(dates, RFC_2616_EXAMPLE_DATE), is("Sun, 06 Nov 1994 08:49:37 GMT"));
+        assertBadRequest(dates, "1994-11-06");
+    }
+
+    @Test
+    public void acceptsOnlyTrueAndFalseAsBooleans() throws Exception
+    {
+        loadParamConverters();
+        final Object booleans = converterFor(Boolean.class);
+
+        assertThat(fromString(booleans, "true"), is((Object) Boolean.TRUE));
+        assertThat(fromString(booleans, "FALSE"), is((Object) Boolean.FALSE));
+        assertThat(converterFor(boolean.class), is(booleans));
+        for (final String value : new String[]{"1", "yes", "on", "truth", ""})
+        {
+            assertBadRequest(booleans, value);
+        }
+    }
+
+    @Test
+    public void rejectsInvalidNumbersAndEnumValuesWithBadRequests() throws Exception
+    {
+        loadParamConverters();
+
+        assertThat(fromString(converterFor(Long.class), " 42 "), is((Object) 42L));
+        assertBadRequest(converterFor(Long.class), "4.2");
+        assertBadRequest(converterFor(long.class), "forty-two");
+
+        assertThat(fromString(converterFor(BigDecimal.class), "4.2"), is((Object) new BigDecimal("4.2")));
+        assertBadRequest(converterFor(BigDecimal.class), "4,2");
+
+        final Object states = converterFor(classLoader.loadClass("org.raml.jaxrs.test.resource.Flags$State"));
+        assertThat(String.valueOf(fromString(states, "active")), is("active"));
+        assertBadRequest(states, "ACTIVE");
+        assertBadRequest(states, "deleted");
+    }
+
+    private Set<String> generate(final JaxrsVersion jaxrsVersion) throws Exception
+    {
+        final Configuration configuration = generatedCode.createConfiguration(jaxrsVersion);
+        configuration.setGenerateParamConverters(true);
+
+        return generatedCode.generate("/org/raml/params/converters.yaml", configuration);
+    }
+
+    private void loadParamConverters() throws Exception
+    {
+        classLoader = generatedCode.compileWithRuntimeDelegate(generate(JAXRS_2_0));
+        paramConverters = classLoader.loadClass("org.raml.jaxrs.test.support.ParamConverters").newInstance();
+    }
+
+    private Object converterFor(final Class<?> type) throws Exception
+    {
+        return paramConverters.getClass()
+            .getMethod("getConverter", Class.class, Type.class, Annotation[].class)
+            .invoke(paramConverters, type, type, new Annotation[0]);
+    }
+
+    private Object fromString(final Object converter, final String value) throws Exception
+    {
+        return classLoader.loadClass("javax.ws.rs.ext.ParamConverter")
+            .getMethod("fromString", String.class)
+            .invoke(converter, value);
+    }
+
+    private Object convertToString(final Object converter, final Object value) throws Exception
+    {
+        return classLoader.loadClass("javax.ws.rs.ext.ParamConverter")
+            .getMethod("toString", Object.class)
+            .invoke(converter, value);
+    }
+
+    private void assertBadRequest(final Object converter, final String value) throws Exception
+    {
+        try
+        {
+            fromString(converter, value);
+            fail("Converted invalid value: " + value);
+        }
+        catch (final InvocationTargetException e)
+        {
+            final Throwable failure = e.getCause();
+            assertThat(failure.getClass().getName(), is("javax.ws.rs.BadRequestException"));
+            final Object response = failure.getClass().getMethod("getResponse").invoke(failure);
+            assertThat(classLoader.loadClass("javax.ws.rs.core.Response").getMethod("getStatus").invoke(response),
+                is((Object) 400));
+        }
+    }
+}
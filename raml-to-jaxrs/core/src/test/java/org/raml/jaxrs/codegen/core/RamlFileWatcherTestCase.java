@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RamlFileWatcherTestCase
+{
+    @Rule
+    public TemporaryFolder sourceFolder = new TemporaryFolder();
+
+    @Rule
+    public TemporaryFolder codegenOutputFolder = new TemporaryFolder();
+
+    @Test
+    public void regeneratesOnlyTheRamlFilesAffectedByAChange() throws IOException
+    {
+        write("a.raml", "#%RAML 0.8\ntitle: a\n/a:\n  description: !include a.txt\n  get:\n");
+        write("a.txt", "first");
+        write("b.raml", "#%RAML 0.8\ntitle: b\n/b:\n  get:\n");
+        final RamlFileWatcher watcher = createWatcher();
+
+        assertThat(watcher.update(), is(2));
+        assertThat(watcher.update(), is(0));
+
+        write("a.txt", "second");
+        assertThat(watcher.update(), is(1));
+        assertThat(FileUtils.readFileToString(generated("A.java")), containsString("second"));
+
+        new File(sourceFolder.getRoot(), "b.raml").delete();
+        assertThat(watcher.update(), is(0));
+        assertThat(generated("A.java").isFile(), is(true));
+        assertThat(generated("B.java").exists(), is(false));
+    }
+
+    private RamlFileWatcher createWatcher()
+    {
+        return new RamlFileWatcher(codegenOutputFolder.getRoot())
+        {
+            @Override
+            protected Collection<File> listRamlFiles()
+            {
+                return FileUtils.listFiles(sourceFolder.getRoot(), new String[]{"raml"}, false);
+            }
+
+            @Override
+            protected Configuration createConfiguration()
+            {
+                final Configuration configuration = new Configuration();
+                configuration.setOutputDirectory(codegenOutputFolder.getRoot());
+                configuration.setSourceDirectory(sourceFolder.getRoot());
+                configuration.setBasePackageName("org.raml.jaxrs.test");
+                return configuration;
+            }
+        };
+    }
+
+    /**
+     * Also moves the modification time forward, as file systems may only keep seconds.
+     */
+    private void write(final String name, final String content) throws IOException
+    {
+        final File file = new File(sourceFolder.getRoot(), name);
+        final long lastModified = file.lastModified();
+        FileUtils.writeStringToFile(file, content);
+        file.setLastModified(Math.max(file.lastModified(), lastModified + 2000));
+    }
+
+    private File generated(final String name)
+    {
+        return new File(codegenOutputFolder.getRoot(), "org/raml/jaxrs/test/resource/" + name);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.raml.model.Action;
+import org.raml.model.ActionType;
+import org.raml.model.Raml;
+import org.raml.model.Resource;
+
+public class ResourceFilterTestCase
+{
+    private static final String RAML = "#%RAML 0.8\n"
+                                       + "title: test\n"
+                                       + "/users:\n"
+                                       + "  get:\n"
+                                       + "  /{userId}:\n"
+                                       + "    /orders:\n"
+                                       + "      get:\n"
+                                       + "/items:\n"
+                                       + "  type: collection\n"
+                                       + "  /{itemId}: !include item.raml\n";
+
+    @Test
+    public void blanksOutDroppedResourcesKeepingLines()
+    {
+        final String filtered = new ResourceFilter(asList("/users/*/orders"), null).filter(RAML);
+
+        assertThat(filtered.length(), is(RAML.length()));
+        assertThat(filtered.split("\n", -1).length, is(RAML.split("\n", -1).length));
+        assertThat(filtered, containsString("/orders:"));
+        assertThat(filtered, not(containsString("/items")));
+        assertThat(filtered, not(containsString("!include")));
+    }
+
+    @Test
+    public void excludesNestedResourcesWithTheirParent()
+    {
+        final String filtered = new ResourceFilter(null, asList("/users")).filter(RAML);
+
+        assertThat(filtered, not(containsString("/orders")));
+        assertThat(filtered, containsString("/{itemId}: !include item.raml"));
+    }
+
+    @Test
+    public void keepsResourcesSharingAnchorsWithKeptOnes()
+    {
+        final String raml = "title: test\n/a: &shared\n  get:\n/b: *shared\n";
+
+        assertThat(new ResourceFilter(null, asList("/a")).filter(raml), is(raml));
+    }
+
+    @Test
+    public void clearsActionsOfAncestorsOfIncludedResources()
+    {
+        final Raml raml = new Raml();
+        final Resource orders = resource("/orders");
+        final Resource user = resource("/{userId}", orders);
+        raml.getResources().put("/users", resource("/users", user));
+        raml.getResources().put("/items", resource("/items"));
+
+        new ResourceFilter(asList("/users/**/orders"), Collections.<String> emptyList()).filter(raml);
+
+        assertThat(raml.getResources().keySet(), is(Collections.singleton("/users")));
+        assertThat(raml.getResources().get("/users").getActions().isEmpty(), is(true));
+        assertThat(user.getActions().isEmpty(), is(true));
+        assertThat(orders.getActions().size(), is(1));
+    }
+
+    @Test
+    public void matchesSegmentWildcards()
+    {
+        assertThat(ResourceFilter.compile("/users/*").matcher("/users/{userId}").matches(), is(true));
+        assertThat(ResourceFilter.compile("/users/*").matcher("/users/{userId}/orders").matches(), is(false));
+        assertThat(ResourceFilter.compile("/users/**").matcher("/users/{userId}/orders").matches(), is(true));
+        assertThat(ResourceFilter.compile("/us*").matcher("/users").matches(), is(true));
+    }
+
+    private static Resource resource(final String relativeUri, final Resource... children)
+    {
+        final Resource resource = new Resource();
+        resource.setRelativeUri(relativeUri);
+        resource.getActions().put(ActionType.GET, new Action());
+        for (final Resource child : children)
+        {
+            resource.getResources().put(child.getRelativeUri(), child);
+        }
+        return resource;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class SchemaFingerprintTestCase
+{
+    @Test
+    public void ignoresFormattingAndKeyOrderOfJsonSchemas()
+    {
+        final String schema = "{\"type\": \"object\", \"properties\": {\"id\": {\"type\": \"integer\"}}}";
+        final String reformatted = "{\r\n  \"properties\" : {\n    \"id\" : { \"type\" : \"integer\" }\n  },\n  \"type\" : \"object\"\n}\n";
+
+        assertThat(SchemaFingerprint.of(reformatted), is(SchemaFingerprint.of(schema)));
+        assertThat(SchemaFingerprint.of(schema).length(), is(64));
+        assertThat(SchemaFingerprint.of(schema.replace("integer", "string")), not(SchemaFingerprint.of(schema)));
+    }
+
+    @Test
+    public void ignoresWhitespaceBetweenXmlElements()
+    {
+        final String schema = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"><xs:element name=\"a\"/></xs:schema>";
+        final String reformatted = "  <xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">\r\n    <xs:element name=\"a\"/>\r\n</xs:schema>\r\n";
+
+        assertThat(SchemaFingerprint.of(reformatted), is(SchemaFingerprint.of(schema)));
+    }
+}
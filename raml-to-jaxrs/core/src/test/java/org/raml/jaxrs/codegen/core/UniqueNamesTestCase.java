@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class UniqueNamesTestCase
+{
+    @Test
+    public void appendsTheLowestFreeNumber()
+    {
+        final UniqueNames names = new UniqueNames()
+        {
+            @Override
+            protected boolean isTakenElsewhere(final String name)
+            {
+                return name.equals("Users2");
+            }
+        };
+
+        assertThat(names.take("Users"), is("Users"));
+        assertThat(names.take("Users1"), is("Users1"));
+        assertThat(names.take("Users"), is("Users3"));
+        assertThat(names.take("Users"), is("Users4"));
+        assertThat(names.take("Orders"), is("Orders"));
+        assertThat(names.take("Users1"), is("Users11"));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.codegen.core.ext;
+
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion.JAXRS_2_0;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.raml.jaxrs.codegen.core.Configuration;
+import org.raml.jaxrs.codegen.core.GeneratedCode;
+
+public class LatencyMetricsExtensionTestCase
+{
+    private static final String SUPPORT_PACKAGE = GeneratedCode.TEST_BASE_PACKAGE + ".support";
+
+    private static final String RESOURCE_PACKAGE = GeneratedCode.TEST_BASE_PACKAGE + ".resource";
+
+    @Rule
+    public GeneratedCode generatedCode = new GeneratedCode();
+
+    private ClassLoader classLoader;
+
+    @Test
+    public void generatesMetricsFeatureAndSupportClasses() throws Exception
+    {
+        final Set<String> generatedSources = generate();
+
+        assertThat(generatedSources, hasItems("org/raml/jaxrs/test/resource/RegisterResourceMetrics.java",
+            "org/raml/jaxrs/test/support/LatencyRecorder.java",
+            "org/raml/jaxrs/test/support/LatencyRecorderMBean.java",
+            "org/raml/jaxrs/test/support/LatencyFilter.java",
+            "org/raml/jaxrs/test/support/LatencyRegistry.java"));
+
+        final String feature = generatedCode.read("org/raml/jaxrs/test/resource/RegisterResourceMetrics.java");
+        assertThat(feature, containsString("LatencyRegistry.register(\"/register\", \"POST\", "
+                                           + "\"RegisterResource.postRegister\")"));
+        assertThat(feature, containsString("context.register(new LatencyFilter(recorder))"));
+
+        assertThat(generatedCode.read("org/raml/jaxrs/test/support/LatencyRegistry.java"),
+            containsString("package org.raml.jaxrs.test.support;"));
+        generatedCode.compile(generatedSources);
+    }
+
+    @Test
+    public void recordersCountRequestsAndReportPercentiles() throws Exception
+    {
+        classLoader = generatedCode.compile(generate());
+        final Class<?> recorderType = classLoader.loadClass(SUPPORT_PACKAGE + ".LatencyRecorder");
+        final Object recorder = classLoader.loadClass(SUPPORT_PACKAGE + ".LatencyRegistry")
+            .getMethod("register", String.class, String.class, String.class)
+            .invoke(null, "/latencies", "GET", "LatencyResource.getLatencies");
+
+        // 1 to 100 ms, the slowest two failing
+        final Method record = recorderType.getMethod("record", long.class, boolean.class);
+        for (int millis = 1; millis <= 100; millis++)
+        {
+            record.invoke(recorder, millis * 1000000L, millis > 98);
+        }
+
+        assertThat(recorderType.getMethod("getCount").invoke(recorder), is((Object) 100L));
+        assertThat(recorderType.getMethod("getErrorCount").invoke(recorder), is((Object) 2L));
+        assertThat(recorderType.getMethod("getMeanMicros").invoke(recorder), is((Object) 50500L));
+        assertThat(recorderType.getMethod("getMaxMicros").invoke(recorder), is((Object) 100000L));
+        assertApproximately(recorderType.getMethod("getP50Micros").invoke(recorder), 50000L);
+        assertApproximately(recorderType.getMethod("getP90Micros").invoke(recorder), 90000L);
+        assertApproximately(recorderType.getMethod("getP99Micros").invoke(recorder), 99000L);
+    }
+
+    @Test
+    public void bindsTheFilterToTheResourceMethodsOfTheInterfaceOnly() throws Exception
+    {
+        classLoader = generatedCode.compile(generate());
+        final Class<?> featureType = classLoader.loadClass(RESOURCE_PACKAGE + ".RegisterResourceMetrics");
+        final Object feature = featureType.newInstance();
+        final Class<?> resourceInterface = classLoader.loadClass(RESOURCE_PACKAGE + ".RegisterResource");
+        final Method postRegister = findMethod(resourceInterface, "postRegister");
+
+        final List<Object> filters = configure(feature, resourceInterface, postRegister);
+        assertThat(filters, hasSize(1));
+        assertThat(filters.get(0).getClass().getName(), is(SUPPORT_PACKAGE + ".LatencyFilter"));
+
+        // not a method of the resource interface
+        assertThat(configure(feature, Object.class, Object.class.getMethod("toString")), is(empty()));
+        // not a resource method
+        assertThat(configure(feature, resourceInterface, Object.class.getMethod("toString")), is(empty()));
+
+        // the bound filter times the requests of its method
+        runThrough(filters.get(0), 201);
+        final Object recorder = featureType.getField("POST_REGISTER").get(null);
+        assertThat(recorder.getClass().getMethod("getCount").invoke(recorder), is((Object) 1L));
+        assertThat(recorder.getClass().getMethod("getErrorCount").invoke(recorder), is((Object) 0L));
+    }
+
+    private Set<String> generate() throws Exception
+    {
+        final Configuration configuration = generatedCode.createConfiguration(JAXRS_2_0);
+        configuration.getExtensions().add(new LatencyMetricsExtension());
+
+        return generatedCode.generate("/org/raml/responses/wrapper.yaml", configuration);
+    }
+
+    /**
+     * @return the components <code>feature</code> registered for the resource method
+     */
+    private List<Object> configure(final Object feature, final Class<?> resourceClass, final Method resourceMethod)
+        throws Exception
+    {
+        final Class<?> resourceInfoType = classLoader.loadClass("javax.ws.rs.container.ResourceInfo");
+        final Class<?> featureContextType = classLoader.loadClass("javax.ws.rs.core.FeatureContext");
+        final List<Object> registered = new ArrayList<Object>();
+
+        final Object resourceInfo = proxy(resourceInfoType, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args)
+            {
+                return "getResourceClass".equals(method.getName()) ? resourceClass : resourceMethod;
+            }
+        });
+        final Object featureContext = proxy(featureContextType, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args)
+            {
+                if ("register".equals(method.getName()))
+                {
+                    registered.add(args[0]);
+                }
+                return proxy;
+            }
+        });
+
+        feature.getClass()
+            .getMethod("configure", resourceInfoType, featureContextType)
+            .invoke(feature, resourceInfo, featureContext);
+        return registered;
+    }
+
+    private void runThrough(final Object filter, final int status) throws Exception
+    {
+        final Class<?> requestContextType = classLoader
+            .loadClass("javax.ws.rs.container.ContainerRequestContext");
+        final Class<?> responseContextType = classLoader
+            .loadClass("javax.ws.rs.container.ContainerResponseContext");
+        final Map<Object, Object> properties = new HashMap<Object, Object>();
+
+        final Object requestContext = proxy(requestContextType, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args)
+            {
+                if ("setProperty".equals(method.getName()))
+                {
+                    properties.put(args[0], args[1]);
+                    return null;
+                }
+                return properties.get(args[0]);
+            }
+        });
+        final Object responseContext = proxy(responseContextType, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args)
+            {
+                // the filter only reads the status
+                return status;
+            }
+        });
+
+        filter.getClass().getMethod("filter", requestContextType).invoke(filter, requestContext);
+        filter.getClass()
+            .getMethod("filter", requestContextType, responseContextType)
+            .invoke(filter, requestContext, responseContext);
+    }
+
+    private Object proxy(final Class<?> type, final InvocationHandler handler)
+    {
+        return Proxy.newProxyInstance(classLoader, new Class<?>[]{type}, handler);
+    }
+
+    private static Method findMethod(final Class<?> type, final String name)
+    {
+        for (final Method method : type.getMethods())
+        {
+            if (method.getName().equals(name))
+            {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(type + " has no method " + name);
+    }
+
+    /**
+     * The histogram's buckets are 12.5% wide at most.
+     */
+    private static void assertApproximately(final Object actualMicros, final long expectedMicros)
+    {
+        assertThat((Long) actualMicros, is(both(greaterThanOrEqualTo(expectedMicros * 7 / 8)).and(
+            lessThanOrEqualTo(expectedMicros * 9 / 8))));
+    }
+}
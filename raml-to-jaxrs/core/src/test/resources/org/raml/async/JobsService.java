@@ -0,0 +1,36 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.async;
+
+import org.raml.jaxrs.test.resource.Jobs;
+
+/**
+ * Test compiled with the code generated from jobs.yaml in the EXECUTOR style.
+ */
+public class JobsService extends Jobs.AsyncDispatcher
+{
+    @Override
+    protected Jobs.GetJobsResponse getJobsBlocking() throws Exception
+    {
+        return Jobs.GetJobsResponse.withPlainOK("done");
+    }
+
+    @Override
+    public Jobs.PostJobsResponse postJobs() throws Exception
+    {
+        return Jobs.PostJobsResponse.withPlainOK("posted");
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.support;
+
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.core.Variant.VariantListBuilder;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+/**
+ * Test compiled with the generated JAX-RS 2.0 code by GeneratedCode: builds responses which only
+ * keep their status and entity, everything else is unsupported.
+ */
+public class StatusRuntimeDelegate extends RuntimeDelegate
+{
+    @Override
+    public UriBuilder createUriBuilder()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResponseBuilder createResponseBuilder()
+    {
+        return new StatusResponseBuilder();
+    }
+
+    @Override
+    public VariantListBuilder createVariantListBuilder()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T createEndpoint(final Application application, final Class<T> endpointType)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> HeaderDelegate<T> createHeaderDelegate(final Class<T> type)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Link.Builder createLinkBuilder()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    private static class StatusResponseBuilder extends ResponseBuilder
+    {
+        private int status = 200;
+        private Object entity;
+
+        @Override
+        public Response build()
+        {
+            return new StatusResponse(status, entity);
+        }
+
+        @Override
+        public ResponseBuilder clone()
+        {
+            final StatusResponseBuilder clone = new StatusResponseBuilder();
+            clone.status = status;
+            clone.entity = entity;
+            return clone;
+        }
+
+        @Override
+        public ResponseBuilder status(final int status)
+        {
+            this.status = status;
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder entity(final Object entity)
+        {
+            this.entity = entity;
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder entity(final Object entity, final Annotation[] annotations)
+        {
+            return entity(entity);
+        }
+
+        @Override
+        public ResponseBuilder allow(final String... methods)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder allow(final Set<String> methods)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder cacheControl(final CacheControl cacheControl)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder encoding(final String encoding)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder header(final String name, final Object value)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder replaceAll(final MultivaluedMap<String, Object> headers)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder language(final String language)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder language(final Locale language)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder type(final MediaType type)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder type(final String type)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder variant(final Variant variant)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder contentLocation(final URI location)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder cookie(final NewCookie... cookies)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder expires(final Date expires)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder lastModified(final Date lastModified)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder location(final URI location)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder tag(final EntityTag tag)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder tag(final String tag)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder variants(final Variant... variants)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder variants(final List<Variant> variants)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder links(final Link... links)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder link(final URI uri, final String rel)
+        {
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder link(final String uri, final String rel)
+        {
+            return this;
+        }
+    }
+
+    private static class StatusResponse extends Response
+    {
+        private final int status;
+        private final Object entity;
+
+        StatusResponse(final int status, final Object entity)
+        {
+            this.status = status;
+            this.entity = entity;
+        }
+
+        @Override
+        public int getStatus()
+        {
+            return status;
+        }
+
+        @Override
+        public StatusType getStatusInfo()
+        {
+            return Status.fromStatusCode(status);
+        }
+
+        @Override
+        public Object getEntity()
+        {
+            return entity;
+        }
+
+        @Override
+        public <T> T readEntity(final Class<T> entityType)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T readEntity(final GenericType<T> entityType)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T readEntity(final Class<T> entityType, final Annotation[] annotations)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T readEntity(final GenericType<T> entityType, final Annotation[] annotations)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean hasEntity()
+        {
+            return entity != null;
+        }
+
+        @Override
+        public boolean bufferEntity()
+        {
+            return false;
+        }
+
+        @Override
+        public void close()
+        {
+            // nothing to release
+        }
+
+        @Override
+        public MediaType getMediaType()
+        {
+            return null;
+        }
+
+        @Override
+        public Locale getLanguage()
+        {
+            return null;
+        }
+
+        @Override
+        public int getLength()
+        {
+            return -1;
+        }
+
+        @Override
+        public Set<String> getAllowedMethods()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, NewCookie> getCookies()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EntityTag getEntityTag()
+        {
+            return null;
+        }
+
+        @Override
+        public Date getDate()
+        {
+            return null;
+        }
+
+        @Override
+        public Date getLastModified()
+        {
+            return null;
+        }
+
+        @Override
+        public URI getLocation()
+        {
+            return null;
+        }
+
+        @Override
+        public Set<Link> getLinks()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean hasLink(final String relation)
+        {
+            return false;
+        }
+
+        @Override
+        public Link getLink(final String relation)
+        {
+            return null;
+        }
+
+        @Override
+        public Link.Builder getLinkBuilder(final String relation)
+        {
+            return null;
+        }
+
+        @Override
+        public MultivaluedMap<String, Object> getMetadata()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getStringHeaders()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getHeaderString(final String name)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.benchmark;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.simple.SimpleContainerFactory;
+import org.raml.jaxrs.benchmark.impl.OrderResource;
+import org.raml.jaxrs.benchmark.impl.PingResource;
+
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+
+/**
+ * Boots the resources generated from <code>src/main/resources/raml</code> in-process on the
+ * Simple container and measures each endpoint shape in turn, see the README for the options.
+ */
+public class Benchmark
+{
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static void main(final String[] args) throws Exception
+    {
+        final int port = Integer.getInteger("benchmark.port", 8182);
+        final int threads = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+        final long warmupMillis = Long.getLong("benchmark.warmup", 5) * 1000;
+        final long durationMillis = Long.getLong("benchmark.duration", 10) * 1000;
+        final String only = System.getProperty("benchmark.endpoints");
+        final List<String> selected = only == null ? null : Arrays.asList(only.split("\\s*,\\s*"));
+        if (System.getProperty("http.maxConnections") == null)
+        {
+            // keep one idle connection per client thread instead of the default 5
+            System.setProperty("http.maxConnections", String.valueOf(threads));
+        }
+
+        final ResourceConfig config = new ResourceConfig();
+        config.register(PingResource.class);
+        config.register(OrderResource.class);
+        config.register(JacksonJsonProvider.class);
+
+        final String baseUri = "http://localhost:" + port;
+        final Closeable simpleContainer = SimpleContainerFactory.create(new URI(baseUri), config);
+        try
+        {
+            final LoadGenerator loadGenerator = new LoadGenerator(baseUri, threads, warmupMillis, durationMillis);
+            System.out.println(threads + " client threads, " + warmupMillis / 1000 + "s warm-up, "
+                               + durationMillis / 1000 + "s measurement per endpoint");
+            System.out.println(Result.HEADER);
+            for (final Endpoint endpoint : endpoints())
+            {
+                if (selected == null || selected.contains(endpoint.getName()))
+                {
+                    System.out.println(loadGenerator.run(endpoint));
+                }
+            }
+        }
+        finally
+        {
+            simpleContainer.close();
+        }
+        System.exit(0);
+    }
+
+    static List<Endpoint> endpoints()
+    {
+        final List<Endpoint> endpoints = new ArrayList<Endpoint>();
+        endpoints.add(new Endpoint("text", "GET", "/ping", 200));
+        endpoints.add(new Endpoint("json-member", "GET", "/orders/order-42", 200));
+        endpoints.add(new Endpoint("json-collection-query", "GET", "/orders?status=open&offset=5&limit=20", 200));
+        endpoints.add(new Endpoint("json-post", "POST", "/orders",
+            "{\"customer\":\"customer-1\",\"status\":\"open\",\"total\":42.5,\"lines\":3}", 201));
+        endpoints.add(new Endpoint("empty-delete", "DELETE", "/orders/order-42", 204));
+        endpoints.add(new Endpoint("error-not-found", "GET", "/orders/missing", 404));
+        return endpoints;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * One endpoint shape of the reference RAML files, called with the same request every time.
+ */
+public class Endpoint
+{
+    private final String name;
+    private final String method;
+    private final String path;
+    private final byte[] body;
+    private final int expectedStatus;
+
+    public Endpoint(final String name, final String method, final String path, final int expectedStatus)
+    {
+        this(name, method, path, null, expectedStatus);
+    }
+
+    public Endpoint(final String name,
+                    final String method,
+                    final String path,
+                    final String jsonBody,
+                    final int expectedStatus)
+    {
+        this.name = name;
+        this.method = method;
+        this.path = path;
+        this.body = jsonBody == null ? null : jsonBody.getBytes(Benchmark.UTF_8);
+        this.expectedStatus = expectedStatus;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Sends the request and reads the whole response, so that the connection goes back to the
+     * keep-alive cache for the next call of the same thread.
+     *
+     * @param buffer scratch space for draining the response
+     */
+    public void call(final String baseUri, final byte[] buffer) throws IOException
+    {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(baseUri + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json, text/plain");
+        if (body != null)
+        {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setFixedLengthStreamingMode(body.length);
+            final OutputStream out = connection.getOutputStream();
+            try
+            {
+                out.write(body);
+            }
+            finally
+            {
+                out.close();
+            }
+        }
+
+        final int status = connection.getResponseCode();
+        final InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (in != null)
+        {
+            try
+            {
+                while (in.read(buffer) != -1)
+                {
+                    // drain
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        if (status != expectedStatus)
+        {
+            throw new IOException(method + " " + path + " answered " + status + ", expected " + expectedStatus);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Closed-loop load: a fixed number of client threads, each sending its next request as soon as
+ * the previous one is answered. The throughput is thus what the server sustains at that
+ * concurrency and no request queues up in front of it, which keeps the latencies comparable
+ * between runs.
+ * <p>
+ * Allocations are counted with the per-thread counters of HotSpot's
+ * <code>com.sun.management.ThreadMXBean</code>: the bytes allocated by the whole JVM during
+ * the measurement minus those allocated by the client threads are attributed to the server.
+ * Requests answered after the measurement ended are not sampled.
+ */
+public class LoadGenerator
+{
+    private final String baseUri;
+    private final int threads;
+    private final long warmupMillis;
+    private final long durationMillis;
+
+    public LoadGenerator(final String baseUri, final int threads, final long warmupMillis, final long durationMillis)
+    {
+        this.baseUri = baseUri;
+        this.threads = threads;
+        this.warmupMillis = warmupMillis;
+        this.durationMillis = durationMillis;
+    }
+
+    public Result run(final Endpoint endpoint) throws Exception
+    {
+        final Client[] clients = new Client[threads];
+        final CountDownLatch started = new CountDownLatch(threads);
+        final CountDownLatch finished = new CountDownLatch(threads);
+        final CountDownLatch released = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        for (int i = 0; i < threads; i++)
+        {
+            clients[i] = new Client(endpoint, started, finished, released, failure);
+            clients[i].setName("benchmark-client-" + i);
+            clients[i].start();
+        }
+        started.await();
+
+        final long[] clientIds = new long[threads];
+        for (int i = 0; i < threads; i++)
+        {
+            clientIds[i] = clients[i].getId();
+        }
+
+        Thread.sleep(warmupMillis);
+        final long allocatedBefore = allocatedBytes();
+        final long clientAllocatedBefore = allocatedBytes(clientIds);
+        final long start = System.nanoTime();
+        for (final Client client : clients)
+        {
+            client.measuring = true;
+        }
+        Thread.sleep(durationMillis);
+        for (final Client client : clients)
+        {
+            client.stopped = true;
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        // the clients stay alive until sampled: the counters of terminated threads are gone
+        finished.await();
+        final long allocatedAfter = allocatedBytes();
+        final long clientAllocatedAfter = allocatedBytes(clientIds);
+        released.countDown();
+        for (final Client client : clients)
+        {
+            client.join();
+        }
+        if (failure.get() != null)
+        {
+            throw new IllegalStateException("Benchmark of " + endpoint.getName() + " failed", failure.get());
+        }
+
+        int count = 0;
+        for (final Client client : clients)
+        {
+            count += client.count;
+        }
+        final long[] latencies = new long[count];
+        int offset = 0;
+        for (final Client client : clients)
+        {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            offset += client.count;
+        }
+        Arrays.sort(latencies);
+
+        long serverAllocated = -1;
+        if (allocatedBefore >= 0 && allocatedAfter >= 0)
+        {
+            serverAllocated = allocatedAfter - allocatedBefore - (clientAllocatedAfter - clientAllocatedBefore);
+        }
+        return new Result(endpoint.getName(), latencies, elapsed, serverAllocated);
+    }
+
+    /**
+     * @return the bytes allocated by all live threads so far, or -1 if the JVM doesn't count them
+     */
+    static long allocatedBytes()
+    {
+        final com.sun.management.ThreadMXBean hotspotBean = getAllocationCountingBean();
+        return hotspotBean == null ? -1 : allocatedBytes(hotspotBean.getAllThreadIds());
+    }
+
+    /**
+     * @return the bytes allocated by the given threads so far, or -1 if the JVM doesn't count them
+     */
+    static long allocatedBytes(final long[] threadIds)
+    {
+        final com.sun.management.ThreadMXBean hotspotBean = getAllocationCountingBean();
+        if (hotspotBean == null)
+        {
+            return -1;
+        }
+        long total = 0;
+        for (final long bytes : hotspotBean.getThreadAllocatedBytes(threadIds))
+        {
+            if (bytes > 0)
+            {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationCountingBean()
+    {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean))
+        {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!hotspotBean.isThreadAllocatedMemorySupported() || !hotspotBean.isThreadAllocatedMemoryEnabled())
+        {
+            return null;
+        }
+        return hotspotBean;
+    }
+
+    private class Client extends Thread
+    {
+        private final Endpoint endpoint;
+        private final CountDownLatch started;
+        private final CountDownLatch finished;
+        private final CountDownLatch released;
+        private final AtomicReference<Throwable> failure;
+        private final byte[] buffer = new byte[8192];
+        private long[] latencies = new long[64 * 1024];
+        private int count;
+        volatile boolean measuring;
+        volatile boolean stopped;
+
+        Client(final Endpoint endpoint,
+               final CountDownLatch started,
+               final CountDownLatch finished,
+               final CountDownLatch released,
+               final AtomicReference<Throwable> failure)
+        {
+            this.endpoint = endpoint;
+            this.started = started;
+            this.finished = finished;
+            this.released = released;
+            this.failure = failure;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run()
+        {
+            started.countDown();
+            try
+            {
+                while (!measuring && !stopped)
+                {
+                    endpoint.call(baseUri, buffer);
+                }
+                while (!stopped)
+                {
+                    final long start = System.nanoTime();
+                    endpoint.call(baseUri, buffer);
+                    final long latency = System.nanoTime() - start;
+                    // answered after the measurement ended
+                    if (!stopped)
+                    {
+                        record(latency);
+                    }
+                }
+            }
+            catch (final Throwable t)
+            {
+                failure.compareAndSet(null, t);
+            }
+            finally
+            {
+                finished.countDown();
+                awaitRelease();
+            }
+        }
+
+        private void awaitRelease()
+        {
+            try
+            {
+                released.await();
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void record(final long latency)
+        {
+            if (count == latencies.length)
+            {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.benchmark;
+
+import java.util.Locale;
+
+/**
+ * The measurement of one endpoint shape.
+ */
+public class Result
+{
+    static final String HEADER = String.format(Locale.ENGLISH, "%-24s %10s %9s %9s %9s %9s %9s %10s %9s",
+        "endpoint", "req/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "B/req", "MB/s");
+
+    private final String name;
+    private final long[] sortedLatencies;
+    private final long elapsedNanos;
+    private final long allocatedBytes;
+
+    Result(final String name, final long[] sortedLatencies, final long elapsedNanos, final long allocatedBytes)
+    {
+        this.name = name;
+        this.sortedLatencies = sortedLatencies;
+        this.elapsedNanos = elapsedNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int getRequests()
+    {
+        return sortedLatencies.length;
+    }
+
+    public double getThroughput()
+    {
+        return sortedLatencies.length * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return the latency in nanoseconds below which <code>percentile</code> percent of the
+     *         requests were answered
+     */
+    public long getLatency(final double percentile)
+    {
+        if (sortedLatencies.length == 0)
+        {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+    }
+
+    /**
+     * @return the bytes the server allocated per request, or -1 if the JVM doesn't tell
+     */
+    public long getAllocatedBytesPerRequest()
+    {
+        return allocatedBytes < 0 || sortedLatencies.length == 0 ? -1 : allocatedBytes / sortedLatencies.length;
+    }
+
+    /**
+     * @return the megabytes the server allocated per second, or -1 if the JVM doesn't tell
+     */
+    public double getAllocationRate()
+    {
+        return allocatedBytes < 0 ? -1 : allocatedBytes * 1e9 / elapsedNanos / (1024 * 1024);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format(Locale.ENGLISH, "%-24s %10.0f %9.1f %9.1f %9.1f %9.1f %9.1f %10d %9.1f", name,
+            getThroughput(), getLatency(50) / 1e3, getLatency(90) / 1e3, getLatency(99) / 1e3,
+            getLatency(99.9) / 1e3, getLatency(100) / 1e3, getAllocatedBytesPerRequest(), getAllocationRate());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.benchmark.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.raml.jaxrs.benchmark.model.Order;
+import org.raml.jaxrs.benchmark.model.OrderPage;
+import org.raml.jaxrs.benchmark.resource.Orders;
+
+/**
+ * Serves a fixed set of orders, so that every request of an endpoint does the same work and
+ * nothing accumulates during a run: created orders aren't stored and deletes only look up.
+ */
+public class OrderResource implements Orders
+{
+    public static final int ORDER_COUNT = 100;
+
+    private static final String[] STATUSES = {"open", "shipped", "cancelled"};
+
+    private static final Map<String, Order> ORDERS;
+
+    static
+    {
+        final Map<String, Order> orders = new LinkedHashMap<String, Order>();
+        for (int i = 0; i < ORDER_COUNT; i++)
+        {
+            final String id = "order-" + i;
+            orders.put(id, new Order().withId(id)
+                .withCustomer("customer-" + (i % 7))
+                .withStatus(STATUSES[i % STATUSES.length])
+                .withTotal(10.0 + i)
+                .withLines(1 + i % 5));
+        }
+        ORDERS = Collections.unmodifiableMap(orders);
+    }
+
+    @Override
+    public GetOrdersResponse getOrders(final String status, final long offset, final long limit)
+    {
+        final List<Order> page = new ArrayList<Order>();
+        long skipped = 0;
+        for (final Order order : ORDERS.values())
+        {
+            if (page.size() >= limit)
+            {
+                break;
+            }
+            if (status != null && !status.equals(order.getStatus()))
+            {
+                continue;
+            }
+            if (skipped++ >= offset)
+            {
+                page.add(order);
+            }
+        }
+
+        final OrderPage orderPage = new OrderPage().withOffset((int) offset).withSize(page.size());
+        orderPage.getOrders().addAll(page);
+        return GetOrdersResponse.withJsonOK(orderPage);
+    }
+
+    @Override
+    public PostOrdersResponse postOrders(final Order entity)
+    {
+        entity.setId("order-" + ORDER_COUNT);
+        return PostOrdersResponse.withJsonCreated(entity);
+    }
+
+    @Override
+    public GetOrdersByOrderIdResponse getOrdersByOrderId(final String orderId)
+    {
+        final Order order = ORDERS.get(orderId);
+        if (order == null)
+        {
+            return GetOrdersByOrderIdResponse.withNotFound();
+        }
+        return GetOrdersByOrderIdResponse.withJsonOK(order);
+    }
+
+    @Override
+    public DeleteOrdersByOrderIdResponse deleteOrdersByOrderId(final String orderId)
+    {
+        return DeleteOrdersByOrderIdResponse.withNoContent();
+    }
+}
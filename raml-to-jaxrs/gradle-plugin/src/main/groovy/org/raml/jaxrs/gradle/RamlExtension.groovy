@@ -20,6 +20,7 @@ import org.gradle.api.InvalidUserDataException
 import org.gradle.api.Project
 import org.gradle.api.file.FileCollection
 import org.jsonschema2pojo.AnnotationStyle
+import org.raml.jaxrs.codegen.core.Configuration.AsyncResourceStyle
 import org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion
 
 /**
@@ -92,6 +93,88 @@ class RamlExtension {
 	 */
 	boolean useJsr303Annotations = false
 
+	/**
+	 * Patterns of the full resource URIs to generate code for, e.g. {@code /users/**}.
+	 * All resources are generated if empty.
+	 * @see org.raml.jaxrs.codegen.core.ResourceFilter
+	 */
+	List<String> resourceIncludes = []
+
+	/**
+	 * Patterns of the full resource URIs to skip, with their nested resources.
+	 * @see org.raml.jaxrs.codegen.core.ResourceFilter
+	 */
+	List<String> resourceExcludes = []
+
+	/**
+	 * The trait marking asynchronous resource methods.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#getAsyncResourceTrait()
+	 */
+	String asyncResourceTrait
+
+	/**
+	 * How asynchronous resource methods are generated: {@code suspended},
+	 * {@code completion_stage} or {@code executor}.  The default is {@code suspended}.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#getAsyncResourceStyle()
+	 */
+	String asyncResourceStyle = AsyncResourceStyle.SUSPENDED.name().toLowerCase()
+
+	/**
+	 * The timeout in milliseconds of executor dispatched calls, 0 for the container default.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#getAsyncTimeout()
+	 */
+	long asyncTimeout = 0
+
+	/**
+	 * The trait marking actions with conditional request support.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#getConditionalRequestTrait()
+	 */
+	String conditionalRequestTrait
+
+	/**
+	 * Determines whether or not client proxy interfaces are generated.  Defaults to {@code false}.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#isGenerateClientInterface()
+	 */
+	boolean generateClientProxy = false
+
+	/**
+	 * Determines whether or not a ParamConverterProvider is generated.  Defaults to {@code false}.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#isGenerateParamConverters()
+	 */
+	boolean generateParamConverters = false
+
+	/**
+	 * Determines whether or not methods without response bodies return {@code void}.
+	 * Defaults to {@code false}.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#isEmptyResponseReturnVoid()
+	 */
+	boolean mapToVoid = false
+
+	/**
+	 * Determines whether or not resource methods with the same status codes, headers, media types
+	 * and entity classes share one response class.  Defaults to {@code false}.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#isCompactResponseClasses()
+	 */
+	boolean compactResponseClasses = false
+
+	/**
+	 * Settings of the JSON mapper, e.g. {@code [generateBuilders: 'false']}.
+	 * @see org.raml.jaxrs.codegen.core.Configuration#getJsonMapperConfiguration()
+	 */
+	Map<String, String> jsonMapperConfiguration = [:]
+
+	/**
+	 * Class names of {@link org.raml.jaxrs.codegen.core.ext.GeneratorExtension}s, loaded from
+	 * the {@code raml} configuration.
+	 */
+	List<String> extensions = []
+
+	/**
+	 * Determines whether or not the output directory is emptied before generating.  Defaults to
+	 * {@code false}.
+	 */
+	boolean removeOldOutput = false
+
 	/**
 	 * Constructs a new configuration extension for the RAML properties.
 	 * @param project The Gradle {@link Project} for the currently executing build.
@@ -15,28 +15,51 @@
  */
 package org.raml.jaxrs.gradle.codegen
 
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+import org.apache.commons.io.FileUtils
 import org.gradle.api.DefaultTask
+import org.gradle.api.GradleException
+import org.gradle.api.InvalidUserDataException
+import org.gradle.api.file.FileCollection
 import org.gradle.api.tasks.Input
 import org.gradle.api.tasks.InputFiles
+import org.gradle.api.tasks.Optional
 import org.gradle.api.tasks.OutputDirectory
 import org.gradle.api.tasks.TaskAction
 import org.jsonschema2pojo.AnnotationStyle
 import org.raml.jaxrs.codegen.core.Configuration
 import org.raml.jaxrs.codegen.core.Generator
+import org.raml.jaxrs.codegen.core.Configuration.AsyncResourceStyle
 import org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion
+import org.raml.jaxrs.codegen.core.ext.GeneratorExtension
 import org.raml.jaxrs.gradle.RamlExtension
 
 /**
  * Custom Gradle task that handles the generation of Java code from RAML
  * configuration files.  This task is automatically registered with Gradle
  * by the plugin when included in a build script.
+ * <p>
+ * Every setting that affects the generated code is a task input, so the task is
+ * only up-to-date if neither the settings, the RAML files, the files next to them
+ * they may include nor the extension classpath changed.  The RAML files are
+ * generated in parallel, each with its own generator, configuration and extension
+ * instances into a directory of its own, and the results are then copied to the
+ * output directory in the order of the file paths.
  *
  * @author Jonathan Pearlin
  * @since 1.0
  */
 class CodeGeneratorTask extends DefaultTask {
 
-	Generator generator = new Generator()
+	/**
+	 * Creates the generator for each RAML file.
+	 */
+	Closure<Generator> generatorFactory = { new Generator() }
 
 	RamlExtension configuration
 
@@ -50,6 +73,22 @@ class CodeGeneratorTask extends DefaultTask {
 		configuration.getRamlFiles()
 	}
 
+	/**
+	 * @return all the files of the source directory, which RAML files may include
+	 */
+	@InputFiles
+	FileCollection getSourceDirectoryFiles() {
+		configuration.sourceDirectory ? project.fileTree(configuration.sourceDirectory) : project.files()
+	}
+
+	/**
+	 * @return the classpath the {@link #getGeneratorExtensions() extensions} are loaded from
+	 */
+	@InputFiles
+	FileCollection getExtensionClasspath() {
+		project.configurations.getByName('raml')
+	}
+
 	@Input
 	JaxrsVersion getJaxrsVersion() {
 		JaxrsVersion.fromAlias(configuration.getJaxrsVersion())
@@ -60,27 +99,176 @@ class CodeGeneratorTask extends DefaultTask {
 		AnnotationStyle.valueOf(configuration.getJsonMapper().toUpperCase())
 	}
 
+	@Input
+	Map<String, String> getJsonMapperConfiguration() {
+		configuration.jsonMapperConfiguration
+	}
+
 	@OutputDirectory
 	File getOutputDirectory() {
 		configuration.getOutputDirectory()
 	}
 
 	@Input
-	boolean useJsr303Annotations() {
+	boolean isUseJsr303Annotations() {
 		configuration.useJsr303Annotations
 	}
 
+	@Input
+	List<String> getResourceIncludes() {
+		configuration.resourceIncludes
+	}
+
+	@Input
+	List<String> getResourceExcludes() {
+		configuration.resourceExcludes
+	}
+
+	@Input
+	@Optional
+	String getAsyncResourceTrait() {
+		configuration.asyncResourceTrait
+	}
+
+	@Input
+	AsyncResourceStyle getAsyncResourceStyle() {
+		AsyncResourceStyle.valueOf(configuration.asyncResourceStyle.toUpperCase())
+	}
+
+	@Input
+	long getAsyncTimeout() {
+		configuration.asyncTimeout
+	}
+
+	@Input
+	@Optional
+	String getConditionalRequestTrait() {
+		configuration.conditionalRequestTrait
+	}
+
+	@Input
+	boolean isGenerateClientProxy() {
+		configuration.generateClientProxy
+	}
+
+	@Input
+	boolean isGenerateParamConverters() {
+		configuration.generateParamConverters
+	}
+
+	@Input
+	boolean isMapToVoid() {
+		configuration.mapToVoid
+	}
+
+	@Input
+	boolean isCompactResponseClasses() {
+		configuration.compactResponseClasses
+	}
+
+	@Input
+	List<String> getGeneratorExtensions() {
+		configuration.extensions
+	}
+
+	@Input
+	boolean isRemoveOldOutput() {
+		configuration.removeOldOutput
+	}
+
 	@TaskAction
 	void generate() {
+		File outputDirectory = getOutputDirectory()
+		outputDirectory.mkdirs()
+		if (isRemoveOldOutput()) {
+			FileUtils.cleanDirectory(outputDirectory)
+		}
+
+		List<File> ramlFiles = getRamlFiles().sort()
+		if (ramlFiles.isEmpty()) {
+			return
+		}
+		File workDirectory = getTemporaryDir()
+		FileUtils.cleanDirectory(workDirectory)
+		ClassLoader extensionLoader = createExtensionLoader()
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(ramlFiles.size(), Runtime.runtime.availableProcessors()))
+		try {
+			List<Future<File>> results = []
+			ramlFiles.eachWithIndex { File ramlFile, int index ->
+				File fileOutputDirectory = new File(workDirectory, String.valueOf(index))
+				results << executor.submit({
+					generateFile(ramlFile, fileOutputDirectory, extensionLoader)
+					fileOutputDirectory
+				} as Callable<File>)
+			}
+			results.eachWithIndex { Future<File> result, int index ->
+				try {
+					copyChangedFiles(result.get(), outputDirectory)
+				} catch (ExecutionException e) {
+					throw new GradleException("Error generating Java classes from: ${ramlFiles[index]}", e.cause)
+				}
+			}
+		} finally {
+			executor.shutdownNow()
+		}
+	}
+
+	/**
+	 * Copies the files whose content differs from the output, so that unchanged sources keep
+	 * their modification time and IDEs don't compile them again.
+	 */
+	protected void copyChangedFiles(File fileOutputDirectory, File outputDirectory) {
+		URI base = fileOutputDirectory.toURI()
+		FileUtils.copyDirectory(fileOutputDirectory, outputDirectory, { File file ->
+			File target = new File(outputDirectory, base.relativize(file.toURI()).path)
+			file.isDirectory() || !FileUtils.contentEquals(file, target)
+		} as FileFilter)
+	}
+
+	protected void generateFile(File ramlFile, File fileOutputDirectory, ClassLoader extensionLoader) {
+		logger.info "Generating Java classes from: ${ramlFile}"
+		fileOutputDirectory.mkdirs()
+		Reader reader = new FileReader(ramlFile)
+		try {
+			generatorFactory.call().run(reader, createConfiguration(fileOutputDirectory, extensionLoader))
+		} finally {
+			reader.close()
+		}
+	}
+
+	protected Configuration createConfiguration(File fileOutputDirectory, ClassLoader extensionLoader) {
 		Configuration ramlConfiguration = new Configuration()
 		ramlConfiguration.setBasePackageName(getBasePackageName())
 		ramlConfiguration.setJaxrsVersion(getJaxrsVersion())
 		ramlConfiguration.setJsonMapper(getJsonMapper())
-		ramlConfiguration.setOutputDirectory(getOutputDirectory())
-		ramlConfiguration.setUseJsr303Annotations(useJsr303Annotations())
-
-		getRamlFiles().each { configurationFile ->
-			generator.run(new FileReader(configurationFile), ramlConfiguration)
+		ramlConfiguration.setJsonMapperConfiguration(getJsonMapperConfiguration())
+		ramlConfiguration.setOutputDirectory(fileOutputDirectory)
+		ramlConfiguration.setSourceDirectory(configuration.sourceDirectory)
+		ramlConfiguration.setUseJsr303Annotations(isUseJsr303Annotations())
+		ramlConfiguration.setResourceIncludes(getResourceIncludes())
+		ramlConfiguration.setResourceExcludes(getResourceExcludes())
+		ramlConfiguration.setAsyncResourceTrait(getAsyncResourceTrait())
+		ramlConfiguration.setAsyncResourceStyle(getAsyncResourceStyle())
+		ramlConfiguration.setAsyncTimeout(getAsyncTimeout())
+		ramlConfiguration.setConditionalRequestTrait(getConditionalRequestTrait())
+		ramlConfiguration.setGenerateClientInterface(isGenerateClientProxy())
+		ramlConfiguration.setGenerateParamConverters(isGenerateParamConverters())
+		ramlConfiguration.setEmptyResponseReturnVoid(isMapToVoid())
+		ramlConfiguration.setCompactResponseClasses(isCompactResponseClasses())
+		// extensions keep state of the RAML file being generated, so every file gets new ones
+		getGeneratorExtensions().each { String className ->
+			Object extension = extensionLoader.loadClass(className).newInstance()
+			if (!(extension instanceof GeneratorExtension)) {
+				throw new InvalidUserDataException("${className} does not implement ${GeneratorExtension.name}")
+			}
+			ramlConfiguration.getExtensions().add((GeneratorExtension) extension)
 		}
+		ramlConfiguration
+	}
+
+	protected ClassLoader createExtensionLoader() {
+		URL[] urls = getExtensionClasspath().files.collect { File file -> file.toURI().toURL() } as URL[]
+		new URLClassLoader(urls, Generator.classLoader)
 	}
-}
\ No newline at end of file
+}
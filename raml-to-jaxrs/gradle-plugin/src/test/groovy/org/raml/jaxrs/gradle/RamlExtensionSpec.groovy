@@ -50,5 +50,8 @@ class RamlExtensionSpec extends Specification {
             extension.outputDirectory == new File(project.getBuildDir(), RamlExtension.DEFAULT_OUTPUT_DIRECTORY)
             extension.ramlFiles.size() == 0
             extension.useJsr303Annotations == false
+            extension.asyncResourceStyle == 'suspended'
+            extension.mapToVoid == false
+            extension.extensions.isEmpty()
     }
 }
\ No newline at end of file
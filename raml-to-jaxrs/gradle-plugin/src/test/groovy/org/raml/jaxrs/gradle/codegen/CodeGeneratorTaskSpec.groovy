@@ -20,6 +20,7 @@ import org.gradle.api.internal.file.collections.SimpleFileCollection
 import org.gradle.testfixtures.ProjectBuilder
 import org.junit.Rule
 import org.junit.rules.TemporaryFolder
+import org.raml.jaxrs.codegen.core.Configuration
 import org.raml.jaxrs.codegen.core.Generator
 import org.raml.jaxrs.gradle.RamlExtension
 import org.raml.jaxrs.gradle.RamlPlugin
@@ -49,11 +50,57 @@ class CodeGeneratorTaskSpec extends Specification {
             configuration.sourcePaths = new SimpleFileCollection([ramlConfigFile])
             configuration.outputDirectory = outputDirectory.root
             CodeGeneratorTask generatorTask = project.getTasksByName('raml-generate', false).iterator()[0]
-            generatorTask.generator = Mock(Generator)
+            Generator generator = Mock(Generator)
+            generatorTask.generatorFactory = { generator }
         when:
             generatorTask.configuration = configuration
             generatorTask.generate()
         then:
-            1 * generatorTask.generator.run(_,_)
+            1 * generator.run(_,_)
+    }
+
+    def "test that every .raml file gets its own generator and configuration"() {
+        setup:
+            File firstRamlFile = new File(projectDirectory.root, 'src/main/raml/first.raml')
+            File secondRamlFile = new File(projectDirectory.root, 'src/main/raml/second.raml')
+            firstRamlFile.createNewFile()
+            secondRamlFile.createNewFile()
+            RamlExtension configuration = new RamlExtension(project)
+            configuration.basePackageName = 'org.raml.test'
+            configuration.outputDirectory = outputDirectory.root
+            configuration.jaxrsVersion = '2.0'
+            configuration.asyncResourceTrait = 'async'
+            configuration.mapToVoid = true
+            configuration.jsonMapperConfiguration = [generateBuilders: 'false']
+            CodeGeneratorTask generatorTask = project.getTasksByName('raml-generate', false).iterator()[0]
+            List<Generator> generators = []
+            List<Configuration> configurations = Collections.synchronizedList([])
+            generatorTask.generatorFactory = {
+                Generator generator = Mock(Generator) {
+                    run(_, _) >> { Reader reader, Configuration ramlConfiguration ->
+                        configurations << ramlConfiguration
+                        new File(ramlConfiguration.outputDirectory, "Generated${ramlConfiguration.outputDirectory.name}.java").createNewFile()
+                        [] as Set
+                    }
+                }
+                synchronized (generators) {
+                    generators << generator
+                }
+                generator
+            }
+        when:
+            generatorTask.configuration = configuration
+            generatorTask.generate()
+        then:
+            generators.size() == 2
+            configurations.size() == 2
+            configurations[0].outputDirectory != configurations[1].outputDirectory
+            configurations.every { Configuration ramlConfiguration ->
+                ramlConfiguration.asyncResourceTrait == 'async' &&
+                ramlConfiguration.emptyResponseReturnVoid &&
+                ramlConfiguration.jsonMapperConfiguration == [generateBuilders: 'false'] &&
+                ramlConfiguration.sourceDirectory == configuration.sourceDirectory
+            }
+            outputDirectory.root.list().length == 2
     }
 }
@@ -24,8 +24,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -34,7 +37,9 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.jsonschema2pojo.AnnotationStyle;
+import org.raml.jaxrs.codegen.core.CodegenSession;
 import org.raml.jaxrs.codegen.core.Configuration;
+import org.raml.jaxrs.codegen.core.Configuration.AsyncResourceStyle;
 import org.raml.jaxrs.codegen.core.Configuration.JaxrsVersion;
 import org.raml.jaxrs.codegen.core.Generator;
 import org.raml.jaxrs.codegen.core.ext.GeneratorExtension;
@@ -45,9 +50,18 @@ import org.raml.jaxrs.codegen.core.ext.GeneratorExtension;
  */
 @Mojo(name = "generate", requiresProject = true, threadSafe = false, requiresDependencyResolution = COMPILE_PLUS_RUNTIME, defaultPhase = LifecyclePhase.GENERATE_SOURCES)
 public class RamlJaxrsCodegenMojo extends AbstractMojo {
+	/**
+	 * Sessions by build. Keyed by request, which the copies of the Maven
+	 * session made for the modules of a parallel build share
+	 */
+	private static final Map<MavenExecutionRequest, CodegenSession> sharedSessions = new WeakHashMap<MavenExecutionRequest, CodegenSession>();
+
 	@Parameter(defaultValue = "${project}")
 	private MavenProject project;
 
+	@Parameter(defaultValue = "${session}", readonly = true)
+	private MavenSession session;
+
 	/**
 	 * Skip plug-in execution.
 	 */
@@ -118,6 +132,43 @@ public class RamlJaxrsCodegenMojo extends AbstractMojo {
 
 	@Parameter(property = "asyncResourceTrait")
 	private String asyncResourceTrait;
+
+	/**
+	 * How methods with the asyncResourceTrait are generated: either
+	 * "suspended", "completion_stage" or "executor"
+	 */
+	@Parameter(property = "asyncResourceStyle", defaultValue = "suspended")
+	private String asyncResourceStyle;
+
+	/**
+	 * Timeout in milliseconds for "executor" style asynchronous methods, 0
+	 * for the container default
+	 */
+	@Parameter(property = "asyncTimeout", defaultValue = "0")
+	private long asyncTimeout;
+
+	/**
+	 * Should a ParamConverterProvider for RAML date, integer, number and
+	 * boolean parameters be generated (JAX-RS 2.0 only)
+	 */
+	@Parameter(property = "generateParamConverters", defaultValue = "false")
+	private boolean generateParamConverters;
+
+	/**
+	 * The name of a trait that marks actions supporting conditional requests:
+	 * they get a Request parameter and ETag/Last-Modified support in their
+	 * response class
+	 */
+	@Parameter(property = "conditionalRequestTrait")
+	private String conditionalRequestTrait;
+
+	/**
+	 * Should resource methods with the same status codes, headers, media types
+	 * and entity classes share one response class?
+	 */
+	@Parameter(property = "compactResponseClasses", defaultValue = "false")
+	private boolean compactResponseClasses;
+
 	/**
 	 * Optional extra configuration provided to the JSON mapper. Supported keys
 	 * are: "generateBuilders", "includeHashcodeAndEquals", "includeToString",
@@ -133,6 +184,29 @@ public class RamlJaxrsCodegenMojo extends AbstractMojo {
 	@Parameter(property = "extensions")
 	private String[] extensions;
 
+	/**
+	 * Patterns of the full resource URIs to generate code for, e.g.
+	 * "/users/**", all resources if none. "*" matches within a path segment,
+	 * "**" any number of segments
+	 */
+	@Parameter(property = "resourceIncludes")
+	private String[] resourceIncludes;
+
+	/**
+	 * Patterns of the full resource URIs to skip, with their nested resources
+	 */
+	@Parameter(property = "resourceExcludes")
+	private String[] resourceExcludes;
+
+	/**
+	 * Should the executions of all the modules of a build share the content of
+	 * included resources and the fingerprints of schemas? Declare the plug-in
+	 * with extensions set to true for all the modules to use the same plug-in
+	 * class loader, and thus the same session
+	 */
+	@Parameter(property = "raml.shareSession", defaultValue = "true")
+	private boolean shareSession;
+
 	/**
 	 * Throw exception on Resource Method
 	 */
@@ -172,11 +246,25 @@ public class RamlJaxrsCodegenMojo extends AbstractMojo {
 			configuration.setOutputDirectory(outputDirectory);
 			configuration.setUseJsr303Annotations(useJsr303Annotations);
 			configuration.setAsyncResourceTrait(asyncResourceTrait);
+			configuration.setAsyncResourceStyle(AsyncResourceStyle.valueOf(asyncResourceStyle.toUpperCase()));
+			configuration.setAsyncTimeout(asyncTimeout);
 			configuration.setGenerateClientInterface(generateClient);
 			configuration.setJsonMapper(AnnotationStyle.valueOf(jsonMapper.toUpperCase()));
 			configuration.setSourceDirectory(sourceDirectory);
 			configuration.setJsonMapperConfiguration(jsonMapperConfiguration);
 			configuration.setEmptyResponseReturnVoid(mapToVoid);
+			configuration.setGenerateParamConverters(generateParamConverters);
+			configuration.setConditionalRequestTrait(conditionalRequestTrait);
+			configuration.setCompactResponseClasses(compactResponseClasses);
+			if (shareSession && session != null) {
+				configuration.setSession(getSharedSession(session));
+			}
+			if (resourceIncludes != null) {
+				configuration.setResourceIncludes(Arrays.asList(resourceIncludes));
+			}
+			if (resourceExcludes != null) {
+				configuration.setResourceExcludes(Arrays.asList(resourceExcludes));
+			}
 			if (extensions != null) {
 				for (String className : extensions) {
 					Class c = Class.forName(className);
@@ -222,6 +310,26 @@ public class RamlJaxrsCodegenMojo extends AbstractMojo {
 		}
 	}
 
+	/**
+	 * @return the session of the build <code>mavenSession</code> belongs to, a
+	 *         new one for every build if the plug-in outlives a build, e.g. in
+	 *         an IDE
+	 */
+	private static CodegenSession getSharedSession(final MavenSession mavenSession) {
+		final MavenExecutionRequest request = mavenSession.getRequest();
+		if (request == null) {
+			return new CodegenSession();
+		}
+		synchronized (sharedSessions) {
+			CodegenSession sharedSession = sharedSessions.get(request);
+			if (sharedSession == null) {
+				sharedSession = new CodegenSession();
+				sharedSessions.put(request, sharedSession);
+			}
+			return sharedSession;
+		}
+	}
+
 	private Collection<File> getRamlFiles() throws MojoExecutionException {
 		if (sourcePaths != null && sourcePaths.length > 0) {
 			final List<File> sourceFiles = Arrays.asList(sourcePaths);
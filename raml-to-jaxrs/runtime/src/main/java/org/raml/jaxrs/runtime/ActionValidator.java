@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.ws.rs.core.MediaType;
+
+import org.raml.model.Action;
+import org.raml.model.parameter.Header;
+import org.raml.model.parameter.QueryParameter;
+
+/**
+ * Checks requests against the query parameters, headers and body media types declared for a RAML
+ * action, compiled once.
+ */
+public class ActionValidator
+{
+    private final List<ParameterValidator> queryParameters;
+    private final List<ParameterValidator> headers;
+    private final Set<String> mediaTypes;
+
+    public ActionValidator(final Action action)
+    {
+        queryParameters = new ArrayList<ParameterValidator>();
+        for (final Entry<String, QueryParameter> queryParameter : action.getQueryParameters().entrySet())
+        {
+            queryParameters.add(new ParameterValidator("query parameter", queryParameter.getKey(),
+                queryParameter.getValue()));
+        }
+
+        headers = new ArrayList<ParameterValidator>();
+        for (final Entry<String, Header> header : action.getHeaders().entrySet())
+        {
+            headers.add(new ParameterValidator("header", header.getKey(), header.getValue()));
+        }
+
+        final Set<String> declaredMediaTypes = new HashSet<String>();
+        if (action.getBody() != null)
+        {
+            for (final String mediaType : action.getBody().keySet())
+            {
+                declaredMediaTypes.add(mediaType.toLowerCase(Locale.ENGLISH));
+            }
+        }
+        mediaTypes = Collections.unmodifiableSet(declaredMediaTypes);
+    }
+
+    /**
+     * @return false if the action declares a body and the request entity has none of its media types.
+     */
+    public boolean accepts(final MediaType mediaType, final boolean hasEntity)
+    {
+        if (mediaTypes.isEmpty() || !hasEntity)
+        {
+            return true;
+        }
+        return mediaType != null
+               && mediaTypes.contains((mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase(Locale.ENGLISH));
+    }
+
+    public void validate(final Map<String, List<String>> queryParameters,
+                         final Map<String, List<String>> headers,
+                         final List<String> violations)
+    {
+        validate(this.queryParameters, queryParameters, violations);
+        validate(this.headers, headers, violations);
+    }
+
+    static void validate(final List<ParameterValidator> validators,
+                         final Map<String, List<String>> values,
+                         final List<String> violations)
+    {
+        for (final ParameterValidator validator : validators)
+        {
+            validator.validate(values.get(validator.getName()), violations);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.runtime;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.raml.model.ParamType;
+import org.raml.model.parameter.AbstractParam;
+
+/**
+ * Checks the values of one RAML parameter against its declaration, compiled once.
+ */
+public class ParameterValidator
+{
+    private static final Pattern INTEGER = Pattern.compile("[-+]?\\d+");
+
+    private static final ThreadLocal<SimpleDateFormat> RFC_2616_DATE = new ThreadLocal<SimpleDateFormat>()
+    {
+        @Override
+        protected SimpleDateFormat initialValue()
+        {
+            final SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            format.setLenient(false);
+            return format;
+        }
+    };
+
+    private final String description;
+    private final String name;
+    private final ParamType type;
+    private final boolean required;
+    private final boolean repeat;
+    private final Set<String> enumeration;
+    private final Pattern pattern;
+    private final Integer minLength;
+    private final Integer maxLength;
+    private final BigDecimal minimum;
+    private final BigDecimal maximum;
+
+    /**
+     * @param kind what the parameter is, e.g. <code>query parameter</code>, used in messages.
+     */
+    public ParameterValidator(final String kind, final String name, final AbstractParam parameter)
+    {
+        this.description = kind + " " + name;
+        this.name = name;
+        this.type = parameter.getType() != null ? parameter.getType() : ParamType.STRING;
+        this.required = parameter.isRequired();
+        this.repeat = parameter.isRepeat();
+        this.enumeration = parameter.getEnumeration() == null ? Collections.<String> emptySet()
+                                                              : new HashSet<String>(parameter.getEnumeration());
+        this.pattern = parameter.getPattern() == null ? null : Pattern.compile(parameter.getPattern());
+        this.minLength = parameter.getMinLength();
+        this.maxLength = parameter.getMaxLength();
+        this.minimum = parameter.getMinimum();
+        this.maximum = parameter.getMaximum();
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Adds a message to <code>violations</code> for each way <code>values</code> break the declaration.
+     */
+    public void validate(final List<String> values, final List<String> violations)
+    {
+        if (values == null || values.isEmpty())
+        {
+            if (required)
+            {
+                violations.add("Missing required " + description);
+            }
+            return;
+        }
+        if (!repeat && values.size() > 1)
+        {
+            violations.add("Repeated " + description);
+        }
+        for (final String value : values)
+        {
+            validate(value, violations);
+        }
+    }
+
+    private void validate(final String value, final List<String> violations)
+    {
+        switch (type)
+        {
+            case STRING :
+                validateString(value, violations);
+                break;
+            case INTEGER :
+                if (!INTEGER.matcher(value).matches())
+                {
+                    violations.add("Invalid " + description + ", expected an integer: " + value);
+                }
+                else
+                {
+                    validateRange(new BigDecimal(value), violations);
+                }
+                break;
+            case NUMBER :
+                try
+                {
+                    validateRange(new BigDecimal(value), violations);
+                }
+                catch (final NumberFormatException nfe)
+                {
+                    violations.add("Invalid " + description + ", expected a number: " + value);
+                }
+                break;
+            case BOOLEAN :
+                if (!"true".equals(value) && !"false".equals(value))
+                {
+                    violations.add("Invalid " + description + ", expected true or false: " + value);
+                }
+                break;
+            case DATE :
+                try
+                {
+                    RFC_2616_DATE.get().parse(value);
+                }
+                catch (final ParseException pe)
+                {
+                    violations.add("Invalid " + description + ", expected an RFC 2616 date: " + value);
+                }
+                break;
+            default :
+                break;
+        }
+    }
+
+    private void validateString(final String value, final List<String> violations)
+    {
+        if (!enumeration.isEmpty() && !enumeration.contains(value))
+        {
+            violations.add("Invalid " + description + ", expected one of " + enumeration + ": " + value);
+        }
+        if (pattern != null && !pattern.matcher(value).find())
+        {
+            violations.add("Invalid " + description + ", expected to match " + pattern + ": " + value);
+        }
+        if (minLength != null && value.length() < minLength)
+        {
+            violations.add("Invalid " + description + ", shorter than " + minLength + ": " + value);
+        }
+        if (maxLength != null && value.length() > maxLength)
+        {
+            violations.add("Invalid " + description + ", longer than " + maxLength + ": " + value);
+        }
+    }
+
+    private void validateRange(final BigDecimal value, final List<String> violations)
+    {
+        if (minimum != null && value.compareTo(minimum) < 0)
+        {
+            violations.add("Invalid " + description + ", less than " + minimum + ": " + value);
+        }
+        if (maximum != null && value.compareTo(maximum) > 0)
+        {
+            violations.add("Invalid " + description + ", greater than " + maximum + ": " + value);
+        }
+    }
+}
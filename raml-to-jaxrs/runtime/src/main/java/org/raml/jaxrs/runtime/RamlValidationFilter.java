@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.raml.model.Raml;
+
+/**
+ * Enforces a RAML contract on incoming requests, before they are matched to resource methods.
+ * Requests are aborted with:
+ * <ul>
+ * <li>404 if no resource is declared for their path,</li>
+ * <li>405 if the resource doesn't declare their method,</li>
+ * <li>415 if their entity has none of the body media types of the action,</li>
+ * <li>400 if URI parameters, query parameters or headers violate their declarations.</li>
+ * </ul>
+ * The response lists the violations as plain text. OPTIONS requests, and HEAD requests to resources
+ * declaring GET only, are passed through as JAX-RS answers them itself.
+ */
+@PreMatching
+public class RamlValidationFilter implements ContainerRequestFilter
+{
+    private final RouteTrie routes;
+
+    public RamlValidationFilter(final Raml raml)
+    {
+        this(RouteTrie.compile(raml));
+    }
+
+    public RamlValidationFilter(final RouteTrie routes)
+    {
+        this.routes = routes;
+    }
+
+    public void filter(final ContainerRequestContext request)
+    {
+        final String path = request.getUriInfo().getPath();
+        final RouteTrie.Match match = routes.match(path);
+        if (match == null)
+        {
+            abort(request, Status.NOT_FOUND, "No resource declared for: /" + path);
+            return;
+        }
+
+        final String method = request.getMethod();
+        ActionValidator action = match.getRoute().getAction(method);
+        if (action == null && HttpMethod.HEAD.equals(method))
+        {
+            action = match.getRoute().getAction(HttpMethod.GET);
+        }
+        if (action == null)
+        {
+            if (!HttpMethod.OPTIONS.equals(method))
+            {
+                abort(request, Status.METHOD_NOT_ALLOWED, method + " not declared for: " + match.getRoute());
+            }
+            return;
+        }
+
+        if (!action.accepts(request.getMediaType(), request.hasEntity()))
+        {
+            abort(request, Status.UNSUPPORTED_MEDIA_TYPE, "Media type not declared for " + method + " "
+                                                          + match.getRoute().getUri() + ": "
+                                                          + request.getMediaType());
+            return;
+        }
+
+        final List<String> violations = new ArrayList<String>();
+        match.getRoute().validateUriParameters(match.getUriParameters(), violations);
+        action.validate(request.getUriInfo().getQueryParameters(), request.getHeaders(), violations);
+        if (!violations.isEmpty())
+        {
+            final StringBuilder message = new StringBuilder();
+            for (final String violation : violations)
+            {
+                message.append(violation).append('\n');
+            }
+            abort(request, Status.BAD_REQUEST, message.toString());
+        }
+    }
+
+    private static void abort(final ContainerRequestContext request, final Status status, final String message)
+    {
+        request.abortWith(Response.status(status).type(MediaType.TEXT_PLAIN_TYPE).entity(message).build());
+    }
+}
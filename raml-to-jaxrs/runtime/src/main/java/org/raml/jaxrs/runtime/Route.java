@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.runtime;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A resource of the RAML contract: its URI template, URI parameters and actions by HTTP method.
+ */
+public class Route
+{
+    private final String uri;
+    private final List<ParameterValidator> uriParameters;
+    private final Map<String, ActionValidator> actions;
+
+    Route(final String uri, final List<ParameterValidator> uriParameters, final Map<String, ActionValidator> actions)
+    {
+        this.uri = uri;
+        this.uriParameters = Collections.unmodifiableList(uriParameters);
+        this.actions = Collections.unmodifiableMap(actions);
+    }
+
+    public String getUri()
+    {
+        return uri;
+    }
+
+    /**
+     * @return the action declared for <code>method</code>, null if none.
+     */
+    public ActionValidator getAction(final String method)
+    {
+        return actions.get(method.toUpperCase(Locale.ENGLISH));
+    }
+
+    public void validateUriParameters(final Map<String, String> values, final List<String> violations)
+    {
+        for (final ParameterValidator validator : uriParameters)
+        {
+            final String value = values.get(validator.getName());
+            validator.validate(value == null ? null : Collections.singletonList(value), violations);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder methods = new StringBuilder();
+        for (final Entry<String, ActionValidator> action : actions.entrySet())
+        {
+            methods.append(methods.length() == 0 ? "" : ", ").append(action.getKey());
+        }
+        return uri + " [" + methods + "]";
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.raml.model.Action;
+import org.raml.model.ActionType;
+import org.raml.model.Raml;
+import org.raml.model.Resource;
+import org.raml.model.parameter.UriParameter;
+
+/**
+ * The resources of a RAML contract compiled into a trie of path segments, matching request paths in
+ * time proportional to their depth. Literal segments take precedence over URI templates. A trie is
+ * immutable once compiled and safe to share between threads.
+ */
+public final class RouteTrie
+{
+    private static final Pattern TEMPLATE_PARAMETER = Pattern.compile("\\{([^}]+)\\}");
+
+    private final Node root;
+
+    private RouteTrie(final Node root)
+    {
+        this.root = root;
+    }
+
+    public static RouteTrie compile(final Raml raml)
+    {
+        final Node root = new Node();
+        compile(root, raml.getResources().values(), "", new ArrayList<ParameterValidator>());
+        return new RouteTrie(root);
+    }
+
+    private static void compile(final Node parent,
+                                final Iterable<Resource> resources,
+                                final String parentUri,
+                                final List<ParameterValidator> parentUriParameters)
+    {
+        for (final Resource resource : resources)
+        {
+            Node node = parent;
+            for (final String segment : segments(resource.getRelativeUri()))
+            {
+                node = node.child(segment);
+            }
+
+            final List<ParameterValidator> uriParameters = new ArrayList<ParameterValidator>(parentUriParameters);
+            for (final Entry<String, UriParameter> uriParameter : resource.getUriParameters().entrySet())
+            {
+                uriParameters.add(new ParameterValidator("URI parameter", uriParameter.getKey(),
+                    uriParameter.getValue()));
+            }
+
+            final Map<String, ActionValidator> actions = new LinkedHashMap<String, ActionValidator>();
+            for (final Entry<ActionType, Action> action : resource.getActions().entrySet())
+            {
+                actions.put(action.getKey().name(), new ActionValidator(action.getValue()));
+            }
+
+            final String uri = parentUri + resource.getRelativeUri();
+            node.route = new Route(uri, uriParameters, actions);
+            compile(node, resource.getResources().values(), uri, uriParameters);
+        }
+    }
+
+    /**
+     * @param path a request path relative to the base URI of the contract.
+     * @return the matching route with the values of its URI parameters, null if none.
+     */
+    public Match match(final String path)
+    {
+        final List<String> segments = segments(path);
+        final Map<String, String> uriParameters = new HashMap<String, String>();
+        final Route route = root.match(segments, 0, uriParameters);
+        return route == null ? null : new Match(route, uriParameters);
+    }
+
+    private static List<String> segments(final String path)
+    {
+        final List<String> segments = new ArrayList<String>();
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++)
+        {
+            if (i == path.length() || path.charAt(i) == '/')
+            {
+                if (i > start)
+                {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    public static final class Match
+    {
+        private final Route route;
+        private final Map<String, String> uriParameters;
+
+        private Match(final Route route, final Map<String, String> uriParameters)
+        {
+            this.route = route;
+            this.uriParameters = Collections.unmodifiableMap(uriParameters);
+        }
+
+        public Route getRoute()
+        {
+            return route;
+        }
+
+        public Map<String, String> getUriParameters()
+        {
+            return uriParameters;
+        }
+    }
+
+    private static final class Node
+    {
+        private final Map<String, Node> literals = new HashMap<String, Node>();
+        private final List<Template> templates = new ArrayList<Template>();
+        private Route route;
+
+        Node child(final String segment)
+        {
+            if (segment.indexOf('{') < 0)
+            {
+                Node child = literals.get(segment);
+                if (child == null)
+                {
+                    child = new Node();
+                    literals.put(segment, child);
+                }
+                return child;
+            }
+            for (final Template template : templates)
+            {
+                if (template.segment.equals(segment))
+                {
+                    return template.child;
+                }
+            }
+            final Template template = new Template(segment);
+            templates.add(template);
+            return template.child;
+        }
+
+        Route match(final List<String> segments, final int index, final Map<String, String> uriParameters)
+        {
+            if (index == segments.size())
+            {
+                return route;
+            }
+
+            final String segment = segments.get(index);
+            final Node literal = literals.get(segment);
+            if (literal != null)
+            {
+                final Route matched = literal.match(segments, index + 1, uriParameters);
+                if (matched != null)
+                {
+                    return matched;
+                }
+            }
+
+            for (final Template template : templates)
+            {
+                final String[] values = template.match(segment);
+                if (values != null)
+                {
+                    final Route matched = template.child.match(segments, index + 1, uriParameters);
+                    if (matched != null)
+                    {
+                        for (int i = 0; i < values.length; i++)
+                        {
+                            uriParameters.put(template.parameters[i], values[i]);
+                        }
+                        return matched;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A path segment with URI parameters, e.g. <code>{id}</code> or <code>{name}.{extension}</code>.
+     */
+    private static final class Template
+    {
+        private final String segment;
+        private final String[] parameters;
+        private final Pattern pattern;
+        private final Node child = new Node();
+
+        Template(final String segment)
+        {
+            this.segment = segment;
+            final List<String> names = new ArrayList<String>();
+            final StringBuilder regex = new StringBuilder();
+            final Matcher matcher = TEMPLATE_PARAMETER.matcher(segment);
+            int literalStart = 0;
+            while (matcher.find())
+            {
+                regex.append(Pattern.quote(segment.substring(literalStart, matcher.start()))).append("(.+?)");
+                names.add(matcher.group(1));
+                literalStart = matcher.end();
+            }
+            regex.append(Pattern.quote(segment.substring(literalStart)));
+            parameters = names.toArray(new String[names.size()]);
+            // a segment holding a single parameter matches anything, no need for a regex
+            final boolean wholeSegment = parameters.length == 1 && segment.equals("{" + parameters[0] + "}");
+            pattern = wholeSegment ? null : Pattern.compile(regex.toString());
+        }
+
+        String[] match(final String value)
+        {
+            if (pattern == null)
+            {
+                return new String[]{value};
+            }
+            final Matcher matcher = pattern.matcher(value);
+            if (!matcher.matches())
+            {
+                return null;
+            }
+            final String[] values = new String[parameters.length];
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = matcher.group(i + 1);
+            }
+            return values;
+        }
+    }
+}
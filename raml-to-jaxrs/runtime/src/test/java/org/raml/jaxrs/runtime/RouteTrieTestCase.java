@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2015 (c) MuleSoft, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package org.raml.jaxrs.runtime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.raml.parser.visitor.RamlDocumentBuilder;
+
+public class RouteTrieTestCase
+{
+    private static RouteTrie routes;
+
+    @BeforeClass
+    public static void compileRoutes() throws Exception
+    {
+        routes = RouteTrie.compile(new RamlDocumentBuilder().build(
+            new InputStreamReader(RouteTrieTestCase.class.getResourceAsStream("/org/raml/runtime/routes.yaml"))));
+    }
+
+    @Test
+    public void matchesLiteralSegmentsBeforeTemplates()
+    {
+        assertThat(routes.match("items/latest").getRoute().getUri(), is("/items/latest"));
+        assertThat(routes.match("/items/42/").getRoute().getUri(), is("/items/{itemId}"));
+        assertThat(routes.match("items/42").getUriParameters().get("itemId"), is("42"));
+    }
+
+    @Test
+    public void matchesTemplatesWithinSegments()
+    {
+        final RouteTrie.Match match = routes.match("items/42/files/report.pdf");
+
+        assertThat(match.getRoute().getUri(), is("/items/{itemId}/files/{name}.{extension}"));
+        assertThat(match.getUriParameters().get("name"), is("report"));
+        assertThat(match.getUriParameters().get("extension"), is("pdf"));
+    }
+
+    @Test
+    public void rejectsUndeclaredPathsAndMethods()
+    {
+        assertThat(routes.match("orders"), is(nullValue()));
+        assertThat(routes.match("items/42/files"), is(nullValue()));
+        assertThat(routes.match("items").getRoute().getAction("DELETE"), is(nullValue()));
+        assertThat(routes.match("items").getRoute().getAction("get"), is(notNullValue()));
+    }
+
+    @Test
+    public void validatesParameters()
+    {
+        final ActionValidator getItems = routes.match("items").getRoute().getAction("GET");
+        final List<String> violations = new ArrayList<String>();
+
+        getItems.validate(parameters("limit", "10", "order", "asc"), parameters(), violations);
+        assertThat(violations, is(empty()));
+
+        getItems.validate(parameters("limit", "1000", "order", "random"), parameters(), violations);
+        assertThat(violations, hasSize(2));
+
+        final RouteTrie.Match item = routes.match("items/abc");
+        violations.clear();
+        item.getRoute().validateUriParameters(item.getUriParameters(), violations);
+        item.getRoute().getAction("GET").validate(parameters(), parameters(), violations);
+        assertThat(violations, contains("Invalid URI parameter itemId, expected an integer: abc",
+            "Missing required header X-Tenant"));
+    }
+
+    @Test
+    public void checksBodyMediaTypes()
+    {
+        final ActionValidator postItems = routes.match("items").getRoute().getAction("POST");
+
+        assertThat(postItems.accepts(new MediaType("application", "json"), true), is(true));
+        assertThat(postItems.accepts(new MediaType("text", "plain"), true), is(false));
+        assertThat(postItems.accepts(null, false), is(true));
+    }
+
+    private static Map<String, List<String>> parameters(final String... namesAndValues)
+    {
+        final Map<String, List<String>> parameters = new HashMap<String, List<String>>();
+        for (int i = 0; i < namesAndValues.length; i += 2)
+        {
+            parameters.put(namesAndValues[i], Collections.singletonList(namesAndValues[i + 1]));
+        }
+        return parameters;
+    }
+}